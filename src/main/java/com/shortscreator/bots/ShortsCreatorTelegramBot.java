@@ -1,14 +1,20 @@
 package com.shortscreator.bots;
 
+import com.shortscreator.model.GeneratedContentStatus;
 import com.shortscreator.model.VideoCreationContent;
+import com.shortscreator.service.CategoryRotationScheduler;
+import com.shortscreator.service.GeneratedContentStore;
 import com.shortscreator.service.InVideoAutomationService;
+import com.shortscreator.service.JobHandle;
+import com.shortscreator.service.JobRegistry;
 import com.shortscreator.service.OpenAIService;
+import com.shortscreator.service.TipPoolService;
 import com.shortscreator.service.YouTubeService;
+import java.time.Duration;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -31,8 +37,12 @@ import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
 
   private final OpenAIService openAIService;
+  private final TipPoolService tipPoolService;
   private final InVideoAutomationService inVideoAutomationService;
   private final YouTubeService youTubeService;
+  private final JobRegistry jobRegistry;
+  private final GeneratedContentStore contentStore;
+  private final CategoryRotationScheduler categoryRotationScheduler;
   private final String botUsername;
   private static final String CALLBACK_CREATE_VIDEO_PREFIX = "create_video_";
 
@@ -40,25 +50,40 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
       @Value("${telegram.bot.username}") String botUsername,
       @Value("${telegram.bot.token}") String botToken,
       OpenAIService openAIService,
+      TipPoolService tipPoolService,
       InVideoAutomationService inVideoAutomationService,
-      YouTubeService youTubeService) {
+      YouTubeService youTubeService,
+      JobRegistry jobRegistry,
+      GeneratedContentStore contentStore,
+      CategoryRotationScheduler categoryRotationScheduler) {
     super(botToken);
     this.botUsername = botUsername;
     this.openAIService = openAIService;
+    this.tipPoolService = tipPoolService;
     this.inVideoAutomationService = inVideoAutomationService;
     this.youTubeService = youTubeService;
+    this.jobRegistry = jobRegistry;
+    this.contentStore = contentStore;
+    this.categoryRotationScheduler = categoryRotationScheduler;
     log.info("ShortsCreatorTelegramBot 초기화 완료. Username: {}", this.botUsername);
   }
 
-  // 생성된 콘텐츠 임시 저장용
-  private final Map<String, VideoCreationContent> pendingVideoTasks = new HashMap<>();
-
   // Gmail 계정 정보 (application.yml에서 주입)
   @Value("${invideo.account.username}")
   private String invideoGmailUsername;
   @Value("${invideo.account.password}")
   private String invideoGmailPassword;
 
+  // 스트리밍 모드: 제목/스크립트가 완성되는 대로 먼저 보여줌
+  @Value("${openai.streaming.enabled:false}")
+  private boolean streamingEnabled;
+
+  // 작업별 시간 예산 (팁 생성 작업과 렌더링+업로드 작업에 따로 적용). 넘기면 작업을 중단하고 브라우저 등 자원을 반환
+  @Value("${job.deadline.generate_seconds:180}")
+  private long generateDeadlineSeconds;
+  @Value("${job.deadline.render_seconds:1200}")
+  private long renderDeadlineSeconds;
+
   @Override
   public String getBotUsername() {
     return this.botUsername;
@@ -80,6 +105,9 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
       } else if (messageText.toLowerCase().startsWith("/create_video ")) {
         String taskId = messageText.substring("/create_video ".length()).trim();
         handleCreateVideoCommand(chatId, taskId);
+      } else if (messageText.toLowerCase().startsWith("/cancel ")) {
+        String taskId = messageText.substring("/cancel ".length()).trim();
+        handleCancelCommand(chatId, taskId);
       } else if ("/help".equalsIgnoreCase(messageText) || "/start".equalsIgnoreCase(messageText)) {
         handleHelpCommand(chatId);
       } else {
@@ -87,6 +115,7 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
             "알 수 없는 명령어입니다\\. 사용 가능한 명령어:\n\n" +
                 "• `/generate_tip` \\- 새 팁 콘텐츠 생성\n" +
                 "• `/youtube_auth` \\- YouTube 인증 상태 확인\n" +
+                "• `/cancel <Task ID>` \\- 진행 중인 작업 취소\n" +
                 "• `/help` \\- 도움말 보기", true);
       }
     } else if (update.hasCallbackQuery()) {
@@ -124,6 +153,7 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
         "*사용 가능한 명령어:*\n\n" +
         "📝 `/generate_tip` \\- AI로 새로운 팁 콘텐츠를 생성합니다\n" +
         "🔐 `/youtube_auth` \\- YouTube 업로드 인증 상태를 확인합니다\n" +
+        "🛑 `/cancel <Task ID>` \\- 진행 중인 생성/영상 제작/업로드 작업을 취소합니다\n" +
         "❓ `/help` \\- 이 도움말을 보여줍니다\n\n" +
         "*사용 방법:*\n" +
         "1\\. `/generate_tip` 명령으로 콘텐츠 생성\n" +
@@ -139,53 +169,48 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
   }
 
   private void handleGenerateTipCommand(long chatId) {
-    sendTelegramMessage(chatId, "콘텐츠 생성 요청을 받았습니다\\. OpenAI로부터 팁과 프롬프트를 생성 중입니다\\.\\.\\. 🧘", true);
-    CompletableFuture<VideoCreationContent> futureContent = openAIService.generateVideoContentAndPrompt();
-
-    futureContent.thenAcceptAsync(videoContent -> {
-      if (videoContent != null && videoContent.getDailyTipTitle() != null && !videoContent.getDailyTipTitle().isEmpty()) {
-        String taskId = UUID.randomUUID().toString().substring(0, 8);
-        pendingVideoTasks.put(taskId, videoContent);
-
-        log.info("OpenAI 콘텐츠 생성 완료 (Chat ID: {}, Task ID: {})", chatId, taskId);
-        StringBuilder responseBuilder = new StringBuilder();
-        // Task ID 부분은 백틱을 사용하므로, 이스케이프 처리된 문자열을 직접 구성합니다.
-        responseBuilder.append("🎉 콘텐츠 생성이 완료되었습니다\\! Task ID: `").append(escapeMarkdownV2(taskId)).append("`\\)\n\n");
-
-        responseBuilder.append("*✨ 일일 팁 제목 ✨*\n");
-        responseBuilder.append(escapeMarkdownV2(videoContent.getDailyTipTitle())).append("\n\n");
-
-        String scriptPreview = videoContent.getDailyTipScript();
-        if (scriptPreview.length() > 300) {
-          scriptPreview = scriptPreview.substring(0, 297) + "...";
-        }
-        responseBuilder.append("*📝 일일 팁 스크립트 📝*\n");
-        responseBuilder.append("```\n").append(escapeMarkdownV2(scriptPreview)).append("\n```\n\n");
-
-
-        responseBuilder.append("*🎬 InVideo AI용 프롬프트가 내부적으로 생성되었습니다\\.*\n\n");
-
-        String descriptionPreview = videoContent.getYoutubeShortDescription();
-        if (descriptionPreview.length() > 300) {
-          descriptionPreview = descriptionPreview.substring(0, 297) + "...";
-        }
-        responseBuilder.append("*📄 YouTube Short 설명 📄*\n");
-        responseBuilder.append("```\n").append(escapeMarkdownV2(descriptionPreview)).append("\n```");
-
-
-        InlineKeyboardMarkup inlineKeyboardMarkup = new InlineKeyboardMarkup();
-        InlineKeyboardButton createVideoButton = new InlineKeyboardButton();
-        createVideoButton.setText("🎬 이 내용으로 영상 만들기"); // 버튼 텍스트에는 특수문자 사용 시 주의
-        createVideoButton.setCallbackData(CALLBACK_CREATE_VIDEO_PREFIX + taskId);
-        List<InlineKeyboardButton> rowInline = Collections.singletonList(createVideoButton);
-        List<List<InlineKeyboardButton>> rowsInline = Collections.singletonList(rowInline);
-        inlineKeyboardMarkup.setKeyboard(rowsInline);
-
-        String messageToSend = responseBuilder.toString();
-        log.debug("Message to be sent to Telegram:\n{}", messageToSend); // 로그 레벨을 DEBUG 또는 INFO로 조절
-        sendTelegramMessageWithKeyboard(chatId, messageToSend, inlineKeyboardMarkup);
+    // 이전에 생성했지만 렌더링하지 않은 콘텐츠를 먼저 재사용 (로테이션이 켜져 있으면 다음 차례 카테고리만)
+    List<String> nextCategories = categoryRotationScheduler.peekNextCategories(1);
+    Optional<GeneratedContentStore.StoredContent> recycled =
+        contentStore.claimUnused(nextCategories.isEmpty() ? null : nextCategories.get(0));
+    if (recycled.isPresent()) {
+      log.info("미사용 콘텐츠를 OpenAI 호출 없이 다시 제공합니다 (Chat ID: {}, Task ID: {})", chatId,
+          recycled.get().taskId());
+      // 다음 OpenAI 생성이 같은 카테고리를 다시 배정받지 않도록 로테이션에 반영
+      if (recycled.get().content().getCategory() != null) {
+        categoryRotationScheduler.markUsed(List.of(recycled.get().content().getCategory()));
+      }
+      sendGeneratedTip(chatId, recycled.get().taskId(), recycled.get().content());
+      return;
+    }
 
+    // 미리 생성된 팁이 있으면 OpenAI 호출 없이 즉시 응답
+    Optional<VideoCreationContent> pooledContent = tipPoolService.take();
+    if (pooledContent.isPresent()) {
+      log.info("팁 풀에서 콘텐츠를 즉시 제공합니다 (Chat ID: {})", chatId);
+      sendGeneratedTip(chatId, jobRegistry.newTaskId(), pooledContent.get());
+      return;
+    }
 
+    String taskId = jobRegistry.newTaskId();
+    JobHandle job = jobRegistry.register(taskId, Duration.ofSeconds(generateDeadlineSeconds));
+    sendTelegramMessage(chatId, "콘텐츠 생성 요청을 받았습니다\\(Task ID: `" + taskId + "`\\)\\. "
+        + "OpenAI로부터 팁과 프롬프트를 생성 중입니다\\.\\.\\. 🧘\n취소하려면 `/cancel " + taskId + "`", true);
+    CompletableFuture<VideoCreationContent> futureContent = streamingEnabled
+        ? openAIService.streamVideoContentAndPrompt((key, value) -> sendStreamingPreview(chatId, key, value), job)
+        : openAIService.generateVideoContentAndPrompt(job);
+
+    futureContent.whenComplete((videoContent, ex) -> jobRegistry.complete(job)).thenAcceptAsync(videoContent -> {
+      // 취소된 작업은 /cancel 응답으로 이미 안내했으므로 결과를 보내지 않음
+      if (job.isCancelled()) {
+        log.info("취소된 콘텐츠 생성 작업의 결과를 무시합니다 (Chat ID: {}, Task ID: {})", chatId, taskId);
+        sendDeadlineExceededMessage(chatId, job);
+        return;
+      }
+      // 오류 콘텐츠(제목이 "Error"로 시작)는 팁으로 보여주지 않고 오류 메시지로 안내
+      if (videoContent != null && videoContent.getDailyTipTitle() != null && !videoContent.getDailyTipTitle().isEmpty()
+          && !videoContent.getDailyTipTitle().startsWith("Error")) {
+        sendGeneratedTip(chatId, taskId, videoContent);
       } else {
         log.error("OpenAI 콘텐츠 생성 실패 또는 유효하지 않은 결과 (Chat ID: {})", chatId);
         String errorMessage = "콘텐츠 생성에 실패했습니다\\. ";
@@ -203,6 +228,65 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
     });
   }
 
+  // 시간 제한으로 중단된 작업은 /cancel 응답이 없었으므로 따로 안내
+  private void sendDeadlineExceededMessage(long chatId, JobHandle job) {
+    if (job.isDeadlineExceeded()) {
+      sendTelegramMessage(chatId, "⏱ 작업 시간 제한\\(" + job.getDeadline().getBudget().toSeconds()
+          + "초\\)을 초과하여 중단했습니다\\. \\(Task ID: `" + job.getTaskId() + "`\\)", true);
+    }
+  }
+
+  private void sendStreamingPreview(long chatId, String fieldName, String value) {
+    if ("daily_tip_title".equals(fieldName)) {
+      sendTelegramMessage(chatId, "*✨ 제목 미리보기 ✨*\n" + escapeMarkdownV2(value), true);
+    } else if ("daily_tip_script".equals(fieldName)) {
+      String scriptPreview = value.length() > 300 ? value.substring(0, 297) + "..." : value;
+      sendTelegramMessage(chatId, "*📝 스크립트 미리보기 📝*\n```\n" + escapeMarkdownV2(scriptPreview) + "\n```", true);
+    }
+  }
+
+  private void sendGeneratedTip(long chatId, String taskId, VideoCreationContent videoContent) {
+    contentStore.save(taskId, videoContent);
+
+    log.info("OpenAI 콘텐츠 생성 완료 (Chat ID: {}, Task ID: {})", chatId, taskId);
+    StringBuilder responseBuilder = new StringBuilder();
+    // Task ID 부분은 백틱을 사용하므로, 이스케이프 처리된 문자열을 직접 구성합니다.
+    responseBuilder.append("🎉 콘텐츠 생성이 완료되었습니다\\! Task ID: `").append(escapeMarkdownV2(taskId)).append("`\\)\n\n");
+
+    responseBuilder.append("*✨ 일일 팁 제목 ✨*\n");
+    responseBuilder.append(escapeMarkdownV2(videoContent.getDailyTipTitle())).append("\n\n");
+
+    String scriptPreview = videoContent.getDailyTipScript();
+    if (scriptPreview.length() > 300) {
+      scriptPreview = scriptPreview.substring(0, 297) + "...";
+    }
+    responseBuilder.append("*📝 일일 팁 스크립트 📝*\n");
+    responseBuilder.append("```\n").append(escapeMarkdownV2(scriptPreview)).append("\n```\n\n");
+
+
+    responseBuilder.append("*🎬 InVideo AI용 프롬프트가 내부적으로 생성되었습니다\\.*\n\n");
+
+    String descriptionPreview = videoContent.getYoutubeShortDescription();
+    if (descriptionPreview.length() > 300) {
+      descriptionPreview = descriptionPreview.substring(0, 297) + "...";
+    }
+    responseBuilder.append("*📄 YouTube Short 설명 📄*\n");
+    responseBuilder.append("```\n").append(escapeMarkdownV2(descriptionPreview)).append("\n```");
+
+
+    InlineKeyboardMarkup inlineKeyboardMarkup = new InlineKeyboardMarkup();
+    InlineKeyboardButton createVideoButton = new InlineKeyboardButton();
+    createVideoButton.setText("🎬 이 내용으로 영상 만들기"); // 버튼 텍스트에는 특수문자 사용 시 주의
+    createVideoButton.setCallbackData(CALLBACK_CREATE_VIDEO_PREFIX + taskId);
+    List<InlineKeyboardButton> rowInline = Collections.singletonList(createVideoButton);
+    List<List<InlineKeyboardButton>> rowsInline = Collections.singletonList(rowInline);
+    inlineKeyboardMarkup.setKeyboard(rowsInline);
+
+    String messageToSend = responseBuilder.toString();
+    log.debug("Message to be sent to Telegram:\n{}", messageToSend); // 로그 레벨을 DEBUG 또는 INFO로 조절
+    sendTelegramMessageWithKeyboard(chatId, messageToSend, inlineKeyboardMarkup);
+  }
+
   private void handleYouTubeAuthCommand(long chatId) {
     try {
       log.info("YouTube 인증 상태 확인 요청 (Chat ID: {})", chatId);
@@ -232,7 +316,24 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
   }
 
   private void handleCreateVideoCommand(long chatId, String taskId) {
-    VideoCreationContent taskContent = pendingVideoTasks.get(taskId);
+    // 이미 영상까지 만든 작업은 다시 실행하지 않고 저장된 결과를 안내
+    Optional<String> storedResult = jobRegistry.findResult(taskId);
+    if (storedResult.isPresent()) {
+      sendStoredVideoResult(chatId, taskId, storedResult.get());
+      return;
+    }
+    // 재시작으로 메모리 결과가 없어도 저장소에 렌더링/업로드 완료로 기록된 작업은 다시 실행하지 않음
+    // (진행 중인 작업은 업로드 전에 RENDERED가 기록되므로 submitOnce에서 합류하도록 제외)
+    Optional<GeneratedContentStore.StoredContent> stored = contentStore.find(taskId);
+    if (stored.isPresent() && jobRegistry.find(taskId).isEmpty()) {
+      GeneratedContentStatus status = stored.get().status();
+      if (status == GeneratedContentStatus.RENDERED || status == GeneratedContentStatus.UPLOADED) {
+        sendStoredVideoResult(chatId, taskId, storedStatusMessage(stored.get()));
+        return;
+      }
+    }
+
+    VideoCreationContent taskContent = contentStore.findContent(taskId).orElse(null);
     if (taskContent == null) {
       sendTelegramMessage(chatId,
           "잘못된 작업 ID이거나 해당 작업 내용을 찾을 수 없습니다\\. `/generate_tip` 명령으로 먼저 콘텐츠를 생성해주세요\\.", true);
@@ -246,6 +347,42 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
       return;
     }
 
+    // 버튼 연타나 버튼과 /create_video 명령을 함께 사용한 중복 요청은 새 브라우저 세션을 띄우지 않고 진행 중인 작업에 합류
+    JobRegistry.Submission submission = jobRegistry.submitOnce(taskId, Duration.ofSeconds(renderDeadlineSeconds),
+        job -> inVideoAutomationService.createVideoInInVideoAI(
+            invideoGmailUsername,
+            invideoGmailPassword,
+            taskContent.getInvideoPrompt(),
+            taskContent.getDailyTipTitle(),  // 영상 제목
+            taskContent.getYoutubeShortDescription(),  // 영상 설명
+            job),
+        // 영상이 만들어진 결과만 재사용. 로그인 실패 등은 다시 시도할 수 있도록 저장하지 않음
+        resultMessage -> resultMessage.startsWith("✅"));
+    if (submission.state() == JobRegistry.SubmissionState.JOINED) {
+      log.info("중복 영상 생성 요청을 진행 중인 작업에 합류시켰습니다 (Chat ID: {}, Task ID: {})", chatId, taskId);
+      sendTelegramMessage(chatId, "⏳ 이미 진행 중인 작업입니다\\(Task ID: `" + escapeMarkdownV2(taskId) + "`, 단계: "
+          + escapeMarkdownV2(submission.job().getStage()) + "\\)\\. 완료되면 결과를 알려드립니다\\.", true);
+      // 처음 요청한 채팅과 별개로 합류한 채팅에도 결과를 보냄
+      JobHandle joinedJob = submission.job();
+      submission.result().thenAcceptAsync(resultMessage -> {
+        if (joinedJob.isDeadlineExceeded()) {
+          sendDeadlineExceededMessage(chatId, joinedJob);
+          return;
+        }
+        if (joinedJob.isCancelled()) {
+          sendTelegramMessage(chatId, "합류한 작업이 취소되었습니다\\(Task ID: `" + escapeMarkdownV2(taskId) + "`\\)\\.", true);
+          return;
+        }
+        sendJoinedVideoResult(chatId, taskId, resultMessage);
+      });
+      return;
+    }
+    if (submission.state() == JobRegistry.SubmissionState.COMPLETED) {
+      submission.result().thenAccept(resultMessage -> sendStoredVideoResult(chatId, taskId, resultMessage));
+      return;
+    }
+    JobHandle job = submission.job();
+
     // YouTube OAuth 2.0 인증 상태 확인
     try {
       String authStatus = youTubeService.getAuthenticationStatus();
@@ -265,17 +402,17 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
     }
 
     sendTelegramMessage(chatId,
-        "영상 생성 요청\\(Task ID: `" + taskId + "`\\)을 받았습니다\\. InVideo AI 작업을 시작합니다\\. 브라우저가 실행될 수 있습니다\\.\\.\\. 🎬", true);
+        "영상 생성 요청\\(Task ID: `" + taskId + "`\\)을 받았습니다\\. InVideo AI 작업을 시작합니다\\. 브라우저가 실행될 수 있습니다\\.\\.\\. 🎬\n"
+            + "취소하려면 `/cancel " + taskId + "`", true);
 
-    // 영상 제목과 설명을 별도로 전달
-    inVideoAutomationService.createVideoInInVideoAI(
-            invideoGmailUsername,
-            invideoGmailPassword,
-            taskContent.getInvideoPrompt(),
-            taskContent.getDailyTipTitle(),  // 영상 제목
-            taskContent.getYoutubeShortDescription()  // 영상 설명
-        )
+    submission.result()
         .thenAcceptAsync(resultMessage -> {
+          if (job.isCancelled()) {
+            // 콘텐츠는 남겨두어 /create_video로 다시 시작할 수 있음
+            log.info("취소된 영상 생성 작업이 정리되었습니다 (Chat ID: {}, Task ID: {})", chatId, taskId);
+            sendDeadlineExceededMessage(chatId, job);
+            return;
+          }
           if (resultMessage.startsWith("✅")) {
             String finalMessage = resultMessage + "\n\n\\(Task ID: `" + taskId + "`\\)";
 
@@ -292,7 +429,6 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
             }
 
             sendTelegramMessage(chatId, escapeMarkdownV2(finalMessage), true);
-            pendingVideoTasks.remove(taskId); // 작업 완료 후 제거
 
             // 성공적인 경우에만 히스토리에 추가 (필요시 활성화)
             if (resultMessage.contains("YouTube Shorts 업로드 완료")) {
@@ -324,6 +460,44 @@ public class ShortsCreatorTelegramBot extends TelegramLongPollingBot {
         });
   }
 
+  private String storedStatusMessage(GeneratedContentStore.StoredContent stored) {
+    StringBuilder message = new StringBuilder("✅ 영상 생성 완료: ").append(stored.content().getDailyTipTitle());
+    if (stored.note() != null) {
+      message.append("\n🎬 다운로드된 파일: ").append(stored.note());
+    }
+    message.append(stored.status() == GeneratedContentStatus.UPLOADED
+        ? "\n📺 YouTube Shorts 업로드 완료"
+        : "\n⚠️ YouTube 업로드는 완료되지 않았습니다");
+    return message.toString();
+  }
+
+  private void sendStoredVideoResult(long chatId, String taskId, String resultMessage) {
+    sendTelegramMessage(chatId, "♻️ 이미 완료된 작업입니다\\(Task ID: `" + escapeMarkdownV2(taskId)
+        + "`\\)\\. 다시 실행하지 않고 저장된 결과를 보내드립니다\\.\n\n" + escapeMarkdownV2(resultMessage), true);
+  }
+
+  private void sendJoinedVideoResult(long chatId, String taskId, String resultMessage) {
+    sendTelegramMessage(chatId, "🔁 합류한 작업이 끝났습니다\\(Task ID: `" + escapeMarkdownV2(taskId)
+        + "`\\)\\.\n\n" + escapeMarkdownV2(resultMessage), true);
+  }
+
+  private void handleCancelCommand(long chatId, String taskId) {
+    Optional<JobHandle> job = jobRegistry.find(taskId);
+    String stage = job.map(JobHandle::getStage).orElse(null);
+    if (!jobRegistry.cancel(taskId)) {
+      sendTelegramMessage(chatId, "진행 중인 작업을 찾을 수 없습니다\\(Task ID: `" + escapeMarkdownV2(taskId)
+          + "`\\)\\. 이미 끝났거나 잘못된 ID입니다\\.", true);
+      return;
+    }
+    log.info("사용자 요청으로 작업을 취소했습니다 (Chat ID: {}, Task ID: {}, 단계: {})", chatId, taskId, stage);
+    String message = "🛑 작업을 취소했습니다\\(Task ID: `" + escapeMarkdownV2(taskId) + "`, 단계: "
+        + escapeMarkdownV2(stage) + "\\)\\. 브라우저와 연결을 정리했습니다\\.";
+    if (contentStore.find(taskId).isPresent()) {
+      message += "\n생성된 콘텐츠는 남아 있으므로 `/create_video " + escapeMarkdownV2(taskId) + "` 명령으로 다시 시작할 수 있습니다\\.";
+    }
+    sendTelegramMessage(chatId, message, true);
+  }
+
   private String escapeMarkdownV2(String text) {
     if (text == null) {
       return "";
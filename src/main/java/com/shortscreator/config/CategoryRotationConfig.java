@@ -0,0 +1,32 @@
+package com.shortscreator.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 마스터 프롬프트의 8개 핵심 카테고리와 로테이션 가중치.
+ * 카테고리 이름은 마스터 프롬프트의 "8 CORE CATEGORIES" 제목과 같아야 합니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.category-rotation")
+public class CategoryRotationConfig {
+
+  private boolean enabled = true;
+  private String stateFilepath = "category_rotation_state.json";
+  private List<CategoryWeight> categories = new ArrayList<>();
+
+  @Getter
+  @Setter
+  public static class CategoryWeight {
+
+    private String name;
+    // 가중치가 클수록 같은 시간이 지났을 때 더 먼저 다시 선택됨
+    private double weight = 1.0;
+  }
+}
@@ -0,0 +1,50 @@
+package com.shortscreator.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 렌더링 전 품질 게이트 설정. InVideo 렌더링(브라우저 수 분)과 YouTube 업로드에서 거절될 콘텐츠를
+ * OpenAI 생성 직후 로컬에서 걸러내고, 고칠 수 있는 항목은 자르고 나머지는 다시 생성합니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "content.quality-gate")
+public class ContentQualityGateConfig {
+
+  private boolean enabled = true;
+
+  // 스크립트 낭독 시간 허용 범위 (YouTube Shorts 최대 60초, 마스터 프롬프트 기준 35~45초)
+  private double minSpokenSeconds = 20;
+  private double maxSpokenSeconds = 58;
+  // 문단(장면) 전환마다 더해지는 쉼
+  private double paragraphPauseSeconds = 0.4;
+
+  // 언어 코드 -> 낭독 속도. 스크립트 문자로 언어를 판별하고, 해당 언어가 없으면 defaultLanguage를 사용
+  private String defaultLanguage = "en";
+  private Map<String, SpeechRate> speechRates = new HashMap<>();
+
+  // InVideo brief 입력창 최대 길이
+  private int maxInvideoPromptChars = 4000;
+
+  // YouTube 메타데이터 제한 (제목 100자, 설명 5000바이트, 둘 다 '<' '>' 불가)
+  private int maxTitleChars = 100;
+  private int maxDescriptionBytes = 5000;
+
+  // 스크립트 길이/브리프 길이 문제로 다시 생성하는 최대 횟수. 소진하면 문장 단위로 잘라 맞춤
+  private int maxRegenerations = 1;
+
+  @Getter
+  @Setter
+  public static class SpeechRate {
+
+    // words: 공백으로 구분한 단어 수 기준, characters: 공백을 제외한 글자 수 기준 (일본어, 중국어)
+    private String unit = "words";
+    private double perSecond = 2.5;
+  }
+}
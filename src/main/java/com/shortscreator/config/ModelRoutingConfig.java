@@ -0,0 +1,34 @@
+package com.shortscreator.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 2단계 모델 라우팅 설정. 단계(single, batch, stream)별로 초안 모델을 지정하면 먼저 초안 모델로 생성하고,
+ * 로컬 품질 검사에 실패한 경우에만 openai.api.model로 다시 생성합니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.routing")
+public class ModelRoutingConfig {
+
+  private boolean enabled = false;
+  private Map<String, Stage> stages = new HashMap<>();
+
+  // 스크립트 단어 수 허용 범위 (마스터 프롬프트 기준 35~45초 분량에 여유를 둔 값)
+  private int minScriptWords = 70;
+  private int maxScriptWords = 140;
+
+  @Getter
+  @Setter
+  public static class Stage {
+
+    private boolean enabled = true;
+    private String draftModel;
+  }
+}
@@ -0,0 +1,117 @@
+package com.shortscreator.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shortscreator.service.OpenAIRateGovernor;
+import com.theokanning.openai.client.OpenAiApi;
+import com.theokanning.openai.service.OpenAiService;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Response;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import retrofit2.Retrofit;
+
+/**
+ * OpenAI 클라이언트 설정.
+ * 요청마다 OpenAiService를 새로 만들면 OkHttp 커넥션 풀, Dispatcher, Retrofit/Jackson 설정이 매번 생성되어
+ * TLS 핸드셰이크와 스레드 생성 비용을 팁마다 다시 지불하게 되므로, 하나의 클라이언트를 공유합니다.
+ */
+@Slf4j
+@Configuration
+public class OpenAIClientConfig {
+
+  @Value("${openai.api.timeout_seconds:60}")
+  private long timeoutSeconds;
+
+  @Value("${openai.http.connect_timeout_seconds:10}")
+  private long connectTimeoutSeconds;
+
+  @Value("${openai.http.max_idle_connections:5}")
+  private int maxIdleConnections;
+
+  @Value("${openai.http.keep_alive_seconds:300}")
+  private long keepAliveSeconds;
+
+  @Value("${openai.http.max_requests:16}")
+  private int maxRequests;
+
+  @Value("${openai.http.max_requests_per_host:8}")
+  private int maxRequestsPerHost;
+
+  @Bean
+  public OkHttpClient openAiHttpClient(ApiConfig apiConfig, OpenAIRateGovernor rateGovernor,
+      OpenAIStrictJsonInterceptor strictJsonInterceptor) {
+    Dispatcher dispatcher = new Dispatcher();
+    dispatcher.setMaxRequests(maxRequests);
+    dispatcher.setMaxRequestsPerHost(maxRequestsPerHost);
+
+    String authorization = "Bearer " + apiConfig.getOpenaiApiKey();
+    OkHttpClient client = new OkHttpClient.Builder()
+        .addInterceptor(chain -> {
+          Response response = chain.proceed(
+              chain.request().newBuilder().header("Authorization", authorization).build());
+          if (response.code() == 429) {
+            Duration retryAfter = parseRetryAfter(response);
+            if (retryAfter != null) {
+              rateGovernor.onRateLimited(retryAfter);
+            }
+          }
+          return response;
+        })
+        .addInterceptor(strictJsonInterceptor)
+        .connectionPool(new ConnectionPool(maxIdleConnections, keepAliveSeconds, TimeUnit.SECONDS))
+        .dispatcher(dispatcher)
+        .connectTimeout(connectTimeoutSeconds, TimeUnit.SECONDS)
+        .readTimeout(timeoutSeconds, TimeUnit.SECONDS)
+        .build();
+
+    log.info("OpenAI 공유 HTTP 클라이언트 생성: maxIdle={}, keepAlive={}s, maxRequests={}, maxRequestsPerHost={}, readTimeout={}s",
+        maxIdleConnections, keepAliveSeconds, maxRequests, maxRequestsPerHost, timeoutSeconds);
+    return client;
+  }
+
+  @Bean(destroyMethod = "shutdownExecutor")
+  public OpenAiService openAiClient(OkHttpClient openAiHttpClient) {
+    ObjectMapper mapper = OpenAiService.defaultObjectMapper();
+    Retrofit retrofit = OpenAiService.defaultRetrofit(openAiHttpClient, mapper);
+    return new OpenAiService(retrofit.create(OpenAiApi.class), openAiHttpClient.dispatcher().executorService());
+  }
+
+  /**
+   * 429 응답의 retry-after-ms 또는 Retry-After(초 또는 HTTP 날짜) 헤더를 해석합니다.
+   */
+  private static Duration parseRetryAfter(Response response) {
+    String retryAfterMs = response.header("retry-after-ms");
+    if (retryAfterMs != null) {
+      try {
+        return Duration.ofMillis((long) Double.parseDouble(retryAfterMs.trim()));
+      } catch (NumberFormatException e) {
+        log.debug("retry-after-ms 헤더 해석 실패: {}", retryAfterMs);
+      }
+    }
+    String retryAfter = response.header("Retry-After");
+    if (retryAfter == null) {
+      return null;
+    }
+    try {
+      return Duration.ofMillis((long) (Double.parseDouble(retryAfter.trim()) * 1000));
+    } catch (NumberFormatException e) {
+      try {
+        ZonedDateTime retryAt = ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+        Duration untilRetry = Duration.between(ZonedDateTime.now(retryAt.getZone()), retryAt);
+        return untilRetry.isNegative() ? Duration.ZERO : untilRetry;
+      } catch (DateTimeParseException ex) {
+        log.debug("Retry-After 헤더 해석 실패: {}", retryAfter);
+        return null;
+      }
+    }
+  }
+}
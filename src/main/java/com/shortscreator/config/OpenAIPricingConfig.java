@@ -0,0 +1,49 @@
+package com.shortscreator.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 모델별 토큰 단가 (USD / 100만 토큰). 사용량 비용 추정에 사용합니다.
+ * 모델 이름에 '.'이 포함되므로 application.yml에서는 "[gpt-4.1-mini]" 형태의 키를 사용해야 합니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.pricing")
+public class OpenAIPricingConfig {
+
+  private Map<String, ModelPrice> models = new HashMap<>();
+
+  /**
+   * 모델 이름으로 단가를 찾습니다. "gpt-4.1-mini-2025-04-14"처럼 날짜가 붙은 이름은 가장 긴 접두사가 일치하는 항목을 사용합니다.
+   */
+  public ModelPrice findPrice(String model) {
+    if (model == null) {
+      return null;
+    }
+    ModelPrice exact = models.get(model);
+    if (exact != null) {
+      return exact;
+    }
+    String bestMatch = null;
+    for (String name : models.keySet()) {
+      if (model.startsWith(name) && (bestMatch == null || name.length() > bestMatch.length())) {
+        bestMatch = name;
+      }
+    }
+    return bestMatch != null ? models.get(bestMatch) : null;
+  }
+
+  @Getter
+  @Setter
+  public static class ModelPrice {
+
+    private double inputPerMillion;
+    private double outputPerMillion;
+  }
+}
@@ -0,0 +1,85 @@
+package com.shortscreator.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import okhttp3.Interceptor;
+import okhttp3.MediaType;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okio.Buffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 엄격한 JSON 응답 모드를 지원하는 모델에 대해 chat/completions 요청에 response_format: json_object를 추가합니다.
+ * 사용 중인 openai-gpt3-java 0.18.2의 ChatCompletionRequest에는 response_format 필드가 없으므로 HTTP 계층에서 주입합니다.
+ */
+@Slf4j
+@Component
+public class OpenAIStrictJsonInterceptor implements Interceptor {
+
+  private static final MediaType JSON = MediaType.get("application/json; charset=utf-8");
+
+  private final ObjectMapper mapper = new ObjectMapper();
+  private final AtomicLong injectedRequests = new AtomicLong();
+
+  @Value("${openai.strict_json.enabled:true}")
+  private boolean enabled;
+
+  // 모델 이름 접두사 목록 (예: gpt-4.1 은 gpt-4.1-mini, gpt-4.1-nano 도 포함)
+  @Value("${openai.strict_json.models:gpt-4.1,gpt-4o,gpt-3.5-turbo-1106,gpt-3.5-turbo-0125}")
+  private List<String> supportedModels;
+
+  @Override
+  public Response intercept(Chain chain) throws IOException {
+    Request request = chain.request();
+    if (!enabled || request.body() == null || !request.url().encodedPath().endsWith("/chat/completions")) {
+      return chain.proceed(request);
+    }
+
+    Buffer buffer = new Buffer();
+    request.body().writeTo(buffer);
+    byte[] body = buffer.readByteArray();
+    JsonNode root;
+    try {
+      root = mapper.readTree(body);
+    } catch (IOException e) {
+      log.debug("chat/completions 요청 본문 해석 실패, response_format 주입 생략: {}", e.getMessage());
+      return chain.proceed(request.newBuilder().method(request.method(), RequestBody.create(body, JSON)).build());
+    }
+
+    if (root instanceof ObjectNode objectNode && !objectNode.has("response_format")
+        && isSupported(objectNode.path("model").asText(null))) {
+      objectNode.putObject("response_format").put("type", "json_object");
+      body = mapper.writeValueAsBytes(objectNode);
+      injectedRequests.incrementAndGet();
+    }
+    return chain.proceed(request.newBuilder().method(request.method(), RequestBody.create(body, JSON)).build());
+  }
+
+  private boolean isSupported(String model) {
+    if (model == null) {
+      return false;
+    }
+    for (String prefix : supportedModels) {
+      if (!prefix.isBlank() && model.startsWith(prefix.trim())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public long getInjectedRequests() {
+    return injectedRequests.get();
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+}
@@ -0,0 +1,43 @@
+package com.shortscreator.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 마스터 프롬프트 변형(variant) 실험 설정. 켜져 있으면 생성 요청마다 가중치에 따라 기본 프롬프트(control)나
+ * 변형 프롬프트 중 하나를 골라 사용하고, 변형별 지연 시간/토큰/파싱 실패/중복/품질 게이트 지표를 따로 집계합니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.prompt-variants")
+public class PromptVariantConfig {
+
+  private boolean enabled = false;
+
+  // openai.master_prompt.filepath 프롬프트의 변형 이름과 가중치
+  private String controlName = "control";
+  private double controlWeight = 1.0;
+
+  private List<Variant> variants = new ArrayList<>();
+
+  // 비교 시 이보다 호출 수가 적은 변형은 추천 대상에서 제외
+  private int minSamples = 30;
+  // 파싱 실패율/중복률/품질 게이트 실패율이 control보다 이만큼 넘게 높으면 추천 대상에서 제외
+  private double maxRateIncrease = 0.05;
+
+  @Getter
+  @Setter
+  public static class Variant {
+
+    private String name;
+    // 파일 시스템 경로이면 기본 프롬프트와 마찬가지로 변경 시 자동으로 다시 로드
+    private String filepath;
+    // 상대 가중치 (control_weight와 합한 값 중 비율만큼 요청을 받음)
+    private double weight = 1.0;
+  }
+}
@@ -0,0 +1,56 @@
+package com.shortscreator.config;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 프롬프트 토큰 예산 설정.
+ * 모델 이름에 '.'이 포함되므로 application.yml의 context_windows에서는 "[gpt-4.1-mini]" 형태의 키를 사용해야 합니다.
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties(prefix = "openai.token-budget")
+public class TokenBudgetConfig {
+
+  // 모델 이름 접두사별 컨텍스트 윈도우 (토큰)
+  private Map<String, Integer> contextWindows = new HashMap<>();
+  private int defaultContextWindow = 128000;
+
+  // 프롬프트가 이 값을 넘으면 경고 (정적 prefix는 줄일 수 없으므로 요청은 그대로 보냄)
+  private int maxPromptTokens = 12000;
+
+  // 최근 팁 목록 구간에 허용할 최대 토큰 수 (카테고리 로테이션이 꺼져 있을 때만 사용)
+  private int previousTipsTokens = 600;
+
+  // 단일 팁 생성 시 요청할 최대 completion 토큰 수와, 컨텍스트가 부족할 때 허용하는 최소값
+  private int maxCompletionTokens = 3500;
+  private int minCompletionTokens = 1000;
+
+  // 토큰 수 추정 오차를 고려해 컨텍스트 끝에 남겨둘 여유분
+  private int safetyMarginTokens = 256;
+
+  // 모델에 맞는 인코딩을 찾지 못했을 때 사용할 인코딩
+  private String fallbackEncoding = "cl100k_base";
+
+  public int findContextWindow(String model) {
+    if (model == null) {
+      return defaultContextWindow;
+    }
+    Integer exact = contextWindows.get(model);
+    if (exact != null) {
+      return exact;
+    }
+    String bestMatch = null;
+    for (String name : contextWindows.keySet()) {
+      if (model.startsWith(name) && (bestMatch == null || name.length() > bestMatch.length())) {
+        bestMatch = name;
+      }
+    }
+    return bestMatch != null ? contextWindows.get(bestMatch) : defaultContextWindow;
+  }
+}
@@ -0,0 +1,62 @@
+package com.shortscreator.controller;
+
+import com.shortscreator.service.ScriptFingerprintService;
+import com.shortscreator.service.TipSimilarityService;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/dedup")
+@RequiredArgsConstructor
+public class ContentDedupController {
+
+  private final ScriptFingerprintService scriptFingerprintService;
+  private final TipSimilarityService tipSimilarityService;
+
+  /**
+   * 스크립트가 지금까지 생성된 스크립트와 거의 같은지 SimHash 저장소에서 조회합니다. (등록하지 않음)
+   *
+   * @param script 확인할 스크립트
+   */
+  @PostMapping(value = "/script", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> queryScript(@RequestParam String script) {
+    log.debug("스크립트 근접 중복 조회 요청 ({}자)", script.length());
+    long startedAt = System.nanoTime();
+    ScriptFingerprintService.ScriptMatch match = scriptFingerprintService.findNearDuplicate(script);
+    long elapsedMicros = (System.nanoTime() - startedAt) / 1_000;
+
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("fingerprint", String.format("%016x", scriptFingerprintService.fingerprint(script)));
+    response.put("near_duplicate", match != null);
+    if (match != null) {
+      response.put("matched_fingerprint", String.format("%016x", match.matchedFingerprint()));
+      response.put("hamming_distance", match.distance());
+      response.put("matched_position", match.position());
+    }
+    response.put("lookup_micros", elapsedMicros);
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 중복 검출 저장소(제목/스크립트 MinHash 인덱스, 스크립트 SimHash 저장소) 상태를 조회합니다.
+   */
+  @GetMapping(value = "/status", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> getStatus() {
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("minhash", tipSimilarityService.getMetrics());
+    response.put("script_simhash", scriptFingerprintService.getMetrics());
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+}
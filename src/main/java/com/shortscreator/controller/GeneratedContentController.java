@@ -0,0 +1,77 @@
+package com.shortscreator.controller;
+
+import com.shortscreator.model.GeneratedContentStatus;
+import com.shortscreator.service.GeneratedContentStore;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/content")
+@RequiredArgsConstructor
+public class GeneratedContentController {
+
+  private final GeneratedContentStore contentStore;
+
+  /**
+   * Task ID로 생성된 콘텐츠와 상태를 조회합니다.
+   */
+  @GetMapping(value = "/task", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> findByTaskId(@RequestParam String taskId) {
+    Optional<GeneratedContentStore.StoredContent> stored = contentStore.find(taskId);
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("found", stored.isPresent());
+    stored.ifPresent(content -> response.put("content", content));
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 생성일이 from ~ to(포함) 범위인 콘텐츠를 조회합니다.
+   *
+   * @param status generated, rendered, uploaded, abandoned 중 하나. 생략하면 모두
+   */
+  @GetMapping(value = "/range", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> findByDateRange(
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+      @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+      @RequestParam(required = false) String status) {
+    Map<String, Object> response = new LinkedHashMap<>();
+    GeneratedContentStatus statusFilter = null;
+    if (status != null && !status.isBlank()) {
+      try {
+        statusFilter = GeneratedContentStatus.valueOf(status.trim().toUpperCase());
+      } catch (IllegalArgumentException e) {
+        response.put("error", "Unknown status: " + status);
+        return ResponseEntity.badRequest().body(response);
+      }
+    }
+    ZoneId zone = ZoneId.systemDefault();
+    List<GeneratedContentStore.StoredContent> contents = contentStore.findByCreatedAt(
+        from.atStartOfDay(zone).toInstant(), to.plusDays(1).atStartOfDay(zone).toInstant(), statusFilter);
+    response.put("count", contents.size());
+    response.put("contents", contents);
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  @GetMapping(value = "/stats", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> getStats() {
+    Map<String, Object> response = new LinkedHashMap<>(contentStore.getStats());
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+}
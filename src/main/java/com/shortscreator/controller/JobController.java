@@ -0,0 +1,48 @@
+package com.shortscreator.controller;
+
+import com.shortscreator.service.JobRegistry;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/jobs")
+@RequiredArgsConstructor
+public class JobController {
+
+  private final JobRegistry jobRegistry;
+
+  /**
+   * 진행 중인 작업(생성/영상 제작/업로드)과 단계를 조회합니다.
+   */
+  @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> getJobs() {
+    Map<String, Object> response = new LinkedHashMap<>(jobRegistry.getStatus());
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 진행 중인 작업을 취소합니다. Telegram의 /cancel 명령과 같습니다.
+   *
+   * @param taskId 취소할 작업의 Task ID
+   */
+  @PostMapping(value = "/cancel", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> cancel(@RequestParam String taskId) {
+    log.info("작업 취소 요청 (Task ID: {})", taskId);
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("task_id", taskId);
+    response.put("cancelled", jobRegistry.cancel(taskId));
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+}
@@ -0,0 +1,184 @@
+package com.shortscreator.controller;
+
+import com.shortscreator.config.ApiConfig;
+import com.shortscreator.config.OpenAIStrictJsonInterceptor;
+import com.shortscreator.service.AdaptiveMaxTokensService;
+import com.shortscreator.service.CategoryRotationScheduler;
+import com.shortscreator.service.ContentQualityGate;
+import com.shortscreator.service.JsonResponseRepairer;
+import com.shortscreator.service.MasterPromptService;
+import com.shortscreator.service.ModelRoutingService;
+import com.shortscreator.service.OpenAICircuitBreaker;
+import com.shortscreator.service.OpenAIRateGovernor;
+import com.shortscreator.service.OpenAIRequestHedger;
+import com.shortscreator.service.OpenAIResponseRecorder;
+import com.shortscreator.service.OpenAIService;
+import com.shortscreator.service.OpenAIUsageService;
+import com.shortscreator.service.PromptVariantMetrics;
+import com.shortscreator.service.TipPoolService;
+import com.shortscreator.service.TipSimilarityService;
+import com.shortscreator.service.TokenBudgetService;
+import com.shortscreator.model.LocalizedTipResult;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/openai")
+@RequiredArgsConstructor
+public class OpenAIMetricsController {
+
+  private final OpenAIService openAIService;
+  private final TipPoolService tipPoolService;
+  private final OpenAIRateGovernor rateGovernor;
+  private final OpenAIRequestHedger requestHedger;
+  private final OpenAIResponseRecorder responseRecorder;
+  private final OpenAICircuitBreaker circuitBreaker;
+  private final OpenAIUsageService usageService;
+  private final JsonResponseRepairer jsonResponseRepairer;
+  private final OpenAIStrictJsonInterceptor strictJsonInterceptor;
+  private final TipSimilarityService tipSimilarityService;
+  private final CategoryRotationScheduler categoryRotationScheduler;
+  private final TokenBudgetService tokenBudgetService;
+  private final ApiConfig apiConfig;
+  private final AdaptiveMaxTokensService adaptiveMaxTokensService;
+  private final ModelRoutingService modelRoutingService;
+  private final ContentQualityGate qualityGate;
+  private final MasterPromptService masterPromptService;
+  private final PromptVariantMetrics promptVariantMetrics;
+
+  @Value("${openai.localization.default_locales:ko}")
+  private List<String> defaultLocales;
+
+  /**
+   * OpenAI 생성 관련 지표를 조회합니다.
+   */
+  @GetMapping(value = "/metrics", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> getMetrics() {
+    log.debug("OpenAI 지표 조회 요청");
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("prompt", openAIService.getPromptMetrics());
+    response.put("generation_latency_ms", openAIService.getGenerationLatency().snapshot());
+    response.put("batch_latency_ms", openAIService.getBatchLatency().snapshot());
+    response.put("stream_first_token_ms", openAIService.getStreamFirstTokenLatency().snapshot());
+    response.put("stream_first_field_ms", openAIService.getStreamFirstFieldLatency().snapshot());
+    response.put("circuit_breaker", circuitBreaker.getStatus());
+    response.put("rate_limit", rateGovernor.getMetrics());
+    response.put("hedging", requestHedger.getMetrics());
+    response.put("recording", responseRecorder.getMetrics());
+    response.put("tip_pool", tipPoolService.getMetrics());
+    Map<String, Object> jsonParsing = new LinkedHashMap<>(jsonResponseRepairer.getMetrics());
+    jsonParsing.put("strict_json_mode", strictJsonInterceptor.isEnabled());
+    jsonParsing.put("strict_json_requests", strictJsonInterceptor.getInjectedRequests());
+    response.put("json_parsing", jsonParsing);
+    response.put("dedup", tipSimilarityService.getMetrics());
+    response.put("category_rotation", categoryRotationScheduler.getStatus());
+    response.put("adaptive_max_tokens", adaptiveMaxTokensService.getMetrics());
+    response.put("model_routing", modelRoutingService.getMetrics());
+    response.put("quality_gate", qualityGate.getMetrics());
+    response.put("localization", openAIService.getLocalizationMetrics());
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * OpenAI 서킷 브레이커 상태를 조회합니다.
+   */
+  @GetMapping(value = "/circuit", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> getCircuitStatus() {
+    log.debug("OpenAI 서킷 브레이커 상태 조회 요청");
+    return ResponseEntity.ok(circuitBreaker.getStatus());
+  }
+
+  /**
+   * 최근 days일간의 OpenAI 토큰 사용량, 지연 시간, 추정 비용을 일자별/모델별로 조회합니다.
+   */
+  @GetMapping(value = "/usage", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> getUsage(@RequestParam(defaultValue = "7") int days) {
+    log.debug("OpenAI 사용량 조회 요청 (최근 {}일)", days);
+    Map<String, Object> response = new LinkedHashMap<>(usageService.getUsageSummary(days));
+    response.put("days", days);
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 현재 프롬프트의 구간별 토큰 수와 계산된 max_tokens를 조회합니다 (로컬 토크나이저 사용, API 호출 없음).
+   */
+  @GetMapping(value = "/tokens", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> getPromptTokens() {
+    log.debug("프롬프트 토큰 수 조회 요청");
+    Map<String, Object> response = new LinkedHashMap<>(openAIService.getPromptTokenReport());
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 임의의 텍스트 토큰 수를 계산합니다. 프롬프트 수정 전후 토큰 수 비교용입니다.
+   */
+  @PostMapping(value = "/tokens/count", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> countTokens(@RequestParam String text,
+      @RequestParam(required = false) String model) {
+    String targetModel = model != null && !model.isBlank() ? model : apiConfig.getOpenaiModel();
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("model", targetModel);
+    response.put("encoding", tokenBudgetService.encodingFor(targetModel).getName());
+    response.put("characters", text.length());
+    response.put("tokens", tokenBudgetService.countText(targetModel, text));
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 프롬프트 변형별 지연 시간, 토큰, 비용, 파싱 실패율, 중복률, 품질 게이트 실패율을 비교합니다.
+   * 품질 지표가 control보다 나빠지지 않은 변형 중 가장 저렴한 변형과 가장 빠른 변형을 함께 반환합니다.
+   */
+  @GetMapping(value = "/variants", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> compareVariants() {
+    log.debug("프롬프트 변형 비교 요청");
+    Map<String, Object> response = new LinkedHashMap<>(
+        promptVariantMetrics.compare(masterPromptService.getVariants(), masterPromptService.getControlName()));
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 프롬프트 변형 지표를 초기화합니다. 변형 프롬프트를 수정한 뒤 새로 비교할 때 사용합니다.
+   */
+  @PostMapping(value = "/variants/reset", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> resetVariantMetrics() {
+    promptVariantMetrics.reset();
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("reset", true);
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+
+  /**
+   * 팁 하나를 생성하고 요청한 로케일로 동시에 현지화합니다. 로케일별 소요 시간과 순차 실행 대비 시간을 함께 반환합니다.
+   *
+   * @param locales 쉼표로 구분한 로케일 태그 (예: ko,ja,es). 생략하면 openai.localization.default_locales
+   */
+  @PostMapping(value = "/localize", produces = MediaType.APPLICATION_JSON_VALUE + ";charset=UTF-8")
+  public ResponseEntity<Map<String, Object>> generateLocalizedTip(
+      @RequestParam(required = false) List<String> locales) {
+    List<String> targetLocales = locales != null && !locales.isEmpty() ? locales : defaultLocales;
+    log.info("다국어 팁 생성 요청: {}", targetLocales);
+    LocalizedTipResult result = openAIService.generateLocalizedTip(targetLocales).join();
+    Map<String, Object> response = new LinkedHashMap<>();
+    response.put("result", result);
+    response.put("timestamp", System.currentTimeMillis());
+    return ResponseEntity.ok(response);
+  }
+}
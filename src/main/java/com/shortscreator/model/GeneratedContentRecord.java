@@ -0,0 +1,36 @@
+package com.shortscreator.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 생성 콘텐츠 저장소(JSONL)의 한 줄. 콘텐츠가 처음 저장될 때는 content와 함께 GENERATED로,
+ * 이후 상태가 바뀔 때마다 content 없이 새 상태만 한 줄씩 덧붙입니다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GeneratedContentRecord {
+
+  @JsonProperty("timestamp")
+  private long timestamp;
+
+  @JsonProperty("task_id")
+  private String taskId;
+
+  @JsonProperty("status")
+  private GeneratedContentStatus status;
+
+  @JsonProperty("content")
+  private VideoCreationContent content;
+
+  // 상태 변경 사유 (다운로드 파일 이름, 만료 등)
+  @JsonProperty("note")
+  private String note;
+}
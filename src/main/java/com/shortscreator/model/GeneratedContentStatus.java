@@ -0,0 +1,15 @@
+package com.shortscreator.model;
+
+/**
+ * 생성된 콘텐츠의 처리 상태.
+ */
+public enum GeneratedContentStatus {
+  // 생성되어 사용자에게 보여줬지만 아직 렌더링하지 않음 (재사용 대상)
+  GENERATED,
+  // InVideo 렌더링과 다운로드 완료
+  RENDERED,
+  // YouTube 업로드 완료
+  UPLOADED,
+  // 오래되어 더 이상 재사용하지 않음
+  ABANDONED
+}
@@ -0,0 +1,47 @@
+package com.shortscreator.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 기준 팁 하나와 로케일별로 번역/현지화한 팁. 로케일 호출은 동시에 실행되므로 전체 소요 시간은
+ * 기준 생성 시간 + 가장 느린 로케일 시간에 가깝습니다.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LocalizedTipResult {
+
+  @JsonProperty("base_locale")
+  private String baseLocale;
+
+  @JsonProperty("base")
+  private VideoCreationContent base;
+
+  // 로케일 -> 현지화된 콘텐츠 (요청 순서 유지). 실패한 로케일은 "Error" 콘텐츠
+  @JsonProperty("locales")
+  private Map<String, VideoCreationContent> locales;
+
+  // 로케일 -> 현지화 호출 소요 시간(ms)
+  @JsonProperty("locale_latency_ms")
+  private Map<String, Long> localeLatencyMs;
+
+  @JsonProperty("base_latency_ms")
+  private long baseLatencyMs;
+
+  // 로케일 동시 호출 구간의 실제 소요 시간
+  @JsonProperty("fan_out_latency_ms")
+  private long fanOutLatencyMs;
+
+  // 로케일 호출을 순서대로 실행했다면 걸렸을 시간 (locale_latency_ms 합)
+  @JsonProperty("sequential_latency_ms")
+  private long sequentialLatencyMs;
+
+  @JsonProperty("total_latency_ms")
+  private long totalLatencyMs;
+}
@@ -0,0 +1,58 @@
+package com.shortscreator.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OpenAIUsageRecord {
+
+  @JsonProperty("timestamp")
+  private long timestamp;
+
+  // single, batch, stream 등 호출 종류
+  @JsonProperty("operation")
+  private String operation;
+
+  @JsonProperty("model")
+  private String model;
+
+  @JsonProperty("prompt_version")
+  private String promptVersion;
+
+  // 프롬프트 변형 실험에서 사용한 변형 이름 (변형과 무관한 호출은 null)
+  @JsonProperty("prompt_variant")
+  private String promptVariant;
+
+  @JsonProperty("prompt_tokens")
+  private long promptTokens;
+
+  @JsonProperty("completion_tokens")
+  private long completionTokens;
+
+  // 스트리밍처럼 응답에 usage가 없어 토큰 수를 로컬 BPE 토크나이저(TokenBudgetService)로 계산한 경우 true
+  @JsonProperty("tokens_estimated")
+  private boolean tokensEstimated;
+
+  @JsonProperty("latency_ms")
+  private long latencyMs;
+
+  @JsonProperty("parse_success")
+  private boolean parseSuccess;
+
+  @JsonProperty("estimated_cost_usd")
+  private double estimatedCostUsd;
+
+  // stop, length 등 (length면 max_tokens에 걸려 응답이 잘린 것)
+  @JsonProperty("finish_reason")
+  private String finishReason;
+
+  // 호출 자체가 실패한 경우 예외 이름
+  @JsonProperty("error")
+  private String error;
+}
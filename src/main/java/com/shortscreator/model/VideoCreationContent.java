@@ -21,4 +21,17 @@ public class VideoCreationContent {
 
   @JsonProperty("youtube_short_description")
   private String youtubeShortDescription;
+
+  // 카테고리 로테이션으로 배정된 핵심 카테고리 (OpenAI 응답이 아닌 로컬에서 설정)
+  @JsonProperty("category")
+  private String category;
+
+  // 이 팁을 생성한 마스터 프롬프트 버전 (로컬에서 설정)
+  @JsonProperty("prompt_version")
+  private String promptVersion;
+
+  public VideoCreationContent(String dailyTipTitle, String dailyTipScript, String invideoPrompt,
+      String youtubeShortDescription) {
+    this(dailyTipTitle, dailyTipScript, invideoPrompt, youtubeShortDescription, null, null);
+  }
 }
\ No newline at end of file
@@ -0,0 +1,170 @@
+package com.shortscreator.service;
+
+import com.shortscreator.model.OpenAIUsageRecord;
+import jakarta.annotation.PostConstruct;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 모델/프롬프트 버전별로 관측된 completion 토큰 수 분포를 기록하고, 높은 백분위수 + 여유분으로 max_tokens를 정합니다.
+ * 실제 응답은 대부분 고정값(3500)보다 훨씬 짧은데, 속도 제어(TPM) 예산과 일부 공급자의 스케줄링/과금은 max_tokens 예약량을 기준으로 합니다.
+ * 응답이 잘리면(finish_reason=length) 호출자가 원래 상한으로 한 번 더 호출하며, 그 비용도 함께 집계합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AdaptiveMaxTokensService {
+
+  public static final String FINISH_REASON_LENGTH = "length";
+
+  // 사용량 로그의 모델 이름(gpt-4.1-mini-2025-04-14)을 요청 모델 이름(gpt-4.1-mini)으로 맞추기 위한 날짜 접미사
+  private static final String DATED_MODEL_SUFFIX = "-\\d{4}-\\d{2}-\\d{2}$";
+
+  private final OpenAIUsageService usageService;
+
+  @Value("${openai.adaptive_max_tokens.enabled:true}")
+  private boolean enabled;
+
+  @Value("${openai.adaptive_max_tokens.percentile:0.99}")
+  private double percentile;
+
+  @Value("${openai.adaptive_max_tokens.margin_ratio:0.2}")
+  private double marginRatio;
+
+  // 이보다 샘플이 적으면 고정 상한을 그대로 사용
+  @Value("${openai.adaptive_max_tokens.min_samples:20}")
+  private int minSamples;
+
+  // 팁 1개당 요청할 최소 토큰 수
+  @Value("${openai.adaptive_max_tokens.min_tokens:512}")
+  private int minTokens;
+
+  @Value("${openai.adaptive_max_tokens.window:500}")
+  private int window;
+
+  // "모델|프롬프트 버전" -> 팁 1개당 completion 토큰 수 분포
+  private final Map<String, RollingHistogram> completionTokens = new ConcurrentHashMap<>();
+
+  private final AtomicLong adaptiveCalls = new AtomicLong();
+  private final AtomicLong defaultCalls = new AtomicLong();
+  private final AtomicLong reservedTokensAvoided = new AtomicLong();
+  private final DoubleAdder reservationCostAvoidedUsd = new DoubleAdder();
+  private final AtomicLong truncationRetries = new AtomicLong();
+  private final AtomicLong retryWastedPromptTokens = new AtomicLong();
+  private final AtomicLong retryWastedCompletionTokens = new AtomicLong();
+  private final DoubleAdder retryWastedCostUsd = new DoubleAdder();
+  private final AtomicLong retryAddedLatencyMs = new AtomicLong();
+  private final RollingHistogram adaptiveLatency = new RollingHistogram(500);
+  private final RollingHistogram defaultLatency = new RollingHistogram(500);
+
+  @PostConstruct
+  public void initialize() {
+    if (!enabled) {
+      log.info("적응형 max_tokens 비활성화. 고정 상한을 사용합니다.");
+      return;
+    }
+    // 재시작 후에도 바로 적용되도록 사용량 로그의 단일 생성 기록으로 분포를 채움
+    usageService.readLog(usageRecord -> {
+      if (isCompleteSingleTip(usageRecord)) {
+        histogram(usageRecord.getModel().replaceFirst(DATED_MODEL_SUFFIX, ""), usageRecord.getPromptVersion())
+            .record(usageRecord.getCompletionTokens());
+      }
+    });
+    log.info("적응형 max_tokens 활성화: p{} + {}% 여유분, 최소 샘플 {}개, 분포 {}개 로드",
+        Math.round(percentile * 100), Math.round(marginRatio * 100), minSamples, completionTokens.size());
+  }
+
+  private boolean isCompleteSingleTip(OpenAIUsageRecord usageRecord) {
+    return usageRecord.getModel() != null && usageRecord.getError() == null && usageRecord.isParseSuccess()
+        && usageRecord.getCompletionTokens() > 0 && !FINISH_REASON_LENGTH.equals(usageRecord.getFinishReason())
+        && ("single".equals(usageRecord.getOperation()) || "stream".equals(usageRecord.getOperation()));
+  }
+
+  private RollingHistogram histogram(String model, String promptVersion) {
+    return completionTokens.computeIfAbsent(model + "|" + promptVersion, key -> new RollingHistogram(window));
+  }
+
+  /**
+   * 요청할 max_tokens를 계산합니다. 샘플이 부족하면 ceiling을 그대로 반환합니다.
+   *
+   * @param ceiling 토큰 예산으로 정해진 상한 (잘린 응답 재시도 시 사용)
+   * @param tips 한 번의 호출로 생성할 팁 수 (배치 생성은 팁 1개 분포 × 팁 수)
+   */
+  public int maxTokensFor(String model, String promptVersion, int ceiling, int tips) {
+    if (!enabled) {
+      return ceiling;
+    }
+    RollingHistogram histogram = completionTokens.get(model + "|" + promptVersion);
+    if (histogram == null || histogram.size() < minSamples) {
+      defaultCalls.incrementAndGet();
+      return ceiling;
+    }
+    long perTip = Math.max(minTokens, (long) Math.ceil(histogram.percentile(percentile) * (1 + marginRatio)));
+    int limit = (int) Math.min(ceiling, perTip * Math.max(1, tips));
+    adaptiveCalls.incrementAndGet();
+    reservedTokensAvoided.addAndGet(ceiling - limit);
+    // max_tokens 예약량으로 과금하는 공급자 기준의 절감액 (OpenAI는 실제 생성 토큰만 과금)
+    reservationCostAvoidedUsd.add(usageService.estimateCost(model, 0, ceiling - limit));
+    return limit;
+  }
+
+  /**
+   * 정상 종료된 단일 팁 응답의 completion 토큰 수를 기록합니다.
+   */
+  public void recordCompletion(String model, String promptVersion, long tokens) {
+    if (enabled && tokens > 0) {
+      histogram(model, promptVersion).record(tokens);
+    }
+  }
+
+  public void recordLatency(boolean adaptive, long latencyMs) {
+    (adaptive ? adaptiveLatency : defaultLatency).record(latencyMs);
+  }
+
+  /**
+   * 적응형 상한에 걸려 잘린 응답(재시도로 버려진 호출)을 기록합니다.
+   */
+  public void recordTruncation(String model, long promptTokens, long completionTokens, long latencyMs) {
+    truncationRetries.incrementAndGet();
+    retryWastedPromptTokens.addAndGet(promptTokens);
+    retryWastedCompletionTokens.addAndGet(completionTokens);
+    retryWastedCostUsd.add(usageService.estimateCost(model, promptTokens, completionTokens));
+    retryAddedLatencyMs.addAndGet(latencyMs);
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", enabled);
+    metrics.put("percentile", percentile);
+    metrics.put("margin_ratio", marginRatio);
+    metrics.put("adaptive_calls", adaptiveCalls.get());
+    metrics.put("default_calls", defaultCalls.get());
+    metrics.put("reserved_tokens_avoided", reservedTokensAvoided.get());
+    metrics.put("reservation_cost_avoided_usd", round(reservationCostAvoidedUsd.sum()));
+    metrics.put("truncation_retries", truncationRetries.get());
+    metrics.put("retry_wasted_prompt_tokens", retryWastedPromptTokens.get());
+    metrics.put("retry_wasted_completion_tokens", retryWastedCompletionTokens.get());
+    metrics.put("retry_wasted_cost_usd", round(retryWastedCostUsd.sum()));
+    metrics.put("net_reservation_savings_usd", round(reservationCostAvoidedUsd.sum() - retryWastedCostUsd.sum()));
+    metrics.put("retry_added_latency_ms", retryAddedLatencyMs.get());
+    // 예약량이 줄면 TPM 버킷 대기가 줄어듦. 같은 기간의 고정 상한 호출과 지연 시간을 비교
+    metrics.put("adaptive_latency_ms", adaptiveLatency.snapshot());
+    metrics.put("default_latency_ms", defaultLatency.snapshot());
+    Map<String, Object> distributions = new TreeMap<>();
+    completionTokens.forEach((key, histogram) -> distributions.put(key, histogram.snapshot()));
+    metrics.put("completion_tokens_per_tip", distributions);
+    return metrics;
+  }
+
+  private static double round(double usd) {
+    return Math.round(usd * 1_000_000) / 1_000_000.0;
+  }
+}
@@ -0,0 +1,184 @@
+package com.shortscreator.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shortscreator.config.CategoryRotationConfig;
+import jakarta.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 마스터 프롬프트의 핵심 카테고리를 가중치 LRU 방식으로 순환 선택합니다.
+ * 점수 = 가중치 × (마지막 사용 이후 지난 선택 횟수)이며, 점수가 가장 높은 카테고리를 고릅니다.
+ * 모델에게 최근 제목 목록을 보내 카테고리를 알아서 바꾸게 하는 대신, 선택된 카테고리 하나만 프롬프트에 넣습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CategoryRotationScheduler {
+
+  private final CategoryRotationConfig config;
+  private final ObjectMapper objectMapper;
+
+  private RotationState state = new RotationState();
+
+  @Data
+  static class RotationState {
+
+    @JsonProperty("sequence")
+    private long sequence;
+
+    @JsonProperty("last_used")
+    private Map<String, Long> lastUsed = new LinkedHashMap<>();
+
+    @JsonProperty("use_counts")
+    private Map<String, Long> useCounts = new LinkedHashMap<>();
+  }
+
+  @PostConstruct
+  public void initialize() {
+    loadFromFile();
+    log.info("카테고리 로테이션 {}: 카테고리 {}개, 누적 선택 {}회",
+        isEnabled() ? "활성화" : "비활성화", config.getCategories().size(), state.getSequence());
+  }
+
+  public boolean isEnabled() {
+    return config.isEnabled() && !config.getCategories().isEmpty();
+  }
+
+  private synchronized void loadFromFile() {
+    File stateFile = new File(config.getStateFilepath());
+    if (!stateFile.exists() || stateFile.length() == 0) {
+      log.info("카테고리 로테이션 상태 파일({})이 없거나 비어있습니다. 처음부터 순환합니다.", config.getStateFilepath());
+      return;
+    }
+    try {
+      state = objectMapper.readValue(stateFile, RotationState.class);
+      log.info("카테고리 로테이션 상태를 로드했습니다. 경로: {}", config.getStateFilepath());
+    } catch (IOException e) {
+      log.error("카테고리 로테이션 상태 파일({}) 로드 중 오류 발생: {}", config.getStateFilepath(), e.getMessage(), e);
+    }
+  }
+
+  private synchronized void saveToFile() {
+    try {
+      File stateFile = new File(config.getStateFilepath());
+      File parentDir = stateFile.getParentFile();
+      if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+        log.error("저장 경로 디렉토리 생성 실패: {}", parentDir.getAbsolutePath());
+      }
+      objectMapper.writerWithDefaultPrettyPrinter().writeValue(stateFile, state);
+    } catch (IOException e) {
+      log.error("카테고리 로테이션 상태 파일({}) 저장 중 오류 발생: {}", config.getStateFilepath(), e.getMessage(), e);
+    }
+  }
+
+  /**
+   * 다음에 사용할 카테고리를 선택하고 사용 기록에 반영합니다.
+   *
+   * @return 선택된 카테고리 이름. 로테이션이 비활성화되어 있으면 null
+   */
+  public String nextCategory() {
+    List<String> categories = nextCategories(1);
+    return categories.isEmpty() ? null : categories.get(0);
+  }
+
+  /**
+   * 서로 다른 카테고리를 count개 선택합니다 (배치 생성용). 카테고리 수보다 많이 요청하면 카테고리 수만큼만 반환합니다.
+   */
+  public synchronized List<String> nextCategories(int count) {
+    List<String> selected = select(count);
+    markUsed(selected);
+    return selected;
+  }
+
+  /**
+   * 카테고리를 실제로 사용한 것으로 사용 기록에 반영합니다. peekNextCategories()로 배정한 카테고리는
+   * 팁이 채택(또는 재사용 제공)된 뒤에 이 메소드로 반영해야 실패/취소된 생성이 순번을 소비하지 않습니다.
+   */
+  public synchronized void markUsed(List<String> names) {
+    List<String> used = names.stream()
+        .filter(name -> config.getCategories().stream().anyMatch(category -> category.getName().equals(name)))
+        .toList();
+    if (!isEnabled() || used.isEmpty()) {
+      return;
+    }
+    for (String name : used) {
+      state.getLastUsed().put(name, state.getSequence());
+      state.getUseCounts().merge(name, 1L, Long::sum);
+      state.setSequence(state.getSequence() + 1);
+    }
+    saveToFile();
+    log.info("카테고리 로테이션 사용 반영: {}", used);
+  }
+
+  /**
+   * 다음에 선택될 카테고리를 사용 기록에 반영하지 않고 미리 확인합니다.
+   */
+  public synchronized List<String> peekNextCategories(int count) {
+    return select(count);
+  }
+
+  private List<String> select(int count) {
+    if (!isEnabled() || count <= 0) {
+      return List.of();
+    }
+    List<CategoryRotationConfig.CategoryWeight> categories = config.getCategories();
+    List<String> selected = new ArrayList<>(Math.min(count, categories.size()));
+    // 한 번의 선택 안에서는 앞서 고른 카테고리만큼 순번이 진행된 것으로 보고 점수를 계산
+    while (selected.size() < count && selected.size() < categories.size()) {
+      String best = null;
+      double bestScore = -1;
+      for (int i = 0; i < categories.size(); i++) {
+        CategoryRotationConfig.CategoryWeight category = categories.get(i);
+        if (selected.contains(category.getName())) {
+          continue;
+        }
+        double score = Math.max(0.0, category.getWeight())
+            * (age(category.getName(), i, categories.size()) + selected.size());
+        if (score > bestScore) {
+          bestScore = score;
+          best = category.getName();
+        }
+      }
+      selected.add(best);
+    }
+    return selected;
+  }
+
+  // 마지막 사용 이후 지난 선택 횟수. 한 번도 쓰지 않은 카테고리는 설정 순서대로 가장 오래된 것으로 취급
+  private long age(String name, int index, int categoryCount) {
+    Long lastUsed = state.getLastUsed().get(name);
+    if (lastUsed == null) {
+      return state.getSequence() + categoryCount - index;
+    }
+    return state.getSequence() - lastUsed;
+  }
+
+  public synchronized Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("enabled", isEnabled());
+    status.put("sequence", state.getSequence());
+    List<Map<String, Object>> categories = new ArrayList<>();
+    List<CategoryRotationConfig.CategoryWeight> configured = config.getCategories();
+    for (int i = 0; i < configured.size(); i++) {
+      CategoryRotationConfig.CategoryWeight category = configured.get(i);
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("name", category.getName());
+      entry.put("weight", category.getWeight());
+      entry.put("use_count", state.getUseCounts().getOrDefault(category.getName(), 0L));
+      entry.put("selections_since_last_use", age(category.getName(), i, configured.size()));
+      categories.add(entry);
+    }
+    status.put("categories", categories);
+    return status;
+  }
+}
@@ -0,0 +1,339 @@
+package com.shortscreator.service;
+
+import com.shortscreator.config.ContentQualityGateConfig;
+import com.shortscreator.model.VideoCreationContent;
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * InVideo 렌더링 전에 생성된 콘텐츠를 로컬에서 검사합니다.
+ * 제목/설명의 YouTube 규칙 위반(길이, '<' '>')은 바로 고치고, 낭독 시간이 Shorts에 맞지 않거나 InVideo 브리프가
+ * 입력창 제한을 넘으면 호출자가 다시 생성하도록 실패 사유를 돌려줍니다. 재생성 기회를 모두 쓰면 문장 단위로 잘라 맞춥니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ContentQualityGate {
+
+  public static final String REASON_MISSING_FIELD = "missing_field";
+  public static final String REASON_SCRIPT_TOO_LONG = "script_too_long";
+  public static final String REASON_SCRIPT_TOO_SHORT = "script_too_short";
+  public static final String REASON_INVIDEO_PROMPT_TOO_LONG = "invideo_prompt_too_long";
+  public static final String REASON_SCRIPT_NOT_IN_PROMPT = "script_not_in_invideo_prompt";
+
+  private static final String UNIT_CHARACTERS = "characters";
+  private static final String ELLIPSIS = "…";
+  // 문장 끝 (닫는 따옴표/괄호 포함). 스크립트를 자를 때 문장 중간에서 끊지 않기 위함
+  private static final Pattern SENTENCE_END = Pattern.compile("[.!?。！？…]+[\"'”’)]*(?=\\s|$)");
+
+  private final ContentQualityGateConfig config;
+
+  private final AtomicLong reviewedContents = new AtomicLong();
+  private final AtomicLong passedContents = new AtomicLong();
+  private final AtomicLong forcedTrims = new AtomicLong();
+  private final AtomicLong rejectedContents = new AtomicLong();
+  private final Map<String, AtomicLong> failureReasons = new ConcurrentHashMap<>();
+  private final Map<String, AtomicLong> fixedFields = new ConcurrentHashMap<>();
+  private final RollingHistogram spokenSeconds = new RollingHistogram(500);
+
+  /**
+   * 검사 결과.
+   *
+   * @param content 제목/설명을 고친 사본 (원본은 바꾸지 않음)
+   * @param failure 다시 생성하거나 잘라야 하는 사유. 통과하면 null
+   * @param spokenSeconds 스크립트 예상 낭독 시간
+   * @param fixes 바로 고친 필드 이름
+   */
+  public record Review(VideoCreationContent content, String failure, double spokenSeconds, List<String> fixes) {
+
+    public boolean passed() {
+      return failure == null;
+    }
+  }
+
+  @PostConstruct
+  public void initialize() {
+    log.info("렌더링 전 품질 게이트 {}: 낭독 시간 {}~{}초, 브리프 최대 {}자, 낭독 속도 모델 {}개",
+        config.isEnabled() ? "활성화" : "비활성화", config.getMinSpokenSeconds(), config.getMaxSpokenSeconds(),
+        config.getMaxInvideoPromptChars(), config.getSpeechRates().size());
+  }
+
+  public boolean isEnabled() {
+    return config.isEnabled();
+  }
+
+  public int getMaxRegenerations() {
+    return config.getMaxRegenerations();
+  }
+
+  /**
+   * 콘텐츠를 검사합니다. 제목/설명은 바로 고치고, 스크립트 낭독 시간과 InVideo 브리프 길이는 실패 사유로 돌려줍니다.
+   */
+  public Review review(VideoCreationContent content) {
+    if (!config.isEnabled()) {
+      return new Review(content, null, -1, List.of());
+    }
+    reviewedContents.incrementAndGet();
+    if (isBlank(content.getDailyTipTitle()) || isBlank(content.getDailyTipScript())
+        || isBlank(content.getInvideoPrompt()) || isBlank(content.getYoutubeShortDescription())) {
+      return record(new Review(content, REASON_MISSING_FIELD, -1, List.of()));
+    }
+
+    List<String> fixes = new ArrayList<>();
+    String title = fitTitle(content.getDailyTipTitle());
+    if (!title.equals(content.getDailyTipTitle())) {
+      fixes.add("title");
+    }
+    String description = fitDescription(content.getYoutubeShortDescription());
+    if (!description.equals(content.getYoutubeShortDescription())) {
+      fixes.add("description");
+    }
+    VideoCreationContent fitted = new VideoCreationContent(title, content.getDailyTipScript(),
+        content.getInvideoPrompt(), description, content.getCategory(), content.getPromptVersion());
+
+    double seconds = estimateSpokenSeconds(content.getDailyTipScript());
+    String failure = null;
+    if (seconds > config.getMaxSpokenSeconds()) {
+      failure = REASON_SCRIPT_TOO_LONG;
+    } else if (seconds < config.getMinSpokenSeconds()) {
+      failure = REASON_SCRIPT_TOO_SHORT;
+    } else if (content.getInvideoPrompt().length() > config.getMaxInvideoPromptChars()) {
+      failure = REASON_INVIDEO_PROMPT_TOO_LONG;
+    }
+    return record(new Review(fitted, failure, seconds, fixes));
+  }
+
+  /**
+   * 재생성 기회를 모두 쓴 뒤의 마지막 수단. 스크립트를 문장 단위로 잘라 최대 낭독 시간과 브리프 제한에 맞추고,
+   * InVideo 브리프 안의 스크립트도 같이 바꿉니다. 너무 짧은 스크립트나 브리프에 스크립트가 그대로 들어 있지 않은 경우는 고칠 수 없습니다.
+   */
+  public Review trimToFit(Review review) {
+    if (review.passed() || REASON_MISSING_FIELD.equals(review.failure())
+        || REASON_SCRIPT_TOO_SHORT.equals(review.failure())) {
+      return review;
+    }
+    VideoCreationContent content = review.content();
+    String script = content.getDailyTipScript();
+    String prompt = content.getInvideoPrompt();
+    if (!prompt.contains(script)) {
+      return reject(new Review(content, REASON_SCRIPT_NOT_IN_PROMPT, review.spokenSeconds(), review.fixes()));
+    }
+    int promptOverhead = prompt.length() - script.length();
+
+    String trimmed = null;
+    Matcher matcher = SENTENCE_END.matcher(script);
+    while (matcher.find()) {
+      String candidate = script.substring(0, matcher.end()).strip();
+      if (estimateSpokenSeconds(candidate) > config.getMaxSpokenSeconds()
+          || promptOverhead + candidate.length() > config.getMaxInvideoPromptChars()) {
+        break;
+      }
+      trimmed = candidate;
+    }
+    if (trimmed == null || estimateSpokenSeconds(trimmed) < config.getMinSpokenSeconds()) {
+      return reject(review);
+    }
+
+    forcedTrims.incrementAndGet();
+    List<String> fixes = new ArrayList<>(review.fixes());
+    fixes.add("script");
+    fixedFields.computeIfAbsent("script", field -> new AtomicLong()).incrementAndGet();
+    double seconds = estimateSpokenSeconds(trimmed);
+    log.warn("스크립트를 문장 단위로 잘라 맞췄습니다: {}초 -> {}초 ('{}')", Math.round(review.spokenSeconds()),
+        Math.round(seconds), content.getDailyTipTitle());
+    return new Review(new VideoCreationContent(content.getDailyTipTitle(), trimmed, prompt.replace(script, trimmed),
+        content.getYoutubeShortDescription(), content.getCategory(), content.getPromptVersion()), null, seconds, fixes);
+  }
+
+  /**
+   * 재생성 요청 프롬프트에 덧붙일 지시문.
+   */
+  public String regenerationInstruction(Review review) {
+    String script = review.content().getDailyTipScript();
+    SpeechRate rate = speechRate(script != null ? detectLanguage(script) : config.getDefaultLanguage());
+    String unit = rate.characters() ? "characters (excluding spaces)" : "words";
+    long maxUnits = (long) Math.floor(config.getMaxSpokenSeconds() * 0.8 * rate.perSecond());
+    long minUnits = (long) Math.ceil(config.getMinSpokenSeconds() * 1.2 * rate.perSecond());
+    String rejected = "**LENGTH REJECTED:** A previous attempt produced \"" + review.content().getDailyTipTitle() + "\", ";
+    return switch (review.failure()) {
+      case REASON_SCRIPT_TOO_LONG -> rejected + "whose daily_tip_script takes about "
+          + Math.round(review.spokenSeconds()) + " seconds to read aloud, but a YouTube Short must stay under "
+          + Math.round(config.getMaxSpokenSeconds()) + " seconds. Keep the daily_tip_script to at most " + maxUnits
+          + " " + unit + ".";
+      case REASON_SCRIPT_TOO_SHORT -> rejected + "whose daily_tip_script takes only about "
+          + Math.round(review.spokenSeconds()) + " seconds to read aloud. Write a daily_tip_script of at least "
+          + minUnits + " " + unit + ".";
+      case REASON_INVIDEO_PROMPT_TOO_LONG -> rejected + "whose invideo_ai_prompt is "
+          + review.content().getInvideoPrompt().length() + " characters, but the InVideo brief accepts at most "
+          + config.getMaxInvideoPromptChars() + ". Keep the template and write a shorter daily_tip_script.";
+      default -> rejected + "which is missing required fields. Fill in every required key.";
+    };
+  }
+
+  /**
+   * 스크립트의 예상 낭독 시간(초). 스크립트 문자로 언어를 판별해 언어별 낭독 속도를 적용하고, 문단 전환마다 쉼을 더합니다.
+   */
+  public double estimateSpokenSeconds(String script) {
+    String text = script.strip();
+    if (text.isEmpty()) {
+      return 0;
+    }
+    SpeechRate rate = speechRate(detectLanguage(text));
+    double units = rate.characters() ? text.replaceAll("\\s+", "").length() : text.split("\\s+").length;
+    long paragraphs = text.lines().filter(line -> !line.isBlank()).count();
+    return units / rate.perSecond() + Math.max(0, paragraphs - 1) * config.getParagraphPauseSeconds();
+  }
+
+  // 문자 체계 비율로 언어를 판별. 라틴 문자 등은 설정의 기본 언어로 취급
+  String detectLanguage(String text) {
+    int letters = 0;
+    int hangul = 0;
+    int kana = 0;
+    int han = 0;
+    for (int i = 0; i < text.length(); ) {
+      int codePoint = text.codePointAt(i);
+      i += Character.charCount(codePoint);
+      if (!Character.isLetter(codePoint)) {
+        continue;
+      }
+      letters++;
+      switch (Character.UnicodeScript.of(codePoint)) {
+        case HANGUL -> hangul++;
+        case HIRAGANA, KATAKANA -> kana++;
+        case HAN -> han++;
+        default -> {
+        }
+      }
+    }
+    if (letters == 0) {
+      return config.getDefaultLanguage();
+    }
+    if (hangul * 2 > letters) {
+      return "ko";
+    }
+    if (kana > 0 && (kana + han) * 2 > letters) {
+      return "ja";
+    }
+    if (han * 2 > letters) {
+      return "zh";
+    }
+    return config.getDefaultLanguage();
+  }
+
+  private record SpeechRate(boolean characters, double perSecond) {
+
+  }
+
+  private SpeechRate speechRate(String language) {
+    ContentQualityGateConfig.SpeechRate rate = config.getSpeechRates().get(language);
+    if (rate == null) {
+      rate = config.getSpeechRates().get(config.getDefaultLanguage());
+    }
+    if (rate == null || rate.getPerSecond() <= 0) {
+      return new SpeechRate(false, new ContentQualityGateConfig.SpeechRate().getPerSecond());
+    }
+    return new SpeechRate(UNIT_CHARACTERS.equalsIgnoreCase(rate.getUnit()), rate.getPerSecond());
+  }
+
+  // 제목은 한 줄로 만들고 최대 글자 수(코드 포인트)에 맞춰 단어 경계에서 자름
+  private String fitTitle(String title) {
+    String fitted = replaceAngleBrackets(title).replaceAll("\\s+", " ").strip();
+    int maxChars = config.getMaxTitleChars();
+    if (fitted.codePointCount(0, fitted.length()) <= maxChars) {
+      return fitted;
+    }
+    String cut = fitted.substring(0, fitted.offsetByCodePoints(0, maxChars - 1));
+    int lastSpace = cut.lastIndexOf(' ');
+    if (lastSpace > cut.length() / 2) {
+      cut = cut.substring(0, lastSpace);
+    }
+    return cut.strip() + ELLIPSIS;
+  }
+
+  // 설명은 줄바꿈을 유지하고 UTF-8 바이트 수 제한에 맞춰 공백 경계에서 자름
+  private String fitDescription(String description) {
+    String fitted = replaceAngleBrackets(description).strip();
+    int maxBytes = config.getMaxDescriptionBytes();
+    if (fitted.getBytes(StandardCharsets.UTF_8).length <= maxBytes) {
+      return fitted;
+    }
+    int budget = maxBytes - ELLIPSIS.getBytes(StandardCharsets.UTF_8).length;
+    int bytes = 0;
+    int end = 0;
+    while (end < fitted.length()) {
+      int codePoint = fitted.codePointAt(end);
+      int size = new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8).length;
+      if (bytes + size > budget) {
+        break;
+      }
+      bytes += size;
+      end += Character.charCount(codePoint);
+    }
+    String cut = fitted.substring(0, end);
+    int lastWhitespace = Math.max(cut.lastIndexOf(' '), cut.lastIndexOf('\n'));
+    if (lastWhitespace > cut.length() / 2) {
+      cut = cut.substring(0, lastWhitespace);
+    }
+    return cut.strip() + ELLIPSIS;
+  }
+
+  // YouTube 제목/설명에는 '<', '>'를 쓸 수 없으므로 비슷한 모양의 문자로 바꿈
+  private static String replaceAngleBrackets(String text) {
+    return text.replace('<', '‹').replace('>', '›');
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  private Review record(Review review) {
+    if (review.spokenSeconds() >= 0) {
+      spokenSeconds.record(Math.round(review.spokenSeconds()));
+    }
+    review.fixes().forEach(field -> fixedFields.computeIfAbsent(field, name -> new AtomicLong()).incrementAndGet());
+    if (review.passed()) {
+      passedContents.incrementAndGet();
+    } else {
+      failureReasons.computeIfAbsent(review.failure(), reason -> new AtomicLong()).incrementAndGet();
+      log.info("품질 게이트 실패: {} (예상 낭독 시간 {}초, '{}')", review.failure(), Math.round(review.spokenSeconds()),
+          review.content().getDailyTipTitle());
+    }
+    return review;
+  }
+
+  private Review reject(Review review) {
+    rejectedContents.incrementAndGet();
+    log.warn("품질 게이트를 통과하지 못해 콘텐츠를 버립니다: {} ('{}')", review.failure(),
+        review.content().getDailyTipTitle());
+    return review;
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", config.isEnabled());
+    metrics.put("reviewed", reviewedContents.get());
+    metrics.put("passed", passedContents.get());
+    metrics.put("forced_trims", forcedTrims.get());
+    metrics.put("rejected", rejectedContents.get());
+    Map<String, Long> reasons = new TreeMap<>();
+    failureReasons.forEach((reason, count) -> reasons.put(reason, count.get()));
+    metrics.put("failure_reasons", reasons);
+    Map<String, Long> fields = new TreeMap<>();
+    fixedFields.forEach((field, count) -> fields.put(field, count.get()));
+    metrics.put("fixed_fields", fields);
+    metrics.put("spoken_seconds", spokenSeconds.snapshot());
+    return metrics;
+  }
+}
@@ -0,0 +1,290 @@
+package com.shortscreator.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shortscreator.model.GeneratedContentRecord;
+import com.shortscreator.model.GeneratedContentStatus;
+import com.shortscreator.model.VideoCreationContent;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 생성된 모든 콘텐츠와 처리 상태(생성, 렌더링, 업로드, 폐기)를 append-only JSONL 파일에 기록합니다.
+ * 메모리에는 Task ID 인덱스와 생성 시각 인덱스를 유지하며, 렌더링되지 않은 콘텐츠는 새 팁 요청에 먼저 재사용하여
+ * OpenAI 호출을 줄입니다. 재시작해도 파일을 다시 읽어 그대로 복원됩니다.
+ */
+@Slf4j
+@Service
+public class GeneratedContentStore {
+
+  private final ObjectMapper objectMapper;
+  private final String storeFilePath;
+
+  @Value("${content.store.recycle_enabled:true}")
+  private boolean recycleEnabled;
+
+  // 이보다 오래된 미사용 콘텐츠는 재사용하지 않고 폐기(ABANDONED) 처리
+  @Value("${content.store.max_age_hours:72}")
+  private long maxAgeHours;
+
+  // 재사용으로 한 번 제공한 콘텐츠를 다른 요청에 다시 제공하지 않는 시간
+  @Value("${content.store.offer_lease_minutes:30}")
+  private long offerLeaseMinutes;
+
+  // Task ID -> 콘텐츠 (this로 동기화)
+  private final Map<String, StoredEntry> byTaskId = new HashMap<>();
+  // 생성 시각(ms) -> 콘텐츠 목록 (this로 동기화)
+  private final NavigableMap<Long, List<StoredEntry>> byCreatedAt = new TreeMap<>();
+
+  private final AtomicLong recycledContents = new AtomicLong();
+  private final AtomicLong recycleMisses = new AtomicLong();
+
+  /**
+   * 저장된 콘텐츠와 현재 상태.
+   */
+  public record StoredContent(@JsonProperty("task_id") String taskId,
+                              @JsonProperty("content") VideoCreationContent content,
+                              @JsonProperty("status") GeneratedContentStatus status,
+                              @JsonProperty("created_at") long createdAt,
+                              @JsonProperty("updated_at") long updatedAt,
+                              @JsonProperty("note") String note) {
+
+  }
+
+  private static final class StoredEntry {
+
+    private final String taskId;
+    private final VideoCreationContent content;
+    private final long createdAt;
+    private GeneratedContentStatus status = GeneratedContentStatus.GENERATED;
+    private long updatedAt;
+    // 마지막 상태 변경 메모 (렌더링된 파일 이름 등)
+    private String note;
+    // 사용자에게 마지막으로 제공한 시각 (메모리에만 유지). 저장 시점이 첫 제공이므로 생성 시각으로 시작
+    private long offeredAt;
+
+    private StoredEntry(String taskId, VideoCreationContent content, long createdAt) {
+      this.taskId = taskId;
+      this.content = content;
+      this.createdAt = createdAt;
+      this.updatedAt = createdAt;
+      this.offeredAt = createdAt;
+    }
+
+    private StoredContent snapshot() {
+      return new StoredContent(taskId, content, status, createdAt, updatedAt, note);
+    }
+  }
+
+  public GeneratedContentStore(ObjectMapper objectMapper,
+      @Value("${content.store.filepath:generated_content.jsonl}") String storeFilePath) {
+    this.objectMapper = objectMapper;
+    this.storeFilePath = storeFilePath;
+  }
+
+  @PostConstruct
+  public synchronized void initialize() {
+    File storeFile = new File(storeFilePath);
+    if (!storeFile.exists() || storeFile.length() == 0) {
+      log.info("생성 콘텐츠 저장소({})가 없거나 비어있습니다.", storeFilePath);
+      return;
+    }
+    int lines = 0;
+    try (BufferedReader reader = Files.newBufferedReader(storeFile.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          apply(objectMapper.readValue(line, GeneratedContentRecord.class));
+          lines++;
+        } catch (IOException e) {
+          log.warn("손상된 생성 콘텐츠 저장소 라인을 건너뜁니다: {}", e.getMessage());
+        }
+      }
+      log.info("생성 콘텐츠 저장소에서 {}줄을 읽어 콘텐츠 {}개를 복원했습니다. 경로: {}", lines, byTaskId.size(), storeFilePath);
+    } catch (IOException e) {
+      log.error("생성 콘텐츠 저장소({}) 로드 중 오류 발생: {}", storeFilePath, e.getMessage(), e);
+    }
+  }
+
+  // 저장소 라인 하나를 메모리 인덱스에 반영
+  private void apply(GeneratedContentRecord contentRecord) {
+    if (contentRecord.getTaskId() == null || contentRecord.getStatus() == null) {
+      return;
+    }
+    StoredEntry entry = byTaskId.get(contentRecord.getTaskId());
+    if (entry == null) {
+      if (contentRecord.getContent() == null) {
+        return;
+      }
+      entry = new StoredEntry(contentRecord.getTaskId(), contentRecord.getContent(), contentRecord.getTimestamp());
+      byTaskId.put(entry.taskId, entry);
+      byCreatedAt.computeIfAbsent(entry.createdAt, createdAt -> new ArrayList<>(1)).add(entry);
+    }
+    entry.status = contentRecord.getStatus();
+    entry.updatedAt = contentRecord.getTimestamp();
+    if (contentRecord.getNote() != null) {
+      entry.note = contentRecord.getNote();
+    }
+  }
+
+  /**
+   * 사용자에게 보여준 콘텐츠를 저장합니다. 이미 저장된 Task ID(재사용한 콘텐츠)는 다시 기록하지 않습니다.
+   */
+  public synchronized void save(String taskId, VideoCreationContent content) {
+    if (byTaskId.containsKey(taskId)) {
+      return;
+    }
+    GeneratedContentRecord contentRecord = GeneratedContentRecord.builder()
+        .timestamp(System.currentTimeMillis())
+        .taskId(taskId)
+        .status(GeneratedContentStatus.GENERATED)
+        .content(content)
+        .build();
+    apply(contentRecord);
+    append(contentRecord);
+  }
+
+  public synchronized Optional<StoredContent> find(String taskId) {
+    StoredEntry entry = byTaskId.get(taskId);
+    return entry == null ? Optional.empty() : Optional.of(entry.snapshot());
+  }
+
+  public Optional<VideoCreationContent> findContent(String taskId) {
+    return find(taskId).map(StoredContent::content);
+  }
+
+  /**
+   * 생성 시각이 [from, to) 범위인 콘텐츠를 오래된 순으로 반환합니다.
+   *
+   * @param status 이 상태인 콘텐츠만 반환. null이면 모두
+   */
+  public synchronized List<StoredContent> findByCreatedAt(Instant from, Instant to, GeneratedContentStatus status) {
+    List<StoredContent> contents = new ArrayList<>();
+    byCreatedAt.subMap(from.toEpochMilli(), true, to.toEpochMilli(), false).values()
+        .forEach(entries -> entries.stream()
+            .filter(entry -> status == null || entry.status == status)
+            .forEach(entry -> contents.add(entry.snapshot())));
+    return contents;
+  }
+
+  /**
+   * 상태를 바꾸고 저장소에 기록합니다. 업로드 완료는 마지막 상태이며, 렌더링된 콘텐츠는 폐기하지 않습니다.
+   *
+   * @return 상태가 바뀌었으면 true
+   */
+  public synchronized boolean updateStatus(String taskId, GeneratedContentStatus status, String note) {
+    StoredEntry entry = byTaskId.get(taskId);
+    if (entry == null || entry.status == status || entry.status == GeneratedContentStatus.UPLOADED
+        || (status == GeneratedContentStatus.ABANDONED && entry.status != GeneratedContentStatus.GENERATED)) {
+      return false;
+    }
+    GeneratedContentRecord contentRecord = GeneratedContentRecord.builder()
+        .timestamp(System.currentTimeMillis())
+        .taskId(taskId)
+        .status(status)
+        .note(note)
+        .build();
+    apply(contentRecord);
+    append(contentRecord);
+    log.info("생성 콘텐츠 상태 변경 (Task ID: {}): {}", taskId, status);
+    return true;
+  }
+
+  /**
+   * 아직 렌더링하지 않은 콘텐츠 중 가장 최근 것을 하나 꺼내 재사용합니다. 오래된 미사용 콘텐츠는 이때 폐기 처리합니다.
+   * 꺼낸 콘텐츠는 offer_lease_minutes 동안 다른 요청에 다시 제공하지 않습니다.
+   *
+   * @param category 이 카테고리의 콘텐츠만 재사용. null이면 카테고리 무관
+   */
+  public synchronized Optional<StoredContent> claimUnused(String category) {
+    if (!recycleEnabled) {
+      return Optional.empty();
+    }
+    long now = System.currentTimeMillis();
+    long oldestUsable = now - Duration.ofHours(maxAgeHours).toMillis();
+    abandonOlderThan(oldestUsable);
+
+    long leaseMillis = Duration.ofMinutes(offerLeaseMinutes).toMillis();
+    for (List<StoredEntry> entries : byCreatedAt.tailMap(oldestUsable, true).descendingMap().values()) {
+      for (StoredEntry entry : entries) {
+        if (entry.status == GeneratedContentStatus.GENERATED && now - entry.offeredAt >= leaseMillis
+            && (category == null || category.equals(entry.content.getCategory()))) {
+          entry.offeredAt = now;
+          recycledContents.incrementAndGet();
+          log.info("미사용 콘텐츠를 재사용합니다 (Task ID: {}, 카테고리: {}): '{}'", entry.taskId,
+              entry.content.getCategory(), entry.content.getDailyTipTitle());
+          return Optional.of(entry.snapshot());
+        }
+      }
+    }
+    recycleMisses.incrementAndGet();
+    return Optional.empty();
+  }
+
+  private void abandonOlderThan(long oldestUsable) {
+    List<String> expired = new ArrayList<>();
+    byCreatedAt.headMap(oldestUsable, false).values()
+        .forEach(entries -> entries.stream()
+            .filter(entry -> entry.status == GeneratedContentStatus.GENERATED)
+            .forEach(entry -> expired.add(entry.taskId)));
+    expired.forEach(taskId -> updateStatus(taskId, GeneratedContentStatus.ABANDONED, "expired"));
+  }
+
+  private void append(GeneratedContentRecord contentRecord) {
+    File storeFile = new File(storeFilePath);
+    File parentDir = storeFile.getParentFile();
+    if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+      log.error("생성 콘텐츠 저장소 디렉토리 생성 실패: {}", parentDir.getAbsolutePath());
+    }
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(storeFile, true), StandardCharsets.UTF_8)) {
+      writer.write(objectMapper.writeValueAsString(contentRecord));
+      writer.write('\n');
+    } catch (IOException e) {
+      log.error("생성 콘텐츠 저장소({}) 기록 중 오류 발생: {}", storeFilePath, e.getMessage(), e);
+    }
+  }
+
+  public synchronized Map<String, Object> getStats() {
+    Map<GeneratedContentStatus, Long> statusCounts = new EnumMap<>(GeneratedContentStatus.class);
+    for (GeneratedContentStatus status : GeneratedContentStatus.values()) {
+      statusCounts.put(status, 0L);
+    }
+    byTaskId.values().forEach(entry -> statusCounts.merge(entry.status, 1L, Long::sum));
+    Map<String, Object> stats = new LinkedHashMap<>();
+    stats.put("filepath", storeFilePath);
+    stats.put("recycle_enabled", recycleEnabled);
+    stats.put("max_age_hours", maxAgeHours);
+    stats.put("total", byTaskId.size());
+    Map<String, Long> statuses = new LinkedHashMap<>();
+    statusCounts.forEach((status, count) -> statuses.put(status.name().toLowerCase(), count));
+    stats.put("statuses", statuses);
+    stats.put("recycled", recycledContents.get());
+    stats.put("recycle_misses", recycleMisses.get());
+    return stats;
+  }
+}
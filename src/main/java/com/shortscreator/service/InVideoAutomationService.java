@@ -1,6 +1,7 @@
 package com.shortscreator.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shortscreator.model.GeneratedContentStatus;
 import io.github.bonigarcia.wdm.WebDriverManager;
 import java.io.File;
 import java.nio.charset.StandardCharsets;
@@ -96,14 +97,21 @@ public class InVideoAutomationService {
   @Value("${invideo.download.wait_timeout_seconds:300}")
   private int downloadWaitTimeoutSeconds;
 
+  // 남은 작업 시간이 이보다 짧으면 브라우저를 띄우지 않고 포기 (렌더링까지 끝낼 수 없는 작업이 브라우저 슬롯을 차지하지 않도록)
+  @Value("${job.deadline.min_browser_start_seconds:300}")
+  private int minBrowserStartSeconds;
+
   private static final String V3_COPILOT_URL_FORMAT = "https://ai.invideo.io/workspace/%s/v30-copilot";
   private static final Pattern WORKSPACE_ID_PATTERN = Pattern.compile(
       "https://ai\\.invideo\\.io/workspace/([a-f0-9\\-]+)/.*");
 
   private static final String LOCAL_STORAGE_ACCESS_TOKEN_KEY = "access_token";
+  private static final String CANCELLED_MESSAGE = "❌ 작업이 취소되었습니다";
+  private static final String DEADLINE_EXCEEDED_MESSAGE = "❌ 작업 시간 제한을 초과하여 중단했습니다";
 
   private final ObjectMapper objectMapper;
   private final YouTubeService youTubeService;
+  private final GeneratedContentStore contentStore;
 
   // WebDriver 옵션 (다운로드 폴더 설정 포함)
   private ChromeOptions getChromeOptions() {
@@ -137,26 +145,47 @@ public class InVideoAutomationService {
     return options;
   }
 
+  /**
+   * InVideo AI로 영상을 만들고 다운로드한 뒤 YouTube에 업로드합니다.
+   * 작업이 취소되면 대기 중인 스레드를 깨우고 WebDriver를 즉시 종료하며, 진행 중인 업로드 스트림을 닫습니다.
+   * 각 단계의 대기 시간은 작업의 남은 시간으로 줄어들고, 마감이 지나면 취소와 같은 방식으로 중단됩니다.
+   */
   @Async("taskExecutor")
   public CompletableFuture<String> createVideoInInVideoAI(String gmailUsername, String gmailPassword,
-      String invideoAiPromptForVideo, String videoTitle, String videoDescription) {
+      String invideoAiPromptForVideo, String videoTitle, String videoDescription, JobHandle job) {
     WebDriver driver = null;
-    log.info("InVideo AI 영상 생성 자동화 시작...");
+    JobDeadline deadline = job.getDeadline();
+    log.info("InVideo AI 영상 생성 자동화 시작... (Task ID: {}, 남은 시간: {}초)",
+        job.getTaskId(), deadline.remaining().toSeconds());
+
+    JobHandle.Registration attachment;
+    try {
+      attachment = job.attach();
+    } catch (JobHandle.JobCancelledException e) {
+      return CompletableFuture.completedFuture(CANCELLED_MESSAGE);
+    }
 
     try {
       log.debug("WebDriverManager를 사용하여 ChromeDriver 설정 중...");
+      deadline.require(Duration.ofSeconds(minBrowserStartSeconds), "browser_start");
+      job.setStage("browser_starting");
       WebDriverManager.chromedriver().setup();
       ChromeOptions options = getChromeOptions();
       driver = new ChromeDriver(options);
       log.info("WebDriver (Chrome) 인스턴스 생성 완료.");
-      driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(60));
+      WebDriver createdDriver = driver;
+      // 취소되면 다른 스레드에서 브라우저를 바로 종료 (진행 중인 WebDriver 명령은 즉시 실패)
+      job.onCancel(() -> quitDriver(createdDriver));
+      job.throwIfCancelled();
+      job.setStage("invideo_login");
+      driver.manage().timeouts().pageLoadTimeout(deadline.clamp(Duration.ofSeconds(60)));
 
       boolean sessionRestoredViaToken = loadAndSetAccessToken(driver);
 
       if (!sessionRestoredViaToken) {
         log.info("Access Token을 통한 세션 복원 실패 또는 토큰 없음. 일반 로그인을 시도합니다.");
         // 토큰 없거나 유효하지 않으면 일반 로그인 수행
-        boolean loggedInManually = loginToInVideo(driver, gmailUsername, gmailPassword);
+        boolean loggedInManually = loginToInVideo(driver, gmailUsername, gmailPassword, deadline);
         if (!loggedInManually) {
           log.error("InVideo AI 수동 로그인 실패. 영상 생성을 진행할 수 없습니다.");
           return CompletableFuture.completedFuture("❌ 로그인 실패");
@@ -167,8 +196,9 @@ public class InVideoAutomationService {
       }
 
       log.info("프롬프트 입력 단계로 진행합니다. 현재 URL: {}", getCurrentUrlSafe(driver));
+      job.setStage("invideo_prompt");
 
-      WebDriverWait interactionWait = new WebDriverWait(driver, Duration.ofSeconds(45));
+      WebDriverWait interactionWait = new WebDriverWait(driver, deadline.clamp(Duration.ofSeconds(45)));
       JavascriptExecutor js = (JavascriptExecutor) driver;
 
       log.info("InVideo AI 프롬프트 입력 필드({}) 대기 중...", invideoPromptInputSelector);
@@ -196,8 +226,9 @@ public class InVideoAutomationService {
       // --- "Generate my video" 클릭 후 설정 페이지 로드 확인 ---
       log.info("영상 생성 설정 페이지 로딩 대기 중... (지표 요소: {}, 대기 시간: {}초)",
           invideoConfirmationPageIndicatorXPath, settingsPageLoadTimeoutSeconds);
-      WebDriverWait settingsPageWait = new WebDriverWait(driver, Duration.ofSeconds(settingsPageLoadTimeoutSeconds));
-      WebDriverWait shortWaitForSettingsElement = new WebDriverWait(driver, Duration.ofSeconds(15));
+      WebDriverWait settingsPageWait = new WebDriverWait(driver,
+          deadline.clamp(Duration.ofSeconds(settingsPageLoadTimeoutSeconds)));
+      WebDriverWait shortWaitForSettingsElement = new WebDriverWait(driver, deadline.clamp(Duration.ofSeconds(15)));
 
       settingsPageWait.until(
           ExpectedConditions.visibilityOfElementLocated(By.xpath(invideoConfirmationPageIndicatorXPath))
@@ -285,14 +316,21 @@ public class InVideoAutomationService {
       log.info("설정 페이지 'Continue' 버튼 클릭 완료. 실제 영상 생성 프로세스가 시작될 것으로 예상됩니다.");
 
       // --- 영상 생성 완료 대기 및 다운로드 시작 ---
-      String downloadedFilePath = waitForVideoCompletionAndDownload(driver, settingsPageWait);
+      job.setStage("rendering");
+      String downloadedFilePath = waitForVideoCompletionAndDownload(driver, settingsPageWait, deadline);
+      job.throwIfCancelled();
 
       if (downloadedFilePath != null) {
+        job.setStage("uploading");
+        contentStore.updateStatus(job.getTaskId(), GeneratedContentStatus.RENDERED,
+            new File(downloadedFilePath).getName());
         selectedOptionsMessage += "\n\n🎬 영상 다운로드 완료: " + escapeForMarkdown(new File(downloadedFilePath).getName());
 
         // 🔧 수정된 부분: OAuth 2.0을 사용한 YouTube Shorts 업로드
-        boolean uploadSuccess = uploadToYouTubeShorts(downloadedFilePath, videoTitle, videoDescription);
+        boolean uploadSuccess = uploadToYouTubeShorts(downloadedFilePath, videoTitle, videoDescription, job);
+        job.throwIfCancelled();
         if (uploadSuccess) {
+          contentStore.updateStatus(job.getTaskId(), GeneratedContentStatus.UPLOADED, null);
           selectedOptionsMessage += "\n📺 YouTube Shorts 업로드 완료 (OAuth 2.0)";
 
           // 로컬 파일 삭제
@@ -316,7 +354,17 @@ public class InVideoAutomationService {
       return CompletableFuture.completedFuture("✅ 영상 생성 시작 완료\\n\\n" + selectedOptionsMessage);
 
 
+    } catch (JobDeadline.DeadlineExceededException e) {
+      log.warn("남은 작업 시간이 부족하여 InVideo AI 영상 생성을 포기합니다 (Task ID: {}): {}",
+          job.getTaskId(), e.getMessage());
+      return CompletableFuture.completedFuture(DEADLINE_EXCEEDED_MESSAGE);
     } catch (Exception e) {
+      if (job.isCancelled()) {
+        log.info("작업이 {} InVideo AI 영상 생성 자동화를 중단했습니다 (Task ID: {}, 단계: {}).",
+            job.isDeadlineExceeded() ? "시간 제한을 초과하여" : "취소되어", job.getTaskId(), job.getStage());
+        return CompletableFuture.completedFuture(
+            job.isDeadlineExceeded() ? DEADLINE_EXCEEDED_MESSAGE : CANCELLED_MESSAGE);
+      }
       log.error("InVideo AI 영상 생성 자동화 중 오류 발생: {}", e.getMessage(), e);
       if (driver != null) {
         log.error("오류 발생 시점 URL: {}", getCurrentUrlSafe(driver));
@@ -325,16 +373,29 @@ public class InVideoAutomationService {
     } finally {
       if (driver != null) {
         try {
-          log.info("작업 확인을 위해 10초 대기 후 WebDriver 종료...");
-          Thread.sleep(10000);
+          // 취소된 작업은 확인용 대기 없이 바로 종료
+          if (!job.isCancelled()) {
+            log.info("작업 확인을 위해 10초 대기 후 WebDriver 종료...");
+            Thread.sleep(10000);
+          }
         } catch (InterruptedException ie) {
           Thread.currentThread().interrupt();
         } finally {
-          log.info("WebDriver 종료 시도...");
-          driver.quit();
-          log.info("WebDriver 종료 완료.");
+          quitDriver(driver);
         }
       }
+      attachment.close();
+    }
+  }
+
+  // 취소 시 다른 스레드에서도 호출될 수 있으므로 이미 종료된 세션의 오류는 무시
+  private void quitDriver(WebDriver driver) {
+    try {
+      log.info("WebDriver 종료 시도...");
+      driver.quit();
+      log.info("WebDriver 종료 완료.");
+    } catch (Exception e) {
+      log.debug("WebDriver 종료 중 오류 (이미 종료됨): {}", e.getMessage());
     }
   }
 
@@ -586,14 +647,16 @@ public class InVideoAutomationService {
    *
    * @param driver WebDriver 인스턴스
    * @param wait   WebDriverWait 인스턴스
+   * @param deadline 작업 마감. 대기 시간을 남은 시간으로 줄임
    * @return 다운로드된 파일의 전체 경로, 실패 시 null
    */
-  private String waitForVideoCompletionAndDownload(WebDriver driver, WebDriverWait wait) {
+  private String waitForVideoCompletionAndDownload(WebDriver driver, WebDriverWait wait, JobDeadline deadline) {
     try {
-      log.info("영상 생성 완료 대기 중... (최대 {}분)", videoGenerationTimeoutSeconds / 60);
+      Duration generationTimeout = deadline.clamp(Duration.ofSeconds(videoGenerationTimeoutSeconds));
+      log.info("영상 생성 완료 대기 중... (최대 {}초)", generationTimeout.toSeconds());
 
       // 영상 생성 완료 표시를 기다림 (Download 버튼이 활성화될 때까지)
-      WebDriverWait longWait = new WebDriverWait(driver, Duration.ofSeconds(videoGenerationTimeoutSeconds));
+      WebDriverWait longWait = new WebDriverWait(driver, generationTimeout);
 
       // Download 버튼이 나타날 때까지 대기
       WebElement downloadButton = longWait.until(
@@ -640,7 +703,7 @@ public class InVideoAutomationService {
       log.info("Download Settings의 Continue 버튼 클릭 완료. 다운로드가 시작됩니다.");
 
       // 다운로드 완료 대기
-      String downloadedFilePath = waitForDownloadCompletion(beforeDownloadFiles);
+      String downloadedFilePath = waitForDownloadCompletion(beforeDownloadFiles, deadline);
       if (downloadedFilePath != null) {
         log.info("다운로드 완료: {}", downloadedFilePath);
         return downloadedFilePath;
@@ -683,12 +746,12 @@ public class InVideoAutomationService {
   /**
    * 다운로드 완료를 대기하고 새로 다운로드된 파일 경로를 반환
    */
-  private String waitForDownloadCompletion(Set<String> beforeFiles) {
+  private String waitForDownloadCompletion(Set<String> beforeFiles, JobDeadline deadline) {
     try {
-      log.info("다운로드 완료 대기 중... (최대 {}초)", downloadWaitTimeoutSeconds);
+      long timeoutMillis = deadline.clamp(Duration.ofSeconds(downloadWaitTimeoutSeconds)).toMillis();
+      log.info("다운로드 완료 대기 중... (최대 {}초)", timeoutMillis / 1000);
 
       long startTime = System.currentTimeMillis();
-      long timeoutMillis = downloadWaitTimeoutSeconds * 1000L;
 
       while (System.currentTimeMillis() - startTime < timeoutMillis) {
         Set<String> currentFiles = getFilesInDownloadFolder();
@@ -725,12 +788,12 @@ public class InVideoAutomationService {
   /**
    * YouTube Shorts에 영상을 업로드하는 메서드
    */
-  private boolean uploadToYouTubeShorts(String videoFilePath, String title, String description) {
+  private boolean uploadToYouTubeShorts(String videoFilePath, String title, String description, JobHandle job) {
     try {
       log.info("YouTube Shorts OAuth 2.0 업로드 시작: {}", videoFilePath);
 
       // YouTubeService를 통해 업로드 (OAuth 2.0 인증 사용)
-      boolean uploadResult = youTubeService.uploadShorts(videoFilePath, title, description);
+      boolean uploadResult = youTubeService.uploadShorts(videoFilePath, title, description, job);
 
       if (uploadResult) {
         log.info("✅ YouTube Shorts OAuth 2.0 업로드 성공");
@@ -953,13 +1016,13 @@ public class InVideoAutomationService {
     }
   }
 
-  private boolean loginToInVideo(WebDriver driver, String gmailUsername, String gmailPassword) {
+  private boolean loginToInVideo(WebDriver driver, String gmailUsername, String gmailPassword, JobDeadline deadline) {
     String originalWindowHandle = driver.getWindowHandle();
     String googleLoginWindowHandle = null;
     try {
       log.info("InVideo AI Gmail MFA 로그인 시도 (WebDriver 전달받음). 사용자: {}", gmailUsername);
       driver.get(invideoLoginUrl);
-      WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(20));
+      WebDriverWait wait = new WebDriverWait(driver, deadline.clamp(Duration.ofSeconds(20)));
 
       WebElement joinWithGoogleButton = wait.until(
           ExpectedConditions.elementToBeClickable(By.xpath(invideoGoogleSignInButtonXPath)));
@@ -998,14 +1061,14 @@ public class InVideoAutomationService {
       log.info("'휴대전화나 태블릿에서 예를 탭합니다.' 옵션 클릭 완료. 스마트폰 알림을 확인하세요.");
 
       log.info("스마트폰에서 MFA(2단계 인증)를 승인해주세요...");
-      WebDriverWait mfaWait = new WebDriverWait(driver, Duration.ofSeconds(mfaTimeoutSeconds));
+      WebDriverWait mfaWait = new WebDriverWait(driver, deadline.clamp(Duration.ofSeconds(mfaTimeoutSeconds)));
 
       if (googleLoginWindowHandle != null) {
         driver.switchTo().window(originalWindowHandle);
         log.info("MFA 승인 후, 원래 창({})으로 포커스 전환.", originalWindowHandle);
       }
 
-      WebDriverWait pageLoadWait = new WebDriverWait(driver, Duration.ofSeconds(60));
+      WebDriverWait pageLoadWait = new WebDriverWait(driver, deadline.clamp(Duration.ofSeconds(60)));
 
       // 1. v4.0 워크스페이스 URL로 이동 확인
       log.info("InVideo 워크스페이스 URL('{}'로 시작) 로딩 대기 중...", invideoSuccessUrlStartsWith);
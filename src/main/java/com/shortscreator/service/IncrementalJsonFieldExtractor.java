@@ -0,0 +1,110 @@
+package com.shortscreator.service;
+
+import java.util.function.BiConsumer;
+
+/**
+ * 스트리밍으로 조금씩 도착하는 JSON 텍스트에서 최상위 객체의 문자열 필드가 완성되는 즉시 꺼내는 파서.
+ * 예를 들어 "daily_tip_title" 값의 닫는 따옴표가 도착하면, 나머지 응답을 기다리지 않고 바로 리스너에 전달합니다.
+ * 중첩 객체/배열 안의 값이나 문자열이 아닌 값은 무시합니다. 스레드 안전하지 않습니다.
+ */
+public class IncrementalJsonFieldExtractor {
+
+  private final BiConsumer<String, String> fieldListener;
+
+  private int depth;
+  private boolean inString;
+  private boolean escaping;
+  private int unicodeDigitsRemaining;
+  private int unicodeValue;
+  private boolean expectingValue;
+  private boolean capturingTopLevelString;
+  private String currentKey;
+  private final StringBuilder stringBuffer = new StringBuilder();
+
+  public IncrementalJsonFieldExtractor(BiConsumer<String, String> fieldListener) {
+    this.fieldListener = fieldListener;
+  }
+
+  public void feed(CharSequence chunk) {
+    for (int i = 0; i < chunk.length(); i++) {
+      char c = chunk.charAt(i);
+      if (inString) {
+        consumeStringChar(c);
+      } else {
+        consumeStructuralChar(c);
+      }
+    }
+  }
+
+  private void consumeStructuralChar(char c) {
+    switch (c) {
+      case '{', '[' -> depth++;
+      case '}', ']' -> depth--;
+      case ':' -> expectingValue = depth == 1;
+      case ',' -> expectingValue = false;
+      case '"' -> {
+        inString = true;
+        capturingTopLevelString = depth == 1;
+        stringBuffer.setLength(0);
+      }
+      default -> {
+        // 공백, 숫자, true/false/null 등은 필드 추출 대상이 아님
+      }
+    }
+  }
+
+  private void consumeStringChar(char c) {
+    if (unicodeDigitsRemaining > 0) {
+      unicodeValue = (unicodeValue << 4) + Character.digit(c, 16);
+      if (--unicodeDigitsRemaining == 0) {
+        append((char) unicodeValue);
+      }
+      return;
+    }
+    if (escaping) {
+      escaping = false;
+      switch (c) {
+        case 'n' -> append('\n');
+        case 't' -> append('\t');
+        case 'r' -> append('\r');
+        case 'b' -> append('\b');
+        case 'f' -> append('\f');
+        case 'u' -> {
+          unicodeDigitsRemaining = 4;
+          unicodeValue = 0;
+        }
+        default -> append(c); // \" \\ \/
+      }
+      return;
+    }
+    if (c == '\\') {
+      escaping = true;
+    } else if (c == '"') {
+      inString = false;
+      onStringComplete();
+    } else {
+      append(c);
+    }
+  }
+
+  private void append(char c) {
+    if (capturingTopLevelString) {
+      stringBuffer.append(c);
+    }
+  }
+
+  private void onStringComplete() {
+    if (!capturingTopLevelString) {
+      return;
+    }
+    capturingTopLevelString = false;
+    if (expectingValue) {
+      expectingValue = false;
+      if (currentKey != null) {
+        fieldListener.accept(currentKey, stringBuffer.toString());
+      }
+    } else {
+      currentKey = stringBuffer.toString();
+    }
+  }
+}
@@ -0,0 +1,85 @@
+package com.shortscreator.service;
+
+import java.time.Duration;
+
+/**
+ * 작업 전체에 주어진 시간 예산. 각 단계의 고정 타임아웃을 남은 시간으로 줄이고,
+ * 남은 시간으로 끝낼 수 없는 단계는 시작하기 전에 포기(shed)하는 데 사용합니다.
+ */
+public final class JobDeadline {
+
+  private static final JobDeadline NONE = new JobDeadline(null, Long.MAX_VALUE);
+
+  private final Duration budget;
+  private final long deadlineNanos;
+
+  /**
+   * 남은 시간이 단계에 필요한 시간보다 적거나 이미 마감을 지났음을 나타냅니다.
+   */
+  public static class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String message) {
+      super(message);
+    }
+  }
+
+  private JobDeadline(Duration budget, long deadlineNanos) {
+    this.budget = budget;
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  public static JobDeadline after(Duration budget) {
+    return new JobDeadline(budget, System.nanoTime() + budget.toNanos());
+  }
+
+  /**
+   * 마감이 없는 작업 (REST API, 팁 풀 보충 등)
+   */
+  public static JobDeadline none() {
+    return NONE;
+  }
+
+  public boolean isBounded() {
+    return budget != null;
+  }
+
+  public Duration getBudget() {
+    return budget;
+  }
+
+  public Duration remaining() {
+    if (!isBounded()) {
+      return Duration.ofSeconds(Long.MAX_VALUE);
+    }
+    return Duration.ofNanos(Math.max(0, deadlineNanos - System.nanoTime()));
+  }
+
+  public boolean isExpired() {
+    return isBounded() && System.nanoTime() >= deadlineNanos;
+  }
+
+  /**
+   * 단계의 고정 타임아웃을 남은 시간으로 줄입니다.
+   */
+  public Duration clamp(Duration stageTimeout) {
+    Duration remaining = remaining();
+    return remaining.compareTo(stageTimeout) < 0 ? remaining : stageTimeout;
+  }
+
+  /**
+   * 남은 시간이 단계에 필요한 최소 시간보다 적으면 단계를 시작하지 않도록 예외를 던집니다.
+   *
+   * @param minimum 단계를 끝내는 데 필요한 최소 시간
+   * @param stage 로그/메시지용 단계 이름
+   */
+  public void require(Duration minimum, String stage) {
+    if (!isBounded()) {
+      return;
+    }
+    Duration remaining = remaining();
+    if (remaining.isZero() || remaining.compareTo(minimum) < 0) {
+      throw new DeadlineExceededException("Not enough time left for " + stage + ": " + remaining.toSeconds()
+          + "s remaining of " + budget.toSeconds() + "s, needs at least " + minimum.toSeconds() + "s");
+    }
+  }
+}
@@ -0,0 +1,199 @@
+package com.shortscreator.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledFuture;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * 생성 → 렌더링 → 업로드로 이어지는 작업 하나의 취소 핸들과 시간 예산(JobDeadline).
+ * 취소하거나 마감이 지나면 작업 스레드를 인터럽트하고(진행 중인 OpenAI HTTP 호출과 대기 중단), 등록된 정리 작업
+ * (WebDriver 종료, 업로드 스트림 닫기 등)을 즉시 실행해 자원을 바로 반환합니다.
+ */
+@Slf4j
+public class JobHandle {
+
+  private static final ThreadLocal<JobHandle> CURRENT = new ThreadLocal<>();
+
+  @Getter
+  private final String taskId;
+  @Getter
+  private final JobDeadline deadline;
+  @Getter
+  private final long createdAt = System.currentTimeMillis();
+  @Getter
+  private volatile String stage = "queued";
+
+  private final List<Runnable> cancelHooks = new ArrayList<>();
+  private final List<Thread> attachedThreads = new ArrayList<>();
+  private boolean cancelled;
+  private volatile boolean deadlineExceeded;
+  // JobRegistry가 마감 시각에 expire()를 호출하도록 예약한 타이머
+  private ScheduledFuture<?> expiryTimer;
+
+  /**
+   * 취소로 작업이 중단되었음을 나타냅니다.
+   */
+  public static class JobCancelledException extends RuntimeException {
+
+    public JobCancelledException(String taskId) {
+      super("Task " + taskId + " was cancelled");
+    }
+  }
+
+  /**
+   * attach()로 연결한 스레드에서 빠져나올 때 연결을 해제합니다.
+   */
+  public interface Registration extends AutoCloseable {
+
+    @Override
+    void close();
+  }
+
+  public JobHandle(String taskId, JobDeadline deadline) {
+    this.taskId = taskId;
+    this.deadline = deadline;
+  }
+
+  /**
+   * 레지스트리에 등록되지 않아 취소되거나 마감될 일이 없는 핸들 (REST API, 팁 풀 보충 등).
+   */
+  public static JobHandle untracked() {
+    return new JobHandle("untracked", JobDeadline.none());
+  }
+
+  /**
+   * 현재 스레드에서 실행 중인 작업. 연결된 작업이 없으면 null
+   */
+  public static JobHandle current() {
+    return CURRENT.get();
+  }
+
+  /**
+   * 현재 스레드의 작업이 취소되었으면 JobCancelledException을 던집니다. 다음 단계(재시도, 재생성 등)로 넘어가기 전에 호출합니다.
+   */
+  public static void checkCurrent() {
+    JobHandle job = CURRENT.get();
+    if (job != null) {
+      job.throwIfCancelled();
+    }
+  }
+
+  /**
+   * 현재 스레드를 이 작업에 연결합니다. 취소되면 연결된 스레드가 인터럽트됩니다.
+   */
+  public Registration attach() {
+    Thread thread = Thread.currentThread();
+    JobHandle previous = CURRENT.get();
+    synchronized (this) {
+      if (cancelled) {
+        throw new JobCancelledException(taskId);
+      }
+      attachedThreads.add(thread);
+    }
+    CURRENT.set(this);
+    return () -> {
+      synchronized (this) {
+        attachedThreads.remove(thread);
+        if (cancelled) {
+          // 취소 인터럽트가 풀 스레드의 다음 작업에 남지 않도록 정리
+          Thread.interrupted();
+        }
+      }
+      if (previous != null) {
+        CURRENT.set(previous);
+      } else {
+        CURRENT.remove();
+      }
+    };
+  }
+
+  /**
+   * 취소 시 실행할 정리 작업을 등록합니다. 이미 취소되었으면 즉시 실행합니다.
+   */
+  public Registration onCancel(Runnable hook) {
+    synchronized (this) {
+      if (!cancelled) {
+        cancelHooks.add(hook);
+        return () -> {
+          synchronized (this) {
+            cancelHooks.remove(hook);
+          }
+        };
+      }
+    }
+    runQuietly(hook);
+    return () -> {
+    };
+  }
+
+  /**
+   * 작업을 취소합니다. 여러 번 호출해도 정리 작업은 한 번만 실행됩니다.
+   *
+   * @return 이번 호출로 취소되었으면 true, 이미 취소된 작업이면 false
+   */
+  public boolean cancel() {
+    List<Runnable> hooks;
+    synchronized (this) {
+      if (cancelled) {
+        return false;
+      }
+      cancelled = true;
+      hooks = new ArrayList<>(cancelHooks);
+      cancelHooks.clear();
+      attachedThreads.forEach(Thread::interrupt);
+    }
+    log.info("작업 취소 (Task ID: {}, 단계: {}). 정리 작업 {}개 실행", taskId, stage, hooks.size());
+    hooks.forEach(this::runQuietly);
+    return true;
+  }
+
+  private void runQuietly(Runnable hook) {
+    try {
+      hook.run();
+    } catch (Exception e) {
+      log.warn("작업 취소 정리 중 오류 (Task ID: {}): {}", taskId, e.getMessage());
+    }
+  }
+
+  /**
+   * 마감이 지난 작업을 중단합니다. 취소와 같은 정리 작업을 실행하며, 중단 사유를 구분할 수 있도록 표시합니다.
+   */
+  public boolean expire() {
+    deadlineExceeded = true;
+    log.warn("작업 마감 시간({}초) 초과 (Task ID: {}, 단계: {})",
+        deadline.isBounded() ? deadline.getBudget().toSeconds() : -1, taskId, stage);
+    return cancel();
+  }
+
+  public boolean isDeadlineExceeded() {
+    return deadlineExceeded;
+  }
+
+  synchronized void setExpiryTimer(ScheduledFuture<?> expiryTimer) {
+    this.expiryTimer = expiryTimer;
+  }
+
+  synchronized void cancelExpiryTimer() {
+    if (expiryTimer != null) {
+      expiryTimer.cancel(false);
+      expiryTimer = null;
+    }
+  }
+
+  public synchronized boolean isCancelled() {
+    return cancelled;
+  }
+
+  public void throwIfCancelled() {
+    if (isCancelled()) {
+      throw new JobCancelledException(taskId);
+    }
+  }
+
+  public void setStage(String stage) {
+    this.stage = stage;
+    log.debug("작업 단계 변경 (Task ID: {}): {}", taskId, stage);
+  }
+}
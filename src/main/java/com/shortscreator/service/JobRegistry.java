@@ -0,0 +1,209 @@
+package com.shortscreator.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 진행 중인 작업(Task ID 단위)의 취소 핸들을 관리합니다. /cancel 명령은 여기서 핸들을 찾아 취소합니다.
+ * 시간 예산이 있는 작업은 마감 시각에 자동으로 중단하여 브라우저 등 자원을 반환합니다.
+ * submitOnce()로 시작한 작업은 Task ID당 한 번만 실행되며(single-flight), 중복 요청은 진행 중인 작업에 합류하거나
+ * 저장된 결과를 받습니다.
+ */
+@Slf4j
+@Service
+public class JobRegistry {
+
+  private final Map<String, JobHandle> activeJobs = new ConcurrentHashMap<>();
+  private final AtomicLong cancelledJobs = new AtomicLong();
+  private final AtomicLong expiredJobs = new AtomicLong();
+  private final AtomicLong joinedSubmissions = new AtomicLong();
+  private final AtomicLong replayedResults = new AtomicLong();
+
+  // 완료 결과를 보관할 최대 Task 수 (오래 조회되지 않은 것부터 제거)
+  @Value("${job.single_flight.max_completed_results:200}")
+  private int maxCompletedResults;
+
+  // Task ID -> 진행 중인 작업 (this로 동기화)
+  private final Map<String, Submission> inFlight = new HashMap<>();
+  // Task ID -> 완료된 작업의 결과 메시지 (this로 동기화)
+  private final Map<String, String> completedResults = new LinkedHashMap<>(16, 0.75f, true) {
+    @Override
+    protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+      return size() > maxCompletedResults;
+    }
+  };
+
+  public enum SubmissionState {
+    // 이번 요청으로 작업을 새로 시작함
+    STARTED,
+    // 같은 Task ID의 작업이 이미 진행 중이어서 그 결과를 기다림
+    JOINED,
+    // 이미 완료된 작업이어서 저장된 결과를 반환함
+    COMPLETED
+  }
+
+  /**
+   * submitOnce() 결과. COMPLETED이면 job은 null입니다.
+   */
+  public record Submission(SubmissionState state, JobHandle job, CompletableFuture<String> result) {
+
+  }
+
+  private final ScheduledExecutorService deadlineTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+    Thread thread = new Thread(runnable, "job-deadline");
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  public String newTaskId() {
+    return UUID.randomUUID().toString().substring(0, 8);
+  }
+
+  /**
+   * 작업을 등록합니다.
+   *
+   * @param budget 작업 전체의 시간 예산. 지나면 작업을 자동으로 중단
+   */
+  public JobHandle register(String taskId, Duration budget) {
+    JobHandle job = new JobHandle(taskId, JobDeadline.after(budget));
+    activeJobs.put(taskId, job);
+    job.setExpiryTimer(deadlineTimer.schedule(() -> expire(job), budget.toMillis(), TimeUnit.MILLISECONDS));
+    log.debug("작업 등록 (Task ID: {}, 시간 예산: {}초)", taskId, budget.toSeconds());
+    return job;
+  }
+
+  private void expire(JobHandle job) {
+    if (activeJobs.remove(job.getTaskId(), job) && job.expire()) {
+      expiredJobs.incrementAndGet();
+    }
+  }
+
+  /**
+   * Task ID당 작업을 한 번만 실행합니다. 같은 Task ID로 진행 중인 작업이 있으면 새로 시작하지 않고 그 결과에 합류하며,
+   * 이미 완료된 작업이면 다시 실행하지 않고 저장된 결과를 반환합니다. 취소되었거나 예외로 끝난 작업은 다시 시작할 수 있습니다.
+   *
+   * @param work 등록된 작업 핸들로 실제 작업을 시작하는 함수 (빠르게 반환해야 함)
+   * @param storeResult 다시 실행하지 않고 재사용할 결과인지 판단 (예: 재시도할 만한 실패는 저장하지 않음)
+   */
+  public synchronized Submission submitOnce(String taskId, Duration budget,
+      Function<JobHandle, CompletableFuture<String>> work, Predicate<String> storeResult) {
+    String storedResult = completedResults.get(taskId);
+    if (storedResult != null) {
+      replayedResults.incrementAndGet();
+      log.info("이미 완료된 작업의 결과를 반환합니다 (Task ID: {})", taskId);
+      return new Submission(SubmissionState.COMPLETED, null, CompletableFuture.completedFuture(storedResult));
+    }
+    Submission running = inFlight.get(taskId);
+    // 취소된 작업은 정리 중이므로 합류하지 않고 새로 시작
+    if (running != null && !running.job().isCancelled()) {
+      joinedSubmissions.incrementAndGet();
+      log.info("진행 중인 작업에 합류합니다 (Task ID: {}, 단계: {})", taskId, running.job().getStage());
+      return new Submission(SubmissionState.JOINED, running.job(), running.result());
+    }
+    JobHandle job = register(taskId, budget);
+    CompletableFuture<String> result;
+    try {
+      result = work.apply(job);
+    } catch (RuntimeException e) {
+      complete(job);
+      throw e;
+    }
+    Submission submission = new Submission(SubmissionState.STARTED, job, result);
+    inFlight.put(taskId, submission);
+    result.whenComplete((value, ex) -> finish(submission, value, ex, storeResult));
+    return submission;
+  }
+
+  /**
+   * @return 완료되어 저장된 결과. 없으면 empty
+   */
+  public synchronized Optional<String> findResult(String taskId) {
+    String storedResult = completedResults.get(taskId);
+    if (storedResult != null) {
+      replayedResults.incrementAndGet();
+    }
+    return Optional.ofNullable(storedResult);
+  }
+
+  private synchronized void finish(Submission submission, String value, Throwable ex, Predicate<String> storeResult) {
+    JobHandle job = submission.job();
+    inFlight.remove(job.getTaskId(), submission);
+    complete(job);
+    if (ex == null && value != null && !job.isCancelled() && storeResult.test(value)) {
+      completedResults.put(job.getTaskId(), value);
+    }
+  }
+
+  public Optional<JobHandle> find(String taskId) {
+    return Optional.ofNullable(activeJobs.get(taskId));
+  }
+
+  /**
+   * 작업이 끝나면 호출합니다. 같은 Task ID로 새 작업이 등록된 경우 그 작업은 제거하지 않습니다.
+   */
+  public void complete(JobHandle job) {
+    job.cancelExpiryTimer();
+    activeJobs.remove(job.getTaskId(), job);
+  }
+
+  /**
+   * @return 진행 중인 작업을 찾아 취소했으면 true
+   */
+  public boolean cancel(String taskId) {
+    JobHandle job = activeJobs.remove(taskId);
+    if (job == null) {
+      return false;
+    }
+    job.cancelExpiryTimer();
+    if (!job.cancel()) {
+      return false;
+    }
+    cancelledJobs.incrementAndGet();
+    return true;
+  }
+
+  public Map<String, Object> getStatus() {
+    List<Map<String, Object>> jobs = new ArrayList<>();
+    activeJobs.values().forEach(job -> {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("task_id", job.getTaskId());
+      entry.put("stage", job.getStage());
+      entry.put("running_ms", System.currentTimeMillis() - job.getCreatedAt());
+      entry.put("remaining_seconds", job.getDeadline().remaining().toSeconds());
+      jobs.add(entry);
+    });
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("active_jobs", jobs);
+    status.put("cancelled_jobs", cancelledJobs.get());
+    status.put("deadline_exceeded_jobs", expiredJobs.get());
+    status.put("joined_submissions", joinedSubmissions.get());
+    status.put("replayed_results", replayedResults.get());
+    synchronized (this) {
+      status.put("stored_results", completedResults.size());
+    }
+    return status;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    deadlineTimer.shutdownNow();
+  }
+}
@@ -0,0 +1,203 @@
+package com.shortscreator.service;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.json.JsonReadFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * OpenAI 응답 JSON을 파싱하고, 엄격한 파싱에 실패하면 로컬에서 복구를 시도합니다.
+ * 파싱 실패로 사용자가 재생성을 요청하면 20~40초짜리 완성 호출을 다시 해야 하므로,
+ * 코드 펜스, 앞뒤 설명 문장, 후행 쉼표처럼 흔한 형식 오류는 여기서 바로 고칩니다.
+ */
+@Slf4j
+@Component
+public class JsonResponseRepairer {
+
+  private static final Pattern CODE_FENCE = Pattern.compile("^\\s*```[a-zA-Z]*\\s*\\n?(.*?)\\n?\\s*```\\s*$",
+      Pattern.DOTALL);
+
+  private final ObjectMapper objectMapper;
+  private final ObjectMapper lenientMapper;
+
+  private final AtomicLong strictSuccesses = new AtomicLong();
+  private final AtomicLong repairedSuccesses = new AtomicLong();
+  private final AtomicLong lenientSuccesses = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+
+  public JsonResponseRepairer(ObjectMapper objectMapper) {
+    this.objectMapper = objectMapper;
+    this.lenientMapper = objectMapper.copy();
+    this.lenientMapper.configure(JsonReadFeature.ALLOW_TRAILING_COMMA.mappedFeature(), true);
+    this.lenientMapper.configure(JsonReadFeature.ALLOW_SINGLE_QUOTES.mappedFeature(), true);
+    this.lenientMapper.configure(JsonReadFeature.ALLOW_UNESCAPED_CONTROL_CHARS.mappedFeature(), true);
+    this.lenientMapper.configure(JsonReadFeature.ALLOW_JAVA_COMMENTS.mappedFeature(), true);
+    this.lenientMapper.configure(JsonReadFeature.ALLOW_UNQUOTED_FIELD_NAMES.mappedFeature(), true);
+    this.lenientMapper.configure(JsonReadFeature.ALLOW_BACKSLASH_ESCAPING_ANY_CHARACTER.mappedFeature(), true);
+  }
+
+  /**
+   * 응답을 JSON 트리로 읽습니다. 엄격한 파싱 → 구조 복구 후 파싱 → 관대한 파서 순서로 시도합니다.
+   *
+   * @throws JsonProcessingException 모든 단계가 실패한 경우
+   */
+  public JsonNode readTree(String rawResponse) throws JsonProcessingException {
+    try {
+      JsonNode node = objectMapper.readTree(rawResponse);
+      if (node != null && node.isContainerNode()) {
+        strictSuccesses.incrementAndGet();
+        return node;
+      }
+    } catch (JsonProcessingException e) {
+      log.debug("엄격한 JSON 파싱 실패, 로컬 복구 시도: {}", e.getOriginalMessage());
+    }
+
+    String repaired = repair(rawResponse);
+    try {
+      JsonNode node = objectMapper.readTree(repaired);
+      if (node != null && node.isContainerNode()) {
+        repairedSuccesses.incrementAndGet();
+        log.info("OpenAI JSON 응답을 로컬 복구로 파싱했습니다 (원본 {}자 → {}자).",
+            rawResponse != null ? rawResponse.length() : 0, repaired.length());
+        return node;
+      }
+    } catch (JsonProcessingException e) {
+      log.debug("복구된 JSON 엄격 파싱 실패, 관대한 파서로 재시도: {}", e.getOriginalMessage());
+    }
+
+    try {
+      JsonNode node = lenientMapper.readTree(repaired);
+      if (node != null && node.isContainerNode()) {
+        lenientSuccesses.incrementAndGet();
+        log.info("OpenAI JSON 응답을 관대한 파서로 파싱했습니다.");
+        return node;
+      }
+    } catch (JsonProcessingException e) {
+      failures.incrementAndGet();
+      throw e;
+    }
+    failures.incrementAndGet();
+    throw new JsonParseException(null, "Response does not contain a JSON object or array");
+  }
+
+  public <T> T readValue(String rawResponse, Class<T> valueType) throws JsonProcessingException {
+    return objectMapper.treeToValue(readTree(rawResponse), valueType);
+  }
+
+  /**
+   * 코드 펜스를 제거하고, 가장 바깥쪽 JSON 객체/배열만 잘라낸 뒤, 후행 쉼표를 제거합니다.
+   */
+  String repair(String rawResponse) {
+    if (rawResponse == null) {
+      return "";
+    }
+    String text = rawResponse.strip();
+    Matcher fence = CODE_FENCE.matcher(text);
+    if (fence.matches()) {
+      text = fence.group(1).strip();
+    }
+    text = extractOutermostContainer(text);
+    return removeTrailingCommas(text);
+  }
+
+  // 첫 '{' 또는 '['부터 짝이 맞는 닫는 괄호까지 (문자열 내부의 괄호는 무시)
+  private String extractOutermostContainer(String text) {
+    int start = -1;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (c == '{' || c == '[') {
+        start = i;
+        break;
+      }
+    }
+    if (start < 0) {
+      return text;
+    }
+    int depth = 0;
+    boolean inString = false;
+    boolean escaped = false;
+    for (int i = start; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (inString) {
+        if (escaped) {
+          escaped = false;
+        } else if (c == '\\') {
+          escaped = true;
+        } else if (c == '"') {
+          inString = false;
+        }
+        continue;
+      }
+      if (c == '"') {
+        inString = true;
+      } else if (c == '{' || c == '[') {
+        depth++;
+      } else if (c == '}' || c == ']') {
+        depth--;
+        if (depth == 0) {
+          return text.substring(start, i + 1);
+        }
+      }
+    }
+    // 닫히지 않은 경우 (응답이 잘린 경우 등) 시작 위치부터 끝까지 사용
+    return text.substring(start);
+  }
+
+  private String removeTrailingCommas(String text) {
+    StringBuilder result = new StringBuilder(text.length());
+    boolean inString = false;
+    boolean escaped = false;
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (inString) {
+        result.append(c);
+        if (escaped) {
+          escaped = false;
+        } else if (c == '\\') {
+          escaped = true;
+        } else if (c == '"') {
+          inString = false;
+        }
+        continue;
+      }
+      if (c == '"') {
+        inString = true;
+      } else if (c == ',') {
+        int next = i + 1;
+        while (next < text.length() && Character.isWhitespace(text.charAt(next))) {
+          next++;
+        }
+        if (next < text.length() && (text.charAt(next) == '}' || text.charAt(next) == ']')) {
+          continue;
+        }
+      }
+      result.append(c);
+    }
+    return result.toString();
+  }
+
+  public Map<String, Object> getMetrics() {
+    long strict = strictSuccesses.get();
+    long repaired = repairedSuccesses.get();
+    long lenient = lenientSuccesses.get();
+    long failed = failures.get();
+    long total = strict + repaired + lenient + failed;
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("total", total);
+    metrics.put("strict_successes", strict);
+    metrics.put("repaired_successes", repaired);
+    metrics.put("lenient_successes", lenient);
+    metrics.put("failures", failed);
+    metrics.put("repair_rate", total == 0 ? 0.0 : (double) (repaired + lenient) / total);
+    metrics.put("failure_rate", total == 0 ? 0.0 : (double) failed / total);
+    return metrics;
+  }
+}
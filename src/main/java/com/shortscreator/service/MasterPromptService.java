@@ -0,0 +1,394 @@
+package com.shortscreator.service;
+
+import com.shortscreator.config.PromptVariantConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileCopyUtils;
+
+/**
+ * 마스터 프롬프트를 로드해 컴파일된 템플릿을 보관합니다. 파일 시스템 경로이면 WatchService로 파일 변경을 감시하여
+ * 다시 컴파일한 템플릿으로 교체하므로, 프롬프트를 수정할 때 JVM(Telegram 세션, 진행 중인 Chrome 작업)을 재시작할 필요가 없습니다.
+ * 교체는 참조 하나를 바꾸는 것이라 진행 중인 생성은 시작할 때 가져간 템플릿으로 끝까지 진행됩니다.
+ * 프롬프트 변형 실험이 켜져 있으면 변형 프롬프트도 함께 로드/감시하고 select()에서 가중치에 따라 하나를 고릅니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class MasterPromptService {
+
+  private static final String CLASSPATH_PREFIX = "classpath:";
+  private static final String FILE_PREFIX = "file:";
+  private static final int MAX_VERSION_HISTORY = 20;
+
+  private final ResourceLoader resourceLoader;
+  private final PromptVariantConfig variantConfig;
+
+  @Value("${openai.master_prompt.filepath:classpath:prompts/master_prompt.txt}")
+  private String masterPromptFilePath;
+
+  // 파일 시스템 경로일 때만 적용 (classpath 리소스는 jar 안에 있어 감시할 수 없음)
+  @Value("${openai.master_prompt.hot_reload:true}")
+  private boolean hotReloadEnabled;
+
+  // 편집기가 저장하면서 여러 번 발생시키는 이벤트를 한 번의 로드로 묶기 위한 대기 시간
+  @Value("${openai.master_prompt.reload_debounce_ms:500}")
+  private long reloadDebounceMs;
+
+  // 기본 프롬프트 (openai.master_prompt.filepath)
+  private PromptSource control;
+  // 실험 중인 변형 프롬프트 (설정 순서 유지, control 제외)
+  private final List<PromptSource> variants = new ArrayList<>();
+
+  private WatchService watchService;
+  private Thread watcherThread;
+  // 감시 디렉토리 -> 파일 이름 -> 프롬프트
+  private final Map<Path, Map<Path, PromptSource>> watchedFiles = new HashMap<>();
+
+  private final AtomicLong reloads = new AtomicLong();
+  private final AtomicLong reloadFailures = new AtomicLong();
+  private volatile long lastReloadedAt;
+  // 최근 로드한 프롬프트 버전 (오래된 순). this로 동기화
+  private final Deque<Map<String, Object>> versionHistory = new ArrayDeque<>();
+
+  /**
+   * 생성 한 번에 사용할 프롬프트 변형과 그 시점의 템플릿.
+   */
+  public record PromptVariant(String name, MasterPromptTemplate template) {
+
+  }
+
+  private static final class PromptSource {
+
+    private final String name;
+    private final String filepath;
+    private final double weight;
+    // 로드 시 컴파일된 템플릿. 로드 실패 시 null
+    private volatile MasterPromptTemplate template;
+
+    private PromptSource(String name, String filepath, double weight) {
+      this.name = name;
+      this.filepath = filepath;
+      this.weight = weight;
+    }
+  }
+
+  @PostConstruct
+  public void initialize() {
+    control = new PromptSource(variantConfig.getControlName(), masterPromptFilePath, variantConfig.getControlWeight());
+    loadInitial(control);
+    if (variantConfig.isEnabled()) {
+      for (PromptVariantConfig.Variant variant : variantConfig.getVariants()) {
+        if (variant.getName() == null || variant.getName().isBlank() || variant.getFilepath() == null
+            || variant.getName().equals(control.name)
+            || variants.stream().anyMatch(source -> source.name.equals(variant.getName()))) {
+          log.warn("이름이나 경로가 없거나 중복된 프롬프트 변형 설정을 건너뜁니다: {}", variant.getName());
+          continue;
+        }
+        PromptSource source = new PromptSource(variant.getName(), variant.getFilepath(), variant.getWeight());
+        loadInitial(source);
+        variants.add(source);
+      }
+      log.info("프롬프트 변형 실험 사용: {}(가중치 {}) + 변형 {}개", control.name, control.weight, variants.size());
+    }
+    startWatcher();
+  }
+
+  private void loadInitial(PromptSource source) {
+    try {
+      source.template = load(source.filepath);
+      recordVersion(source);
+      log.info("Master prompt loaded successfully from: {} (variant: {}, version: {}, static prefix: {} chars)",
+          source.filepath, source.name, source.template.getVersion(), source.template.getStaticPrefix().length());
+      warnIfPlaceholderMissing(source.template);
+    } catch (IOException | IllegalStateException e) {
+      log.error("Failed to load master prompt from: {}", source.filepath, e);
+      source.template = null;
+    }
+  }
+
+  /**
+   * 기본 프롬프트(control)의 현재 템플릿. 생성 한 번에 필요한 값(프롬프트, 버전)은 한 번 가져온 템플릿에서 모두 읽어야
+   * 도중에 교체되어도 프롬프트와 기록된 버전이 어긋나지 않습니다.
+   *
+   * @return 로드에 실패했으면 null
+   */
+  public MasterPromptTemplate current() {
+    return control.template;
+  }
+
+  public String getControlName() {
+    return control.name;
+  }
+
+  /**
+   * 생성 한 번에 사용할 프롬프트를 고릅니다. 실험이 꺼져 있으면 항상 control이며, 켜져 있으면 로드된 프롬프트 중
+   * 가중치 비율에 따라 무작위로 고릅니다.
+   *
+   * @return 사용할 수 있는 프롬프트가 없으면 null
+   */
+  public PromptVariant select() {
+    List<PromptVariant> candidates = new ArrayList<>(variants.size() + 1);
+    List<Double> weights = new ArrayList<>(variants.size() + 1);
+    double totalWeight = 0;
+    for (PromptSource source : sources()) {
+      MasterPromptTemplate template = source.template;
+      if (template != null && source.weight > 0) {
+        candidates.add(new PromptVariant(source.name, template));
+        weights.add(source.weight);
+        totalWeight += source.weight;
+      }
+    }
+    if (candidates.isEmpty()) {
+      // 가중치가 모두 0이어도 control이 로드되어 있으면 control 사용
+      MasterPromptTemplate template = control.template;
+      return template != null ? new PromptVariant(control.name, template) : null;
+    }
+    double point = ThreadLocalRandom.current().nextDouble(totalWeight);
+    for (int i = 0; i < candidates.size(); i++) {
+      point -= weights.get(i);
+      if (point < 0) {
+        return candidates.get(i);
+      }
+    }
+    return candidates.get(candidates.size() - 1);
+  }
+
+  private List<PromptSource> sources() {
+    List<PromptSource> sources = new ArrayList<>(variants.size() + 1);
+    sources.add(control);
+    sources.addAll(variants);
+    return sources;
+  }
+
+  /**
+   * 모든 프롬프트 파일을 다시 읽어 템플릿을 교체합니다.
+   *
+   * @return 하나라도 새 버전으로 교체되었으면 true
+   */
+  public boolean reload() {
+    boolean changed = false;
+    for (PromptSource source : sources()) {
+      changed |= reload(source);
+    }
+    return changed;
+  }
+
+  // 읽기에 실패하거나 파일이 비어 있으면 기존 템플릿을 유지. 내용이 같으면 교체하지 않음
+  private boolean reload(PromptSource source) {
+    MasterPromptTemplate reloaded;
+    try {
+      reloaded = load(source.filepath);
+    } catch (IOException | IllegalStateException e) {
+      reloadFailures.incrementAndGet();
+      log.error("마스터 프롬프트({}) 다시 로드 실패. 기존 버전({})을 계속 사용합니다: {}", source.name,
+          source.template != null ? source.template.getVersion() : null, e.getMessage());
+      return false;
+    }
+    MasterPromptTemplate previous = source.template;
+    if (previous != null && previous.getVersion().equals(reloaded.getVersion())) {
+      log.debug("마스터 프롬프트({}) 내용이 바뀌지 않았습니다 (version: {})", source.name, previous.getVersion());
+      return false;
+    }
+    source.template = reloaded;
+    reloads.incrementAndGet();
+    lastReloadedAt = System.currentTimeMillis();
+    recordVersion(source);
+    log.info("마스터 프롬프트({})를 다시 로드했습니다: {} -> {} (static prefix: {} chars)", source.name,
+        previous != null ? previous.getVersion() : null, reloaded.getVersion(), reloaded.getStaticPrefix().length());
+    warnIfPlaceholderMissing(reloaded);
+    return true;
+  }
+
+  private MasterPromptTemplate load(String filepath) throws IOException {
+    Resource resource = resourceLoader.getResource(filepath);
+    try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
+      String masterPromptText = FileCopyUtils.copyToString(reader);
+      if (masterPromptText.isBlank()) {
+        // 저장 도중(잘린 상태)에 읽은 경우 빈 프롬프트로 교체하지 않도록
+        throw new IllegalStateException("Master prompt file is empty: " + filepath);
+      }
+      return MasterPromptTemplate.compile(masterPromptText);
+    }
+  }
+
+  private void warnIfPlaceholderMissing(MasterPromptTemplate loaded) {
+    if (loaded.getPlaceholderCount() == 0) {
+      log.warn(
+          "Master prompt does not contain the placeholder '{}'. Previous tips will be appended at the end of the prompt.",
+          MasterPromptTemplate.PREVIOUS_TIPS_PLACEHOLDER);
+    }
+  }
+
+  private synchronized void recordVersion(PromptSource source) {
+    Map<String, Object> entry = new LinkedHashMap<>();
+    entry.put("variant", source.name);
+    entry.put("version", source.template.getVersion());
+    entry.put("loaded_at", System.currentTimeMillis());
+    versionHistory.addLast(entry);
+    while (versionHistory.size() > MAX_VERSION_HISTORY) {
+      versionHistory.removeFirst();
+    }
+  }
+
+  // classpath 리소스는 null
+  private Path resolveWatchedFile(String filepath) {
+    if (filepath.startsWith(CLASSPATH_PREFIX)) {
+      return null;
+    }
+    String location = filepath.startsWith(FILE_PREFIX) ? filepath.substring(FILE_PREFIX.length()) : filepath;
+    return Paths.get(location).toAbsolutePath().normalize();
+  }
+
+  private void startWatcher() {
+    if (!hotReloadEnabled) {
+      log.info("마스터 프롬프트 자동 다시 로드를 사용하지 않습니다.");
+      return;
+    }
+    for (PromptSource source : sources()) {
+      Path watchedFile = resolveWatchedFile(source.filepath);
+      if (watchedFile == null) {
+        log.info("classpath 프롬프트({})는 변경을 감시하지 않습니다: {}", source.name, source.filepath);
+        continue;
+      }
+      Path directory = watchedFile.getParent();
+      if (directory == null || !Files.isDirectory(directory)) {
+        log.warn("마스터 프롬프트({}) 디렉토리가 없어 변경을 감시하지 않습니다: {}", source.name, directory);
+        continue;
+      }
+      watchedFiles.computeIfAbsent(directory, dir -> new HashMap<>()).put(watchedFile.getFileName(), source);
+    }
+    if (watchedFiles.isEmpty()) {
+      return;
+    }
+    try {
+      watchService = FileSystems.getDefault().newWatchService();
+      // 편집기는 보통 임시 파일에 쓰고 이름을 바꾸므로 파일이 아닌 디렉토리를 감시
+      for (Path directory : watchedFiles.keySet()) {
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+      }
+    } catch (IOException e) {
+      log.error("마스터 프롬프트 변경 감시 시작 실패: {}", e.getMessage(), e);
+      return;
+    }
+    watcherThread = new Thread(this::watch, "master-prompt-watcher");
+    watcherThread.setDaemon(true);
+    watcherThread.start();
+    log.info("마스터 프롬프트 파일 변경 감시 시작: {}", watchedFiles.keySet());
+  }
+
+  private void watch() {
+    try {
+      while (!Thread.currentThread().isInterrupted()) {
+        Set<PromptSource> changed = new LinkedHashSet<>();
+        drainEvents(watchService.take(), changed);
+        // 연달아 오는 이벤트(쓰기 여러 번, 임시 파일 이름 변경)를 모아 한 번만 로드
+        WatchKey next;
+        while ((next = watchService.poll(reloadDebounceMs, TimeUnit.MILLISECONDS)) != null) {
+          drainEvents(next, changed);
+        }
+        changed.forEach(this::reload);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (ClosedWatchServiceException e) {
+      // 종료 중
+    }
+    log.info("마스터 프롬프트 파일 변경 감시 종료");
+  }
+
+  private void drainEvents(WatchKey key, Set<PromptSource> changed) {
+    Map<Path, PromptSource> files = watchedFiles.getOrDefault((Path) key.watchable(), Map.of());
+    for (WatchEvent<?> event : key.pollEvents()) {
+      if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+        changed.addAll(files.values());
+      } else {
+        PromptSource source = files.get((Path) event.context());
+        if (source != null) {
+          changed.add(source);
+        }
+      }
+    }
+    key.reset();
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    if (watcherThread != null) {
+      watcherThread.interrupt();
+    }
+    if (watchService != null) {
+      try {
+        watchService.close();
+      } catch (IOException e) {
+        log.warn("마스터 프롬프트 변경 감시 종료 중 오류: {}", e.getMessage());
+      }
+    }
+  }
+
+  public synchronized Map<String, Object> getStatus() {
+    Map<String, Object> status = new LinkedHashMap<>();
+    MasterPromptTemplate loaded = control.template;
+    status.put("filepath", control.filepath);
+    status.put("version", loaded != null ? loaded.getVersion() : null);
+    status.put("hot_reload", watcherThread != null && watcherThread.isAlive());
+    status.put("reloads", reloads.get());
+    status.put("reload_failures", reloadFailures.get());
+    status.put("last_reloaded_at", lastReloadedAt == 0 ? null : lastReloadedAt);
+    status.put("versions", new ArrayList<>(versionHistory));
+    return status;
+  }
+
+  /**
+   * 실험 중인 프롬프트(control 포함)의 경로, 가중치, 현재 버전.
+   */
+  public List<Map<String, Object>> getVariants() {
+    double totalWeight = sources().stream()
+        .filter(source -> source.template != null && source.weight > 0)
+        .mapToDouble(source -> source.weight)
+        .sum();
+    List<Map<String, Object>> result = new ArrayList<>();
+    for (PromptSource source : sources()) {
+      MasterPromptTemplate template = source.template;
+      Map<String, Object> variant = new LinkedHashMap<>();
+      variant.put("name", source.name);
+      variant.put("filepath", source.filepath);
+      variant.put("weight", source.weight);
+      variant.put("traffic_share", template == null || source.weight <= 0 || totalWeight == 0
+          ? 0.0 : source.weight / totalWeight);
+      variant.put("version", template != null ? template.getVersion() : null);
+      result.add(variant);
+    }
+    return result;
+  }
+}
@@ -0,0 +1,71 @@
+package com.shortscreator.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+import lombok.Getter;
+
+/**
+ * 로드 시점에 한 번만 컴파일되는 마스터 프롬프트 템플릿.
+ * 원본 프롬프트의 플레이스홀더 위치에는 고정된 참조 문구를 넣어 정적 구간을 하나의 안정적인 prefix로 만들고,
+ * 매번 바뀌는 동적 구간(배정된 카테고리 또는 최근 팁 목록)은 항상 맨 뒤에 붙입니다.
+ * 이렇게 하면 요청마다 prefix가 동일해져 OpenAI의 프롬프트 prefix 캐싱이 적용됩니다.
+ */
+public class MasterPromptTemplate {
+
+  public static final String PREVIOUS_TIPS_PLACEHOLDER = "[INSERT_PREVIOUS_TIPS_HERE]";
+
+  private static final String PLACEHOLDER_REFERENCE = "the TIP ASSIGNMENT section at the end of this prompt";
+  private static final String DYNAMIC_SECTION_HEADER = "\n\n**TIP ASSIGNMENT:**\n";
+
+  /** 요청마다 동일하게 전송되는 정적 prefix */
+  @Getter
+  private final String staticPrefix;
+
+  /** 원본 프롬프트 내용의 해시 (프롬프트 버전 식별용) */
+  @Getter
+  private final String version;
+
+  @Getter
+  private final int placeholderCount;
+
+  private MasterPromptTemplate(String staticPrefix, String version, int placeholderCount) {
+    this.staticPrefix = staticPrefix;
+    this.version = version;
+    this.placeholderCount = placeholderCount;
+  }
+
+  public static MasterPromptTemplate compile(String rawPrompt) {
+    String[] segments = rawPrompt.split(Pattern.quote(PREVIOUS_TIPS_PLACEHOLDER), -1);
+    StringBuilder prefix = new StringBuilder(rawPrompt.length() + segments.length * PLACEHOLDER_REFERENCE.length());
+    for (int i = 0; i < segments.length; i++) {
+      if (i > 0) {
+        prefix.append(PLACEHOLDER_REFERENCE);
+      }
+      prefix.append(segments[i]);
+    }
+    return new MasterPromptTemplate(prefix.toString().stripTrailing(), hash(rawPrompt), segments.length - 1);
+  }
+
+  /**
+   * 정적 prefix 뒤에 동적 구간을 붙여 최종 프롬프트를 만듭니다.
+   *
+   * @param dynamicSection 배정된 카테고리, 최근 팁 목록 등 요청마다 바뀌는 내용
+   */
+  public String assemble(String dynamicSection) {
+    StringBuilder prompt = new StringBuilder(
+        staticPrefix.length() + DYNAMIC_SECTION_HEADER.length() + dynamicSection.length());
+    return prompt.append(staticPrefix).append(DYNAMIC_SECTION_HEADER).append(dynamicSection).toString();
+  }
+
+  private static String hash(String text) {
+    try {
+      byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest, 0, 6);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 algorithm not available", e);
+    }
+  }
+}
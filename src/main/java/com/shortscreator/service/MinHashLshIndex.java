@@ -0,0 +1,255 @@
+package com.shortscreator.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 문자 n-gram(shingle) 기반 MinHash 시그니처와 LSH 밴드 버킷으로 근접 중복 텍스트를 찾는 인덱스.
+ * 단어 분리가 필요 없는 문자 단위 shingle을 사용하므로 한국어와 영어 모두에 동작합니다.
+ * 조회 비용은 bands개 버킷에서 나온 후보 수에 비례하며, 후보 비율은 밴드 구성(1 - (1 - s^rows)^bands)으로 정해집니다.
+ */
+public class MinHashLshIndex {
+
+  // 시그니처 해시 함수 계수는 고정 시드로 생성해야 저장된 시그니처를 재시작 후에도 사용할 수 있음
+  private static final long HASH_SEED = 0x5DEECE66DL;
+
+  private final int shingleSize;
+  private final int bands;
+  private final int rows;
+  private final long[] hashA;
+  private final long[] hashB;
+
+  private final List<Map<Long, IntBucket>> bandBuckets;
+  private final List<String> labels = new ArrayList<>();
+  private int[] signatures = new int[0];
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public record Match(String label, double similarity) {
+
+  }
+
+  public MinHashLshIndex(int shingleSize, int bands, int rows) {
+    this(shingleSize, bands * rows, bands, rows);
+  }
+
+  /**
+   * @param numHashes 시그니처 길이 (유사도 추정에 사용). 밴드는 앞쪽 bands * rows개 값만 사용하므로
+   *                  시그니처 길이를 바꾸지 않고(저장된 시그니처를 버리지 않고) 밴드 구성만 조정할 수 있음
+   */
+  public MinHashLshIndex(int shingleSize, int numHashes, int bands, int rows) {
+    if (shingleSize < 1 || bands < 1 || rows < 1) {
+      throw new IllegalArgumentException("shingleSize, bands, rows must be positive");
+    }
+    if (bands * rows > numHashes) {
+      throw new IllegalArgumentException("bands * rows must not exceed numHashes");
+    }
+    this.shingleSize = shingleSize;
+    this.bands = bands;
+    this.rows = rows;
+    this.hashA = new long[numHashes];
+    this.hashB = new long[numHashes];
+    Random random = new Random(HASH_SEED);
+    for (int i = 0; i < numHashes; i++) {
+      hashA[i] = random.nextLong() | 1L; // 홀수 곱셈 계수
+      hashB[i] = random.nextLong();
+    }
+    this.bandBuckets = new ArrayList<>(bands);
+    for (int i = 0; i < bands; i++) {
+      bandBuckets.add(new HashMap<>());
+    }
+  }
+
+  public int getNumHashes() {
+    return hashA.length;
+  }
+
+  /**
+   * 텍스트의 MinHash 시그니처를 계산합니다. 대소문자, 공백, 문장부호는 무시합니다.
+   */
+  public int[] signature(String text) {
+    int[] signature = new int[hashA.length];
+    Arrays.fill(signature, Integer.MAX_VALUE);
+    String normalized = normalize(text);
+    if (normalized.isEmpty()) {
+      return signature;
+    }
+    int shingleCount = Math.max(1, normalized.length() - shingleSize + 1);
+    for (int start = 0; start < shingleCount; start++) {
+      long shingleHash = shingleHash(normalized, start, Math.min(normalized.length(), start + shingleSize));
+      for (int i = 0; i < hashA.length; i++) {
+        int value = (int) ((hashA[i] * shingleHash + hashB[i]) >>> 32);
+        if (value < signature[i]) {
+          signature[i] = value;
+        }
+      }
+    }
+    return signature;
+  }
+
+  public void add(String label, int[] signature) {
+    checkLength(signature);
+    lock.writeLock().lock();
+    try {
+      int id = labels.size();
+      labels.add(label);
+      if (signatures.length < (id + 1) * hashA.length) {
+        signatures = Arrays.copyOf(signatures, Math.max(hashA.length * 16, signatures.length * 2));
+      }
+      System.arraycopy(signature, 0, signatures, id * hashA.length, hashA.length);
+      for (int band = 0; band < bands; band++) {
+        bandBuckets.get(band).computeIfAbsent(bandKey(signature, band), key -> new IntBucket()).add(id);
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * LSH 버킷을 공유하는 후보 중 추정 Jaccard 유사도가 가장 높은 항목을 찾습니다.
+   *
+   * @return threshold 이상인 항목이 없으면 null
+   */
+  public Match findMostSimilar(int[] signature, double threshold) {
+    checkLength(signature);
+    lock.readLock().lock();
+    try {
+      int bestId = -1;
+      int bestAgreement = -1;
+      // 여러 밴드에서 겹치는 후보를 한 번만 비교 (항목 수 / 64개 long이라 10만 건에서도 약 12KB)
+      BitSet checked = new BitSet(labels.size());
+      for (int band = 0; band < bands; band++) {
+        IntBucket bucket = bandBuckets.get(band).get(bandKey(signature, band));
+        if (bucket == null) {
+          continue;
+        }
+        for (int i = 0; i < bucket.size; i++) {
+          int id = bucket.ids[i];
+          if (checked.get(id)) {
+            continue;
+          }
+          checked.set(id);
+          int agreement = agreement(signature, id);
+          if (agreement > bestAgreement) {
+            bestAgreement = agreement;
+            bestId = id;
+          }
+        }
+      }
+      if (bestId < 0) {
+        return null;
+      }
+      double similarity = (double) bestAgreement / hashA.length;
+      return similarity >= threshold ? new Match(labels.get(bestId), similarity) : null;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * 조회 시 시그니처를 직접 비교하게 되는 후보 수. 밴드 구성에 따른 조회 비용 확인용
+   */
+  int candidateCount(int[] signature) {
+    checkLength(signature);
+    lock.readLock().lock();
+    try {
+      BitSet candidates = new BitSet(labels.size());
+      for (int band = 0; band < bands; band++) {
+        IntBucket bucket = bandBuckets.get(band).get(bandKey(signature, band));
+        if (bucket != null) {
+          for (int i = 0; i < bucket.size; i++) {
+            candidates.set(bucket.ids[i]);
+          }
+        }
+      }
+      return candidates.cardinality();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return labels.size();
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int agreement(int[] signature, int id) {
+    int offset = id * hashA.length;
+    int equal = 0;
+    for (int i = 0; i < hashA.length; i++) {
+      if (signatures[offset + i] == signature[i]) {
+        equal++;
+      }
+    }
+    return equal;
+  }
+
+  private long bandKey(int[] signature, int band) {
+    long key = band;
+    for (int i = band * rows; i < (band + 1) * rows; i++) {
+      key = key * 0x9E3779B97F4A7C15L + signature[i];
+    }
+    return mix(key);
+  }
+
+  static long shingleHash(String text, int start, int end) {
+    long hash = 0xCBF29CE484222325L;
+    for (int i = start; i < end; i++) {
+      hash = (hash ^ text.charAt(i)) * 0x100000001B3L;
+    }
+    return mix(hash);
+  }
+
+  private static long mix(long value) {
+    value ^= value >>> 33;
+    value *= 0xFF51AFD7ED558CCDL;
+    value ^= value >>> 33;
+    value *= 0xC4CEB9FE1A85EC53L;
+    value ^= value >>> 33;
+    return value;
+  }
+
+  static String normalize(String text) {
+    if (text == null) {
+      return "";
+    }
+    StringBuilder normalized = new StringBuilder(text.length());
+    for (int i = 0; i < text.length(); i++) {
+      char c = text.charAt(i);
+      if (Character.isLetterOrDigit(c)) {
+        normalized.append(Character.toLowerCase(c));
+      }
+    }
+    return normalized.toString();
+  }
+
+  private void checkLength(int[] signature) {
+    if (signature == null || signature.length != hashA.length) {
+      throw new IllegalArgumentException("Signature length must be " + hashA.length);
+    }
+  }
+
+  // 박싱 없는 int 목록 (밴드 버킷)
+  private static final class IntBucket {
+
+    private int[] ids = new int[2];
+    private int size;
+
+    void add(int id) {
+      if (size == ids.length) {
+        ids = Arrays.copyOf(ids, size * 2);
+      }
+      ids[size++] = id;
+    }
+
+  }
+}
@@ -0,0 +1,151 @@
+package com.shortscreator.service;
+
+import com.shortscreator.config.ApiConfig;
+import com.shortscreator.config.ModelRoutingConfig;
+import com.shortscreator.model.VideoCreationContent;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 초안 모델(저렴하고 빠른 모델)과 주 모델(openai.api.model) 사이의 라우팅을 결정하고,
+ * 초안 결과의 로컬 품질 검사와 단계별 승격률, 티어별 지연 시간을 집계합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ModelRoutingService {
+
+  public static final String STAGE_SINGLE = "single";
+  public static final String STAGE_BATCH = "batch";
+  public static final String STAGE_STREAM = "stream";
+
+  public static final String TIER_DRAFT = "draft";
+  public static final String TIER_PRIMARY = "primary";
+
+  public static final String REASON_NEAR_DUPLICATE = "near_duplicate";
+  public static final String REASON_MISSING_FROM_RESPONSE = "missing_from_response";
+  // 렌더링 전 품질 게이트 실패 사유 앞에 붙여 초안 검사 실패와 구분
+  public static final String REASON_QUALITY_GATE_PREFIX = "quality_gate_";
+
+  private final ModelRoutingConfig config;
+  private final ApiConfig apiConfig;
+
+  private final Map<String, StageStats> stageStats = new ConcurrentHashMap<>();
+  private final Map<String, RollingHistogram> tierLatency = new ConcurrentHashMap<>();
+
+  private static class StageStats {
+
+    private final AtomicLong draftedTips = new AtomicLong();
+    private final AtomicLong acceptedTips = new AtomicLong();
+    private final AtomicLong escalatedTips = new AtomicLong();
+    private final Map<String, AtomicLong> escalationReasons = new ConcurrentHashMap<>();
+  }
+
+  /**
+   * @return 해당 단계에서 먼저 사용할 초안 모델. 라우팅이 꺼져 있거나 주 모델과 같으면 null
+   */
+  public String draftModelFor(String stage) {
+    if (!config.isEnabled()) {
+      return null;
+    }
+    ModelRoutingConfig.Stage stageConfig = config.getStages().get(stage);
+    if (stageConfig == null || !stageConfig.isEnabled() || stageConfig.getDraftModel() == null
+        || stageConfig.getDraftModel().isBlank() || stageConfig.getDraftModel().equals(apiConfig.getOpenaiModel())) {
+      return null;
+    }
+    return stageConfig.getDraftModel();
+  }
+
+  public String primaryModel() {
+    return apiConfig.getOpenaiModel();
+  }
+
+  /**
+   * 초안 결과의 로컬 품질 검사. 근접 중복 검사는 등록과 함께 호출자가 수행합니다.
+   *
+   * @return 실패 사유. 통과하면 null
+   */
+  public String checkDraft(VideoCreationContent content) {
+    if (content == null || content.getDailyTipTitle() == null || content.getDailyTipTitle().isBlank()) {
+      return "missing_title";
+    }
+    if (content.getDailyTipTitle().startsWith("Error: JSON Parsing")) {
+      return "invalid_json";
+    }
+    if (content.getDailyTipTitle().startsWith("Error")) {
+      return "draft_error";
+    }
+    if (isBlank(content.getDailyTipScript()) || isBlank(content.getInvideoPrompt())
+        || isBlank(content.getYoutubeShortDescription())) {
+      return "missing_field";
+    }
+    int words = content.getDailyTipScript().trim().split("\\s+").length;
+    if (words < config.getMinScriptWords()) {
+      return "script_too_short";
+    }
+    if (words > config.getMaxScriptWords()) {
+      return "script_too_long";
+    }
+    return null;
+  }
+
+  private static boolean isBlank(String value) {
+    return value == null || value.isBlank();
+  }
+
+  /**
+   * 초안 팁 1개의 결과를 기록합니다.
+   *
+   * @param escalationReason 주 모델로 승격한 사유. 초안이 채택되었으면 null
+   */
+  public void recordDraftResult(String stage, String escalationReason) {
+    StageStats stats = stageStats.computeIfAbsent(stage, name -> new StageStats());
+    stats.draftedTips.incrementAndGet();
+    if (escalationReason == null) {
+      stats.acceptedTips.incrementAndGet();
+      return;
+    }
+    stats.escalatedTips.incrementAndGet();
+    stats.escalationReasons.computeIfAbsent(escalationReason, reason -> new AtomicLong()).incrementAndGet();
+    log.info("초안 모델 결과를 주 모델로 승격합니다. 단계: {}, 사유: {}", stage, escalationReason);
+  }
+
+  public void recordLatency(String tier, long latencyMs) {
+    tierLatency.computeIfAbsent(tier, name -> new RollingHistogram(500)).record(latencyMs);
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", config.isEnabled());
+    metrics.put("primary_model", apiConfig.getOpenaiModel());
+    Map<String, Object> stages = new TreeMap<>();
+    for (String stage : new String[]{STAGE_SINGLE, STAGE_BATCH, STAGE_STREAM}) {
+      Map<String, Object> entry = new LinkedHashMap<>();
+      entry.put("draft_model", draftModelFor(stage));
+      StageStats stats = stageStats.get(stage);
+      long drafted = stats != null ? stats.draftedTips.get() : 0;
+      long escalated = stats != null ? stats.escalatedTips.get() : 0;
+      entry.put("drafted_tips", drafted);
+      entry.put("accepted_tips", stats != null ? stats.acceptedTips.get() : 0);
+      entry.put("escalated_tips", escalated);
+      entry.put("escalation_rate", drafted == 0 ? 0.0 : (double) escalated / drafted);
+      Map<String, Long> reasons = new TreeMap<>();
+      if (stats != null) {
+        stats.escalationReasons.forEach((reason, count) -> reasons.put(reason, count.get()));
+      }
+      entry.put("escalation_reasons", reasons);
+      stages.put(stage, entry);
+    }
+    metrics.put("stages", stages);
+    Map<String, Object> latency = new LinkedHashMap<>();
+    tierLatency.forEach((tier, histogram) -> latency.put(tier, histogram.snapshot()));
+    metrics.put("tier_latency_ms", latency);
+    return metrics;
+  }
+}
@@ -0,0 +1,279 @@
+package com.shortscreator.service;
+
+import com.theokanning.openai.OpenAiHttpException;
+import jakarta.annotation.PostConstruct;
+import java.io.InterruptedIOException;
+import java.net.SocketTimeoutException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * OpenAI 호출 서킷 브레이커.
+ * 최근 N건 호출의 오류율 또는 느린 호출 비율이 임계치를 넘으면 OPEN 상태가 되어 호출을 즉시 거절하고,
+ * 일정 시간 후 HALF_OPEN 상태에서 소수의 탐색 호출로 회복 여부를 확인합니다.
+ * OpenAI 장애 시 매 요청이 타임아웃(기본 60초)까지 비동기 스레드를 붙잡는 것을 막기 위한 용도입니다.
+ */
+@Slf4j
+@Component
+public class OpenAICircuitBreaker {
+
+  public enum State { CLOSED, OPEN, HALF_OPEN }
+
+  @Value("${openai.circuit_breaker.enabled:true}")
+  private boolean enabled;
+
+  @Value("${openai.circuit_breaker.window_size:20}")
+  private int windowSize;
+
+  @Value("${openai.circuit_breaker.minimum_calls:5}")
+  private int minimumCalls;
+
+  @Value("${openai.circuit_breaker.failure_rate_threshold:0.5}")
+  private double failureRateThreshold;
+
+  @Value("${openai.circuit_breaker.slow_call_rate_threshold:0.8}")
+  private double slowCallRateThreshold;
+
+  @Value("${openai.circuit_breaker.slow_call_duration_ms:45000}")
+  private long slowCallDurationMs;
+
+  @Value("${openai.circuit_breaker.open_duration_seconds:60}")
+  private long openDurationSeconds;
+
+  @Value("${openai.circuit_breaker.half_open_permitted_calls:2}")
+  private int halfOpenPermittedCalls;
+
+  private State state = State.CLOSED;
+  private long openedAtMillis;
+  private boolean[] failures;
+  private boolean[] slowCalls;
+  private int windowNext;
+  private int windowCount;
+  private int halfOpenInFlight;
+  private int halfOpenSucceeded;
+  // 상태가 바뀔 때마다 증가. 이전 상태에서 허용된 호출의 결과를 현재 상태의 집계와 구분하는 데 사용
+  private long epoch;
+
+  private final AtomicLong rejectedCalls = new AtomicLong();
+  private final AtomicLong stateTransitions = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    resetWindow();
+  }
+
+  // 호출이 허용될 때의 상태. 결과는 같은 상태가 유지되는 동안에만 그 상태의 집계(윈도우 또는 HALF_OPEN 탐색)에 반영
+  private record Permit(State state, long epoch) {
+
+  }
+
+  /**
+   * 서킷이 OPEN 상태라 호출이 거절되었을 때 발생합니다.
+   */
+  @Getter
+  public static class CircuitOpenException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public CircuitOpenException(long retryAfterSeconds) {
+      super("OpenAI circuit breaker is open. Retry in about " + retryAfterSeconds + "s.");
+      this.retryAfterSeconds = retryAfterSeconds;
+    }
+  }
+
+  /**
+   * 호출을 시작하기 전에 빠르게 거절 여부만 확인합니다 (속도 제어 대기열에 들어가기 전 사용).
+   *
+   * @throws CircuitOpenException 서킷이 OPEN 상태인 경우
+   */
+  public synchronized void checkPermission() {
+    if (!enabled) {
+      return;
+    }
+    transitionToHalfOpenIfDue();
+    if (state == State.OPEN) {
+      rejectedCalls.incrementAndGet();
+      throw new CircuitOpenException(remainingOpenSeconds());
+    }
+  }
+
+  /**
+   * 서킷 브레이커 정책에 따라 호출을 실행하고 결과(성공/실패/느린 호출)를 기록합니다.
+   */
+  public <T> T execute(Callable<T> call) throws Exception {
+    if (!enabled) {
+      return call.call();
+    }
+    Permit permit = acquirePermission();
+    long startedAt = System.nanoTime();
+    try {
+      T result = call.call();
+      onResult(permit, false, (System.nanoTime() - startedAt) / 1_000_000);
+      return result;
+    } catch (Exception e) {
+      if (isCancellation(e)) {
+        // 헤징/취소로 중단된 호출은 OpenAI 상태와 무관하므로 집계에서 제외
+        onIgnored(permit);
+      } else {
+        onResult(permit, countsAsFailure(e), (System.nanoTime() - startedAt) / 1_000_000);
+      }
+      throw e;
+    }
+  }
+
+  private synchronized Permit acquirePermission() {
+    transitionToHalfOpenIfDue();
+    if (state == State.OPEN || (state == State.HALF_OPEN && halfOpenInFlight >= halfOpenPermittedCalls)) {
+      rejectedCalls.incrementAndGet();
+      throw new CircuitOpenException(Math.max(1, remainingOpenSeconds()));
+    }
+    if (state == State.HALF_OPEN) {
+      halfOpenInFlight++;
+    }
+    return new Permit(state, epoch);
+  }
+
+  private synchronized void onResult(Permit permit, boolean failed, long durationMs) {
+    // 허용된 뒤 상태가 바뀌었으면 (예: CLOSED에서 시작한 느린 호출이 HALF_OPEN 중에 끝남) 현재 상태와 무관한 결과
+    if (permit.epoch() != epoch) {
+      return;
+    }
+    boolean slow = durationMs >= slowCallDurationMs;
+    if (state == State.HALF_OPEN) {
+      halfOpenInFlight--;
+      if (failed || slow) {
+        log.warn("HALF_OPEN 탐색 호출 실패 (실패: {}, 소요: {}ms). 서킷을 다시 엽니다.", failed, durationMs);
+        transitionTo(State.OPEN);
+      } else if (++halfOpenSucceeded >= halfOpenPermittedCalls) {
+        transitionTo(State.CLOSED);
+      }
+      return;
+    }
+    if (state != State.CLOSED) {
+      return;
+    }
+    failures[windowNext] = failed;
+    slowCalls[windowNext] = slow;
+    windowNext = (windowNext + 1) % windowSize;
+    windowCount = Math.min(windowCount + 1, windowSize);
+    if (windowCount >= minimumCalls) {
+      double failureRate = failureRate();
+      double slowCallRate = slowCallRate();
+      if (failureRate >= failureRateThreshold || slowCallRate >= slowCallRateThreshold) {
+        log.error("OpenAI 서킷 OPEN: 오류율 {}%, 느린 호출 비율 {}% (최근 {}건)",
+            Math.round(failureRate * 100), Math.round(slowCallRate * 100), windowCount);
+        transitionTo(State.OPEN);
+      }
+    }
+  }
+
+  private synchronized void onIgnored(Permit permit) {
+    if (permit.state() == State.HALF_OPEN && permit.epoch() == epoch) {
+      halfOpenInFlight--;
+    }
+  }
+
+  private void transitionToHalfOpenIfDue() {
+    if (state == State.OPEN && System.currentTimeMillis() - openedAtMillis >= openDurationSeconds * 1000) {
+      transitionTo(State.HALF_OPEN);
+    }
+  }
+
+  private void transitionTo(State newState) {
+    log.info("OpenAI 서킷 상태 변경: {} -> {}", state, newState);
+    state = newState;
+    stateTransitions.incrementAndGet();
+    epoch++;
+    halfOpenInFlight = 0;
+    halfOpenSucceeded = 0;
+    if (newState == State.OPEN) {
+      openedAtMillis = System.currentTimeMillis();
+    }
+    if (newState == State.CLOSED || newState == State.OPEN) {
+      resetWindow();
+    }
+  }
+
+  private void resetWindow() {
+    failures = new boolean[windowSize];
+    slowCalls = new boolean[windowSize];
+    windowNext = 0;
+    windowCount = 0;
+  }
+
+  private long remainingOpenSeconds() {
+    long remainingMillis = openDurationSeconds * 1000 - (System.currentTimeMillis() - openedAtMillis);
+    return Math.max(0, (remainingMillis + 999) / 1000);
+  }
+
+  private double failureRate() {
+    return rate(failures);
+  }
+
+  private double slowCallRate() {
+    return rate(slowCalls);
+  }
+
+  private double rate(boolean[] outcomes) {
+    if (windowCount == 0) {
+      return 0;
+    }
+    int count = 0;
+    for (int i = 0; i < windowCount; i++) {
+      if (outcomes[i]) {
+        count++;
+      }
+    }
+    return (double) count / windowCount;
+  }
+
+  // 요청 자체의 문제(잘못된 파라미터, 속도 제한 등)는 OpenAI 장애로 보지 않음
+  private static boolean countsAsFailure(Exception e) {
+    if (e instanceof OpenAiHttpException httpException) {
+      int status = httpException.statusCode;
+      return status >= 500 || status == 408;
+    }
+    return true;
+  }
+
+  private static boolean isCancellation(Throwable e) {
+    if (Thread.currentThread().isInterrupted()) {
+      return true;
+    }
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof InterruptedException
+          || (cause instanceof InterruptedIOException && !(cause instanceof SocketTimeoutException))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public synchronized State getState() {
+    transitionToHalfOpenIfDue();
+    return state;
+  }
+
+  public synchronized Map<String, Object> getStatus() {
+    transitionToHalfOpenIfDue();
+    Map<String, Object> status = new LinkedHashMap<>();
+    status.put("enabled", enabled);
+    status.put("state", state.name());
+    status.put("failure_rate", failureRate());
+    status.put("slow_call_rate", slowCallRate());
+    status.put("window_calls", windowCount);
+    status.put("failure_rate_threshold", failureRateThreshold);
+    status.put("slow_call_rate_threshold", slowCallRateThreshold);
+    status.put("slow_call_duration_ms", slowCallDurationMs);
+    status.put("open_remaining_seconds", state == State.OPEN ? remainingOpenSeconds() : 0);
+    status.put("rejected_calls", rejectedCalls.get());
+    status.put("state_transitions", stateTransitions.get());
+    return status;
+  }
+}
@@ -0,0 +1,212 @@
+package com.shortscreator.service;
+
+import com.theokanning.openai.OpenAiHttpException;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import jakarta.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.ToLongFunction;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * OpenAI 호출 앞단의 속도 제어기.
+ * 분당 요청 수(RPM)와 분당 토큰 수(TPM) 토큰 버킷, 동시 요청 수 세마포어로 호출을 제한하고,
+ * 429 응답을 받으면 Retry-After 동안 모든 호출을 멈춘 뒤 재시도합니다.
+ * 예산이 부족한 호출자는 실패하지 않고 공정(FIFO) 순서로 대기합니다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OpenAIRateGovernor {
+
+  private static final int DEFAULT_COMPLETION_TOKENS = 3500;
+
+  private final TokenBudgetService tokenBudgetService;
+
+  @Value("${openai.rate_limit.requests_per_minute:60}")
+  private int requestsPerMinute;
+
+  @Value("${openai.rate_limit.tokens_per_minute:200000}")
+  private int tokensPerMinute;
+
+  @Value("${openai.rate_limit.max_concurrent_requests:4}")
+  private int maxConcurrentRequests;
+
+  @Value("${openai.rate_limit.max_retries:3}")
+  private int maxRetries;
+
+  @Value("${openai.rate_limit.default_retry_after_seconds:20}")
+  private long defaultRetryAfterSeconds;
+
+  private Semaphore concurrency;
+  // 예산 대기자를 도착 순서대로 처리하기 위한 공정 락 (대기 중에도 보유)
+  private final ReentrantLock queueLock = new ReentrantLock(true);
+  // 버킷 상태 보호용 (짧게만 보유)
+  private final Object bucketLock = new Object();
+
+  private double availableRequests;
+  private double availableTokens;
+  private long lastRefillNanos;
+  private volatile long pausedUntilNanos;
+
+  private final AtomicInteger waiting = new AtomicInteger();
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private final AtomicLong rateLimitedResponses = new AtomicLong();
+  private final AtomicLong retries = new AtomicLong();
+  private final RollingHistogram queueWaitMs = new RollingHistogram(500);
+
+  @PostConstruct
+  public void init() {
+    concurrency = new Semaphore(maxConcurrentRequests, true);
+    availableRequests = requestsPerMinute;
+    availableTokens = tokensPerMinute;
+    lastRefillNanos = System.nanoTime();
+    log.info("OpenAI 속도 제어 설정: RPM={}, TPM={}, 최대 동시 요청={}, 429 재시도={}회",
+        requestsPerMinute, tokensPerMinute, maxConcurrentRequests, maxRetries);
+  }
+
+  /**
+   * 예산을 확보한 뒤 호출을 실행합니다. 429 응답이면 Retry-After 만큼 대기 후 재시도합니다.
+   *
+   * @param estimatedTokens 호출에 필요한 예상 토큰 수 (프롬프트 + max_tokens)
+   * @param call 실제 OpenAI 호출
+   * @param actualTokens 결과에서 실제 사용 토큰 수를 구하는 함수 (알 수 없으면 음수 반환)
+   */
+  public <T> T execute(int estimatedTokens, Callable<T> call, ToLongFunction<T> actualTokens) throws Exception {
+    for (int attempt = 0; ; attempt++) {
+      acquire(estimatedTokens);
+      long usedTokens = estimatedTokens;
+      try {
+        T result = call.call();
+        long reported = result != null ? actualTokens.applyAsLong(result) : -1;
+        if (reported >= 0) {
+          usedTokens = reported;
+        }
+        return result;
+      } catch (OpenAiHttpException e) {
+        if (e.statusCode != 429 || attempt >= maxRetries) {
+          throw e;
+        }
+        if (pausedUntilNanos - System.nanoTime() <= 0) {
+          // Retry-After 헤더가 없었던 경우 기본 대기 시간 적용
+          onRateLimited(Duration.ofSeconds(defaultRetryAfterSeconds));
+        }
+        retries.incrementAndGet();
+        log.warn("OpenAI 429 응답 (시도 {}/{}). 대기 후 재시도합니다: {}", attempt + 1, maxRetries, e.getMessage());
+      } finally {
+        release(estimatedTokens, usedTokens);
+      }
+    }
+  }
+
+  private void acquire(int estimatedTokens) throws InterruptedException {
+    long waitStartedAt = System.nanoTime();
+    waiting.incrementAndGet();
+    try {
+      concurrency.acquire();
+      try {
+        queueLock.lockInterruptibly();
+        try {
+          waitForBudget(Math.min(estimatedTokens, tokensPerMinute));
+        } finally {
+          queueLock.unlock();
+        }
+      } catch (InterruptedException e) {
+        concurrency.release();
+        throw e;
+      }
+    } finally {
+      waiting.decrementAndGet();
+    }
+    inFlight.incrementAndGet();
+    queueWaitMs.record((System.nanoTime() - waitStartedAt) / 1_000_000);
+  }
+
+  private void waitForBudget(int tokens) throws InterruptedException {
+    while (true) {
+      long sleepNanos;
+      synchronized (bucketLock) {
+        refill();
+        long pauseNanos = pausedUntilNanos - System.nanoTime();
+        if (pauseNanos <= 0 && availableRequests >= 1 && availableTokens >= tokens) {
+          availableRequests -= 1;
+          availableTokens -= tokens;
+          return;
+        }
+        long requestWaitNanos = secondsToNanos(Math.max(0, 1 - availableRequests) * 60.0 / requestsPerMinute);
+        long tokenWaitNanos = secondsToNanos(Math.max(0, tokens - availableTokens) * 60.0 / tokensPerMinute);
+        sleepNanos = Math.max(Math.max(pauseNanos, requestWaitNanos), tokenWaitNanos);
+      }
+      TimeUnit.NANOSECONDS.sleep(Math.max(sleepNanos, TimeUnit.MILLISECONDS.toNanos(10)));
+    }
+  }
+
+  private void release(int estimatedTokens, long usedTokens) {
+    inFlight.decrementAndGet();
+    concurrency.release();
+    long refund = Math.min(estimatedTokens, tokensPerMinute) - usedTokens;
+    if (refund != 0) {
+      synchronized (bucketLock) {
+        availableTokens = Math.min(tokensPerMinute, availableTokens + refund);
+      }
+    }
+  }
+
+  private void refill() {
+    long now = System.nanoTime();
+    double elapsedMinutes = (now - lastRefillNanos) / 60_000_000_000.0;
+    lastRefillNanos = now;
+    availableRequests = Math.min(requestsPerMinute, availableRequests + elapsedMinutes * requestsPerMinute);
+    availableTokens = Math.min(tokensPerMinute, availableTokens + elapsedMinutes * tokensPerMinute);
+  }
+
+  /**
+   * 429 응답을 받았을 때 호출됩니다. 지정된 시간 동안 새 호출이 시작되지 않습니다.
+   */
+  public void onRateLimited(Duration retryAfter) {
+    rateLimitedResponses.incrementAndGet();
+    long until = System.nanoTime() + retryAfter.toNanos();
+    if (until > pausedUntilNanos) {
+      pausedUntilNanos = until;
+    }
+    log.warn("OpenAI 속도 제한(429) 감지. {}ms 동안 호출을 일시 중지합니다.", retryAfter.toMillis());
+  }
+
+  public int estimateTokens(ChatCompletionRequest request) {
+    int completionTokens = request.getMaxTokens() != null ? request.getMaxTokens() : DEFAULT_COMPLETION_TOKENS;
+    return tokenBudgetService.countPrompt(request) + completionTokens;
+  }
+
+  private static long secondsToNanos(double seconds) {
+    return (long) (seconds * 1_000_000_000L);
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    synchronized (bucketLock) {
+      refill();
+      metrics.put("remaining_requests_per_minute", (long) availableRequests);
+      metrics.put("remaining_tokens_per_minute", (long) availableTokens);
+    }
+    metrics.put("requests_per_minute_limit", requestsPerMinute);
+    metrics.put("tokens_per_minute_limit", tokensPerMinute);
+    metrics.put("in_flight", inFlight.get());
+    metrics.put("available_concurrency", concurrency.availablePermits());
+    metrics.put("waiting", waiting.get());
+    metrics.put("paused_remaining_ms", Math.max(0, (pausedUntilNanos - System.nanoTime()) / 1_000_000));
+    metrics.put("rate_limited_responses", rateLimitedResponses.get());
+    metrics.put("retries", retries.get());
+    metrics.put("queue_wait_ms", queueWaitMs.snapshot());
+    return metrics;
+  }
+}
@@ -0,0 +1,129 @@
+package com.shortscreator.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * OpenAI 요청 헤징 (opt-in).
+ * 첫 요청이 관측된 지연 시간의 지정 백분위수 안에 끝나지 않으면 동일한 요청을 하나 더 보내고,
+ * 먼저 끝난 응답을 사용한 뒤 나머지 요청은 취소합니다.
+ */
+@Slf4j
+@Component
+public class OpenAIRequestHedger {
+
+  @Value("${openai.hedging.enabled:false}")
+  private boolean enabled;
+
+  @Value("${openai.hedging.percentile:0.9}")
+  private double percentile;
+
+  // 백분위수를 신뢰할 수 있을 만큼 샘플이 쌓이기 전에는 헤징하지 않음
+  @Value("${openai.hedging.min_samples:20}")
+  private int minSamples;
+
+  @Value("${openai.hedging.min_delay_ms:5000}")
+  private long minDelayMs;
+
+  private final AtomicInteger threadCounter = new AtomicInteger();
+  private final ExecutorService executor = Executors.newCachedThreadPool(runnable -> {
+    Thread thread = new Thread(runnable, "openai-hedge-" + threadCounter.incrementAndGet());
+    thread.setDaemon(true);
+    return thread;
+  });
+
+  private final AtomicLong totalCalls = new AtomicLong();
+  private final AtomicLong hedgedCalls = new AtomicLong();
+  private final AtomicLong hedgeWins = new AtomicLong();
+  private final AtomicLong extraPromptTokens = new AtomicLong();
+
+  /**
+   * 헤징 정책에 따라 호출을 실행합니다.
+   *
+   * @param call 실제 호출 (두 번 실행될 수 있으므로 부수 효과가 없어야 함)
+   * @param observedLatency 헤징 지연 시간 산정에 사용할 관측 지연 시간
+   * @param promptTokens 결과에서 프롬프트 토큰 수를 구하는 함수 (추가 비용 추정용)
+   */
+  public <T> T execute(Callable<T> call, RollingHistogram observedLatency, ToLongFunction<T> promptTokens)
+      throws Exception {
+    totalCalls.incrementAndGet();
+    if (!enabled || observedLatency.size() < minSamples) {
+      return call.call();
+    }
+
+    long hedgeDelayMs = Math.max(minDelayMs, observedLatency.percentile(percentile));
+    ExecutorCompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+    Future<T> primary = completionService.submit(call);
+    Future<T> secondary = null;
+    try {
+      Future<T> first = completionService.poll(hedgeDelayMs, TimeUnit.MILLISECONDS);
+      if (first != null) {
+        return first.get();
+      }
+
+      hedgedCalls.incrementAndGet();
+      log.info("OpenAI 응답이 {}ms(p{}) 안에 오지 않아 헤지 요청을 보냅니다.", hedgeDelayMs, Math.round(percentile * 100));
+      secondary = completionService.submit(call);
+
+      Future<T> winner = completionService.take();
+      T result;
+      try {
+        result = winner.get();
+      } catch (ExecutionException e) {
+        // 먼저 끝난 요청이 실패했다면 나머지 요청의 결과를 사용
+        log.warn("먼저 끝난 OpenAI 요청이 실패하여 다른 요청을 기다립니다: {}", e.getCause().getMessage());
+        winner = completionService.take();
+        result = winner.get();
+      }
+      if (winner == secondary) {
+        hedgeWins.incrementAndGet();
+      }
+      long winnerPromptTokens = result != null ? promptTokens.applyAsLong(result) : -1;
+      if (winnerPromptTokens > 0) {
+        // 취소된 요청도 프롬프트 토큰은 과금된 것으로 간주
+        extraPromptTokens.addAndGet(winnerPromptTokens);
+      }
+      return result;
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      throw cause instanceof Exception exception ? exception : e;
+    } finally {
+      primary.cancel(true);
+      if (secondary != null) {
+        secondary.cancel(true);
+      }
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  public Map<String, Object> getMetrics() {
+    long total = totalCalls.get();
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", enabled);
+    metrics.put("percentile", percentile);
+    metrics.put("total_calls", total);
+    metrics.put("hedged_calls", hedgedCalls.get());
+    metrics.put("hedge_rate", total == 0 ? 0.0 : (double) hedgedCalls.get() / total);
+    metrics.put("hedge_wins", hedgeWins.get());
+    metrics.put("estimated_extra_prompt_tokens", extraPromptTokens.get());
+    return metrics;
+  }
+}
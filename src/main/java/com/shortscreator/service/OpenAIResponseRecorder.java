@@ -0,0 +1,182 @@
+package com.shortscreator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatCompletionResult;
+import com.theokanning.openai.service.OpenAiService;
+import jakarta.annotation.PostConstruct;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * OpenAI 응답 녹화/재생 저장소.
+ * record 모드에서는 ChatCompletionRequest와 원본 응답을 (model + messages + max_tokens를 제외한 파라미터) 해시를 키로 디스크에 저장하고,
+ * replay 모드에서는 저장된 응답을 설정된 가상 지연 시간 후 로컬에서 돌려줍니다.
+ * 부하 테스트와 오프라인 개발 시 네트워크 없이 봇/파이프라인/벤치마크를 실행하기 위한 용도입니다.
+ */
+@Slf4j
+@Component
+public class OpenAIResponseRecorder {
+
+  public enum Mode { OFF, RECORD, REPLAY }
+
+  // OpenAI 클라이언트와 동일한 직렬화 규칙(snake_case, null 제외)을 사용해야 키가 안정적임
+  private final ObjectMapper openAiMapper = OpenAiService.defaultObjectMapper();
+
+  @Value("${openai.recording.mode:off}")
+  private String modeName;
+
+  @Value("${openai.recording.directory:openai_recordings}")
+  private String directory;
+
+  @Value("${openai.recording.replay_latency_ms:0}")
+  private long replayLatencyMs;
+
+  @Value("${openai.recording.replay_jitter_ms:0}")
+  private long replayJitterMs;
+
+  // replay 모드에서 녹화본이 없을 때 실제 API를 호출할지 여부
+  @Value("${openai.recording.replay_fallthrough:false}")
+  private boolean replayFallthrough;
+
+  private Mode mode;
+
+  private final AtomicLong recorded = new AtomicLong();
+  private final AtomicLong replayHits = new AtomicLong();
+  private final AtomicLong replayMisses = new AtomicLong();
+
+  @PostConstruct
+  public void init() {
+    mode = parseMode(modeName);
+    if (mode != Mode.OFF) {
+      log.info("OpenAI 응답 녹화/재생 모드: {} (경로: {}, 재생 지연: {}ms ± {}ms)",
+          mode, new File(directory).getAbsolutePath(), replayLatencyMs, replayJitterMs);
+    }
+  }
+
+  // YAML 1.1은 따옴표 없는 off를 false로 읽으므로 false와 빈 값도 OFF로 처리
+  static Mode parseMode(String value) {
+    String normalized = value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
+    if (normalized.isEmpty() || normalized.equals("FALSE")) {
+      return Mode.OFF;
+    }
+    try {
+      return Mode.valueOf(normalized);
+    } catch (IllegalArgumentException e) {
+      throw new IllegalStateException("Invalid openai.recording.mode '" + value
+          + "'. Expected one of: off, record, replay", e);
+    }
+  }
+
+  public boolean isReplaying() {
+    return mode == Mode.REPLAY;
+  }
+
+  /**
+   * replay 모드에서 저장된 응답을 찾아 반환합니다.
+   *
+   * @return 저장된 응답. replay 모드가 아니거나, 녹화본이 없고 fallthrough가 허용된 경우 빈 Optional
+   * @throws IllegalStateException 녹화본이 없고 fallthrough가 허용되지 않은 경우
+   */
+  public Optional<ChatCompletionResult> replay(ChatCompletionRequest request) throws InterruptedException {
+    if (mode != Mode.REPLAY) {
+      return Optional.empty();
+    }
+    String key = keyOf(request);
+    Path file = recordingPath(key);
+    if (!Files.exists(file)) {
+      replayMisses.incrementAndGet();
+      if (replayFallthrough) {
+        log.info("녹화된 OpenAI 응답 없음 (key: {}). 실제 API를 호출합니다.", key);
+        return Optional.empty();
+      }
+      throw new IllegalStateException("No recorded OpenAI response for request hash " + key);
+    }
+    try {
+      ObjectNode recording = (ObjectNode) openAiMapper.readTree(file.toFile());
+      ChatCompletionResult result = openAiMapper.treeToValue(recording.get("response"), ChatCompletionResult.class);
+      long latency = replayLatencyMs + (replayJitterMs > 0 ? ThreadLocalRandom.current().nextLong(replayJitterMs + 1) : 0);
+      if (latency > 0) {
+        Thread.sleep(latency);
+      }
+      replayHits.incrementAndGet();
+      log.debug("녹화된 OpenAI 응답 재생 (key: {}, 지연: {}ms)", key, latency);
+      return Optional.of(result);
+    } catch (IOException e) {
+      throw new IllegalStateException("Failed to read recorded OpenAI response " + file, e);
+    }
+  }
+
+  /**
+   * record 모드에서 요청과 응답을 저장합니다. 다른 모드에서는 아무 것도 하지 않습니다.
+   */
+  public void record(ChatCompletionRequest request, ChatCompletionResult result) {
+    if (mode != Mode.RECORD || result == null) {
+      return;
+    }
+    String key = keyOf(request);
+    try {
+      Path file = recordingPath(key);
+      Files.createDirectories(file.getParent());
+      ObjectNode recording = openAiMapper.createObjectNode();
+      recording.put("key", key);
+      recording.put("recorded_at", System.currentTimeMillis());
+      recording.set("request", openAiMapper.valueToTree(request));
+      recording.set("response", openAiMapper.valueToTree(result));
+      // 다른 스레드가 같은 키를 읽는 중일 수 있으므로 임시 파일에 쓴 뒤 교체
+      Path tempFile = Files.createTempFile(file.getParent(), key, ".tmp");
+      Files.writeString(tempFile, openAiMapper.writerWithDefaultPrettyPrinter().writeValueAsString(recording),
+          StandardCharsets.UTF_8);
+      Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+      recorded.incrementAndGet();
+      log.debug("OpenAI 응답 녹화 완료 (key: {})", key);
+    } catch (IOException e) {
+      log.error("OpenAI 응답 녹화 중 오류 (key: {}): {}", key, e.getMessage(), e);
+    }
+  }
+
+  // max_tokens는 AdaptiveMaxTokensService가 최근 응답 길이에 따라 계속 바꾸므로 키에서 제외
+  // (포함하면 녹화 당시와 상한이 달라진 요청은 모두 재생 미스가 됨)
+  private String keyOf(ChatCompletionRequest request) {
+    try {
+      ObjectNode canonicalRequest = openAiMapper.valueToTree(request);
+      canonicalRequest.remove("max_tokens");
+      byte[] canonical = openAiMapper.writeValueAsBytes(canonicalRequest);
+      return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(canonical));
+    } catch (IOException | NoSuchAlgorithmException e) {
+      throw new IllegalStateException("Failed to hash OpenAI request", e);
+    }
+  }
+
+  // 파일 수가 많아져도 디렉터리 하나가 비대해지지 않도록 해시 앞 2자리로 분산
+  private Path recordingPath(String key) {
+    return Paths.get(directory, key.substring(0, 2), key + ".json");
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("mode", mode.name().toLowerCase(Locale.ROOT));
+    metrics.put("recorded", recorded.get());
+    metrics.put("replay_hits", replayHits.get());
+    metrics.put("replay_misses", replayMisses.get());
+    return metrics;
+  }
+}
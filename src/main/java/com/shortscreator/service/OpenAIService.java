@@ -1,31 +1,46 @@
 package com.shortscreator.service;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shortscreator.config.ApiConfig;
+import com.shortscreator.model.LocalizedTipResult;
+import com.shortscreator.model.OpenAIUsageRecord;
 import com.shortscreator.model.VideoCreationContent;
+import com.theokanning.openai.Usage;
+import com.theokanning.openai.completion.chat.ChatCompletionChoice;
 import com.theokanning.openai.completion.chat.ChatCompletionRequest;
 import com.theokanning.openai.completion.chat.ChatCompletionResult;
 import com.theokanning.openai.completion.chat.ChatMessage;
 import com.theokanning.openai.service.OpenAiService;
 import jakarta.annotation.PostConstruct;
-import java.io.IOException;
-import java.io.InputStreamReader;
-import java.io.Reader;
-import java.nio.charset.StandardCharsets;
+import jakarta.annotation.PreDestroy;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.core.io.Resource;
-import org.springframework.core.io.ResourceLoader;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.springframework.util.FileCopyUtils;
 
 @Slf4j
 @Service
@@ -33,104 +48,231 @@ import org.springframework.util.FileCopyUtils;
 public class OpenAIService {
 
   private final ApiConfig apiConfig;
-  private final ResourceLoader resourceLoader;
   private final ObjectMapper objectMapper;
   private final RecentTipsHistoryService recentTipsHistoryService;
-  private String masterPromptText; // 원본 마스터 프롬프트 템플릿
+  private final OpenAiService openAiClient; // OpenAIClientConfig에서 생성한 공유 클라이언트
+  private final OpenAIRateGovernor rateGovernor;
+  private final OpenAIRequestHedger requestHedger;
+  private final OpenAIResponseRecorder responseRecorder;
+  private final OpenAICircuitBreaker circuitBreaker;
+  private final OpenAIUsageService usageService;
+  private final JsonResponseRepairer jsonResponseRepairer;
+  private final TipSimilarityService tipSimilarityService;
+  private final ScriptFingerprintService scriptFingerprintService;
+  private final CategoryRotationScheduler categoryRotationScheduler;
+  private final TokenBudgetService tokenBudgetService;
+  private final AdaptiveMaxTokensService adaptiveMaxTokensService;
+  private final ModelRoutingService modelRoutingService;
+  private final ContentQualityGate qualityGate;
+  private final MasterPromptService masterPromptService; // 마스터 프롬프트 템플릿 (파일 변경 시 자동 교체)
+  private final PromptVariantMetrics promptVariantMetrics;
 
-  @Value("${openai.master_prompt.filepath:classpath:prompts/master_prompt.txt}")
-  private String masterPromptFilePath;
+  // 현재 스레드에서 진행 중인 생성이 사용하는 프롬프트 변형 (사용량 기록과 변형별 지표 집계용)
+  private static final ThreadLocal<MasterPromptService.PromptVariant> CURRENT_VARIANT = new ThreadLocal<>();
+  // 팁 풀용 생성이면 중복 검사만 하고 인덱스 등록은 풀에서 꺼낼 때(registerHandedOut) 수행
+  private static final ThreadLocal<Boolean> DEFER_REGISTRATION = new ThreadLocal<>();
 
-  // 마스터 프롬프트 내 이전 팁 목록을 삽입할 플레이스홀더
-  private static final String PREVIOUS_TIPS_PLACEHOLDER = "[INSERT_PREVIOUS_TIPS_HERE]";
+  // 채팅 완성 호출의 실제 소요 시간 (p50/p99 확인용)
+  private final RollingHistogram generationLatency = new RollingHistogram(500);
+  private final RollingHistogram batchLatency = new RollingHistogram(200);
+  // 스트리밍 모드: 첫 토큰까지 / 첫 완성 필드(daily_tip_title)까지의 시간
+  private final RollingHistogram streamFirstTokenLatency = new RollingHistogram(200);
+  private final RollingHistogram streamFirstFieldLatency = new RollingHistogram(200);
 
-  @Value("${openai.api.timeout_seconds:60}")
-  private long openaiApiTimeoutSeconds;
+  // ChatCompletionResult.usage 누적값 (프롬프트 변경에 따른 입력 토큰 변화 확인용)
+  private final AtomicLong totalPromptTokens = new AtomicLong();
+  private final AtomicLong totalCompletionTokens = new AtomicLong();
+  private final AtomicLong usageReportedCalls = new AtomicLong();
+
+  // 배치 생성 시 한 번에 요청할 수 있는 최대 팁 수 (마스터 프롬프트의 핵심 카테고리 수)
+  private static final int MAX_BATCH_SIZE = 8;
+  private static final int COMPLETION_TOKENS_PER_TIP = 3500;
+
+  @Value("${openai.batch.max_completion_tokens:16000}")
+  private int batchMaxCompletionTokens;
+
+  // 근접 중복 팁을 다시 생성하는 최대 횟수
+  @Value("${openai.dedup.max_regenerations:2}")
+  private int maxDuplicateRegenerations;
+
+  private final AtomicLong duplicateRegenerations = new AtomicLong();
+  private final AtomicLong duplicateRejections = new AtomicLong();
+  // 제목/스크립트 MinHash 인덱스와 스크립트 SimHash 저장소의 확인-등록을 함께 원자적으로 수행하기 위한 잠금
+  private final Object dedupLock = new Object();
+
+  // 다국어 현지화: 기준 팁을 한 번 생성한 뒤 로케일별 번역 호출을 동시에 실행
+  @Value("${openai.localization.base_locale:en}")
+  private String baseLocale;
+
+  // 동시에 실행할 최대 현지화 호출 수 (전체 요청 합산)
+  @Value("${openai.localization.max_parallel:4}")
+  private int localizationMaxParallel;
+
+  // 대기열이 가득 차면 요청한 스레드에서 직접 실행 (순차 실행으로 느려질 뿐 거절하지 않음)
+  @Value("${openai.localization.queue_capacity:32}")
+  private int localizationQueueCapacity;
+
+  @Value("${openai.localization.max_locales:8}")
+  private int maxLocales;
+
+  @Value("${openai.localization.timeout_seconds:120}")
+  private long localizationTimeoutSeconds;
+
+  // 비어 있으면 openai.api.model 사용
+  @Value("${openai.localization.model:}")
+  private String localizationModel;
+
+  private ThreadPoolExecutor localizationExecutor;
+  private final RollingHistogram localizationLatency = new RollingHistogram(200);
+  private final AtomicLong localizationRequests = new AtomicLong();
+  private final AtomicLong localizedLocales = new AtomicLong();
+  private final AtomicLong localizationFailures = new AtomicLong();
+  private final AtomicLong localizationTimeouts = new AtomicLong();
 
   @PostConstruct
   public void init() {
-    try {
-      Resource resource = resourceLoader.getResource(masterPromptFilePath);
-      try (Reader reader = new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8)) {
-        masterPromptText = FileCopyUtils.copyToString(reader);
-        log.info("Master prompt loaded successfully from: {}", masterPromptFilePath);
-        if (!masterPromptText.contains(PREVIOUS_TIPS_PLACEHOLDER)) {
-          log.warn(
-              "Master prompt does not contain the placeholder '{}'. Previous tips will be prepended if this placeholder is missing.",
-              PREVIOUS_TIPS_PLACEHOLDER);
-        }
-      }
-    } catch (IOException e) {
-      log.error("Failed to load master prompt from: {}", masterPromptFilePath, e);
-      masterPromptText = "Error: Master prompt could not be loaded. Please check the file path and content.";
-    }
+    AtomicInteger localizationThreads = new AtomicInteger();
+    int parallelism = Math.max(1, localizationMaxParallel);
+    localizationExecutor = new ThreadPoolExecutor(parallelism, parallelism,
+        60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(Math.max(1, localizationQueueCapacity)), runnable -> {
+      Thread thread = new Thread(runnable, "openai-localize-" + localizationThreads.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }, new ThreadPoolExecutor.CallerRunsPolicy());
+    localizationExecutor.allowCoreThreadTimeOut(true);
   }
 
   @Async // 이 메소드는 비동기적으로 실행됩니다.
   public CompletableFuture<VideoCreationContent> generateVideoContentAndPrompt() {
-    if (masterPromptText == null || masterPromptText.startsWith("Error:")) {
+    return generateVideoContent();
+  }
+
+  /**
+   * 팁 풀에 넣어 둘 팁을 생성합니다. 과거 팁과의 중복 검사는 하지만 유사도 인덱스에는 등록하지 않으므로,
+   * 풀에서 꺼낼 때 registerHandedOut을 호출해야 합니다. (사용되지 않고 만료된 팁이 주제를 막지 않도록)
+   */
+  @Async
+  public CompletableFuture<VideoCreationContent> generatePooledContent() {
+    return deferringRegistration(this::generateVideoContent);
+  }
+
+  /**
+   * 취소 가능한 팁 생성. 작업이 취소되면 진행 중인 OpenAI 호출을 중단하고 재생성/승격 없이 종료합니다.
+   */
+  @Async
+  public CompletableFuture<VideoCreationContent> generateVideoContentAndPrompt(JobHandle job) {
+    try (JobHandle.Registration ignored = job.attach()) {
+      job.setStage("generating");
+      return generateVideoContent();
+    } catch (JobHandle.JobCancelledException e) {
+      return CompletableFuture.completedFuture(cancelledContent());
+    }
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    localizationExecutor.shutdownNow();
+  }
+
+  private CompletableFuture<VideoCreationContent> generateVideoContent() {
+    // 생성 도중 프롬프트 파일이 다시 로드되어도 이 팁은 시작할 때 고른 변형의 템플릿으로 생성하고 그 버전을 기록
+    MasterPromptService.PromptVariant variant = masterPromptService.select();
+    if (variant == null) {
       log.error("Master prompt is not loaded correctly. Cannot proceed with OpenAI request.");
       return CompletableFuture.completedFuture(
           new VideoCreationContent("Error", "Master prompt issue.", "Error: Master prompt issue.",
               "Error: Master prompt issue.")
       );
     }
+    return inVariant(variant, () -> generateVideoContent(variant.template()));
+  }
 
-    // 1. 최근 팁 목록 가져오기
-    List<String> titlesToAvoid = recentTipsHistoryService.getRecentTipTitles();
-    String previousTipsFormattedString = "";
+  private CompletableFuture<VideoCreationContent> generateVideoContent(MasterPromptTemplate template) {
+    // 1~2. 배정된 카테고리(또는 최근 팁 목록)를 반영한 전체 프롬프트 구성
+    List<String> categories = assignCategories(1);
+    String currentFullPrompt = buildFullPrompt(template, categories);
+    VideoCreationContent content = generateRouted(currentFullPrompt);
+    return CompletableFuture.completedFuture(withOrigin(content, template, categories));
+  }
 
-    if (!titlesToAvoid.isEmpty()) {
-      previousTipsFormattedString =
-          "IMPORTANT: Avoid generating tips that are substantively similar in topic or advice to the following recently generated tips. Focus on providing fresh, distinct advice each time.\nRecently generated tip titles (for your reference to avoid duplication):\n"
-              +
-              titlesToAvoid.stream().map(title -> "- " + title).collect(Collectors.joining("\n")) +
-              "\n(If this list is empty or short, it means fewer tips were generated recently or they were not persisted.)\n";
-      log.debug("Previous tips to avoid ({}): {}", titlesToAvoid.size(), titlesToAvoid);
-    } else {
-      log.debug("No previous tips to avoid.");
-      // 플레이스홀더가 있다면, 이전 팁이 없을 경우 빈 문자열로 대체하거나,
-      // "No previous tips generated yet." 같은 메시지로 대체할 수 있습니다.
-      previousTipsFormattedString = "No previous tips have been generated recently. Feel free to generate any relevant tip.\n";
+  /**
+   * 단일 생성 단계에 초안 모델이 지정되어 있으면 초안 모델로 먼저 생성하고,
+   * 로컬 품질 검사나 근접 중복 검사에 실패한 경우에만 주 모델(openai.api.model)로 다시 생성합니다.
+   */
+  private VideoCreationContent generateRouted(String prompt) {
+    String draftModel = modelRoutingService.draftModelFor(ModelRoutingService.STAGE_SINGLE);
+    if (draftModel == null) {
+      return ensureUnique(generatePrimary(prompt), prompt);
     }
+    long startedAt = System.nanoTime();
+    VideoCreationContent draft = generateSingle(prompt, draftModel);
+    modelRoutingService.recordLatency(ModelRoutingService.TIER_DRAFT, (System.nanoTime() - startedAt) / 1_000_000);
+    return acceptDraftOrEscalate(ModelRoutingService.STAGE_SINGLE, draft, prompt);
+  }
 
-    // 2. 마스터 프롬프트에 이전 팁 정보 삽입
-    String currentFullPrompt;
-    if (masterPromptText.contains(PREVIOUS_TIPS_PLACEHOLDER)) {
-      currentFullPrompt = masterPromptText.replace(PREVIOUS_TIPS_PLACEHOLDER, previousTipsFormattedString);
-      log.debug("Placeholder '{}' replaced with previous tips information.", PREVIOUS_TIPS_PLACEHOLDER);
-    } else {
-      // 플레이스홀더가 없다면, 프롬프트 시작 부분에 이전 팁 정보를 추가 (이전 방식)
-      currentFullPrompt = previousTipsFormattedString + "\n" + masterPromptText;
-      log.debug("No placeholder found. Previous tips information prepended to master prompt.");
+  // 초안이 품질 검사와 중복 검사를 통과하면 (등록 후) 그대로 사용하고, 아니면 주 모델로 다시 생성
+  private VideoCreationContent acceptDraftOrEscalate(String stage, VideoCreationContent draft, String prompt) {
+    String failure = modelRoutingService.checkDraft(draft);
+    TipSimilarityService.DuplicateMatch duplicate = null;
+    String qualityInstruction = null;
+    if (failure == null) {
+      ContentQualityGate.Review review = reviewQuality(draft);
+      if (review.passed()) {
+        duplicate = registerIfUnique(review.content());
+        if (duplicate == null) {
+          modelRoutingService.recordDraftResult(stage, null);
+          return review.content();
+        }
+        failure = ModelRoutingService.REASON_NEAR_DUPLICATE;
+      } else {
+        failure = ModelRoutingService.REASON_QUALITY_GATE_PREFIX + review.failure();
+        qualityInstruction = qualityGate.regenerationInstruction(review);
+      }
     }
-    // log.trace("Current full prompt for OpenAI:\n{}", currentFullPrompt); // 매우 긴 로그가 될 수 있으므로 TRACE 레벨
+    modelRoutingService.recordDraftResult(stage, failure);
+    String escalationPrompt = prompt;
+    if (duplicate != null) {
+      escalationPrompt = prompt + "\n\n" + buildDuplicateAvoidanceInstruction(draft, duplicate);
+    } else if (qualityInstruction != null) {
+      escalationPrompt = prompt + "\n\n" + qualityInstruction;
+    }
+    return ensureUnique(generatePrimary(escalationPrompt), escalationPrompt);
+  }
 
+  private VideoCreationContent generatePrimary(String prompt) {
+    long startedAt = System.nanoTime();
+    VideoCreationContent content = generateSingle(prompt, apiConfig.getOpenaiModel());
+    modelRoutingService.recordLatency(ModelRoutingService.TIER_PRIMARY, (System.nanoTime() - startedAt) / 1_000_000);
+    return content;
+  }
+
+  private VideoCreationContent generateSingle(String currentFullPrompt, String model) {
     // 3. OpenAI API 요청 준비
-    String model = apiConfig.getOpenaiModel();
     log.info("비동기 작업 시작: OpenAI 모델 ({})을 사용하여 비디오 콘텐츠 및 프롬프트 생성 중...", model);
-    OpenAiService service = new OpenAiService(apiConfig.getOpenaiApiKey(), Duration.ofSeconds(openaiApiTimeoutSeconds));
 
     List<ChatMessage> messages = new ArrayList<>();
     messages.add(new ChatMessage("user", currentFullPrompt)); // 최종적으로 구성된 프롬프트 사용
 
-    ChatCompletionRequest request = ChatCompletionRequest.builder()
-        .model(model)
-        .messages(messages)
-        .temperature(0.9)
-        .presencePenalty(0.4d)
-        .frequencyPenalty(0.4d)
-        .maxTokens(3500)
-        .build();
-
-    // GPT-3.5 Turbo 등에서는 response_format을 지원하지 않을 수 있으므로, 조건부로 설정하거나
-    // 프롬프트 내에서 "응답은 반드시 JSON 객체여야 합니다"라고 강력히 지시하는 것이 중요합니다.
-    // 위에서는 일단 responseFormat("json_object")를 추가했습니다. 모델 호환성 확인 필요.
+    // response_format: json_object는 지원 모델에 한해 OpenAIStrictJsonInterceptor가 HTTP 요청에 추가합니다.
+    // 지원하지 않는 모델은 프롬프트의 JSON 출력 지시와 JsonResponseRepairer의 로컬 복구에 의존합니다.
 
     // 4. OpenAI API 호출 및 응답 처리
     try {
+      // 로컬 토크나이저로 프롬프트 토큰 수를 계산하고 남은 컨텍스트에 맞춰 max_tokens 결정
+      int promptTokens = tokenBudgetService.countMessages(model, messages);
+      ChatCompletionRequest request = ChatCompletionRequest.builder()
+          .model(model)
+          .messages(messages)
+          .temperature(0.9)
+          .presencePenalty(0.4d)
+          .frequencyPenalty(0.4d)
+          .maxTokens(tokenBudgetService.completionTokens(model, promptTokens))
+          .build();
+      log.debug("프롬프트 토큰 수 (로컬 계산): {}, max_tokens: {}", promptTokens, request.getMaxTokens());
+
       log.debug("OpenAI API에 요청 전송 중 (모델: {})...", model);
-      ChatCompletionResult result = service.createChatCompletion(request);
+      ChatCall call = createAdaptiveChatCompletion("single", request, 1, generationLatency);
+      ChatCompletionResult result = call.result();
 
       if (result != null && result.getChoices() != null && !result.getChoices().isEmpty()) {
         String rawResponse = result.getChoices().get(0).getMessage().getContent();
@@ -138,6 +280,7 @@ public class OpenAIService {
         log.debug("원시 OpenAI 응답 (JSON 예상):\n{}", rawResponse);
 
         VideoCreationContent parsedContent = parseOpenAIResponse(rawResponse);
+        recordUsage("single", call, !isErrorContent(parsedContent));
 
         // 성공적으로 생성되고 파싱된 팁 제목을 히스토리에 추가
 //        if (parsedContent != null && parsedContent.getDailyTipTitle() != null &&
@@ -145,28 +288,1064 @@ public class OpenAIService {
 //            !parsedContent.getDailyTipTitle().isBlank()) {
 //          recentTipsHistoryService.addTipTitle(parsedContent.getDailyTipTitle());
 //        }
-        return CompletableFuture.completedFuture(parsedContent);
+        return parsedContent;
       } else {
         log.error("OpenAI로부터 응답이 없거나 비어있는 선택지를 수신했습니다 (비동기).");
-        return CompletableFuture.completedFuture(
-            new VideoCreationContent("Error", "No response or empty choices from OpenAI.",
-                "Error: OpenAI communication issue.", "Error: OpenAI communication issue.")
-        );
+        recordUsage("single", call, false);
+        return new VideoCreationContent("Error", "No response or empty choices from OpenAI.",
+            "Error: OpenAI communication issue.", "Error: OpenAI communication issue.");
       }
+    } catch (OpenAICircuitBreaker.CircuitOpenException e) {
+      log.warn("OpenAI 서킷이 열려 있어 요청을 즉시 거절했습니다: {}", e.getMessage());
+      return circuitOpenContent(e);
+    } catch (JobDeadline.DeadlineExceededException e) {
+      log.warn("작업 마감이 임박하여 OpenAI 호출을 보내지 않았습니다: {}", e.getMessage());
+      return deadlineExceededContent();
     } catch (Exception e) {
+      if (isCurrentJobCancelled()) {
+        log.info("작업이 취소되어 OpenAI 채팅 생성을 중단했습니다.");
+        return cancelledContent();
+      }
       log.error("OpenAI 채팅 생성 중 예외 발생 (비동기): {}", e.getMessage(), e);
       // API 키 오류, 네트워크 문제, 요청 형식 오류 등 다양한 원인이 있을 수 있음
+      return new VideoCreationContent("Error", "Exception during OpenAI API call: " + e.getClass().getSimpleName(),
+          "Error: OpenAI API call failed.", "Error: OpenAI API call failed.");
+    }
+  }
+
+  /**
+   * 생성된 팁이 렌더링 전 품질 게이트(낭독 시간, InVideo 브리프 길이, YouTube 메타데이터 규칙)를 통과하지 못하면
+   * 길이 지시를 덧붙여 다시 생성하거나 잘라서 맞추고, 과거 팁과 거의 같으면 해당 팁을 피하라는 지시를 덧붙여
+   * 최대 maxDuplicateRegenerations번 다시 생성합니다. 통과한 팁은 유사도 인덱스에 등록됩니다. InVideo 렌더링 전에 걸러내기 위한 단계입니다.
+   */
+  private VideoCreationContent ensureUnique(VideoCreationContent content, String prompt) {
+    String currentPrompt = prompt;
+    VideoCreationContent current = content;
+    int qualityRegenerations = 0;
+    for (int attempt = 0; ; ) {
+      if (isErrorContent(current)) {
+        return current;
+      }
+      // 품질 게이트 실패 콘텐츠는 유사도 인덱스에 등록하지 않음 (다시 생성한 팁이 중복으로 걸리지 않도록)
+      ContentQualityGate.Review review = reviewQuality(current);
+      if (!review.passed()) {
+        if (qualityRegenerations < qualityGate.getMaxRegenerations()) {
+          qualityRegenerations++;
+          currentPrompt = currentPrompt + "\n\n" + qualityGate.regenerationInstruction(review);
+          current = generatePrimary(currentPrompt);
+          continue;
+        }
+        review = qualityGate.trimToFit(review);
+        if (!review.passed()) {
+          return qualityRejectedContent(review);
+        }
+      }
+      current = review.content();
+      TipSimilarityService.DuplicateMatch duplicate = registerIfUnique(current);
+      if (duplicate == null) {
+        return current;
+      }
+      log.warn("생성된 팁 '{}'이(가) 과거 팁 '{}'과(와) 유사합니다 ({} 유사도 {}).",
+          current.getDailyTipTitle(), duplicate.matchedTitle(), duplicate.field(),
+          String.format("%.2f", duplicate.similarity()));
+      if (attempt >= maxDuplicateRegenerations) {
+        duplicateRejections.incrementAndGet();
+        log.error("근접 중복 팁 재생성 {}회 모두 실패했습니다.", maxDuplicateRegenerations);
+        String message = "Error: Generated tip was too similar to a previous tip"
+            + (duplicate.matchedTitle() != null ? " ('" + duplicate.matchedTitle() + "')" : "") + ". Please try again.";
+        return new VideoCreationContent("Error", "Near-duplicate tip rejected.", message, message);
+      }
+      attempt++;
+      duplicateRegenerations.incrementAndGet();
+      currentPrompt = currentPrompt + "\n\n" + buildDuplicateAvoidanceInstruction(current, duplicate);
+      current = generatePrimary(currentPrompt);
+    }
+  }
+
+  /**
+   * 스크립트 SimHash 저장소와 제목/스크립트 MinHash 인덱스를 모두 통과한 경우에만 두 곳에 등록합니다.
+   *
+   * @return 중복이면 가장 유사한 과거 팁 정보 (SimHash로 걸린 경우 제목은 null), 등록되었으면 null
+   */
+  private TipSimilarityService.DuplicateMatch registerIfUnique(VideoCreationContent content) {
+    TipSimilarityService.DuplicateMatch duplicate = checkAndRegister(content);
+    String variant = currentVariantName();
+    if (variant != null) {
+      promptVariantMetrics.recordDedupCheck(variant, duplicate != null);
+    }
+    return duplicate;
+  }
+
+  private TipSimilarityService.DuplicateMatch checkAndRegister(VideoCreationContent content) {
+    boolean deferred = Boolean.TRUE.equals(DEFER_REGISTRATION.get());
+    synchronized (dedupLock) {
+      // 지문은 한 번만 계산해 조회와 등록에 같이 사용
+      String script = content.getDailyTipScript();
+      boolean checkScript = scriptFingerprintService.isEnabled() && script != null && !script.isBlank();
+      long fingerprint = checkScript ? scriptFingerprintService.fingerprint(script) : 0L;
+      if (checkScript) {
+        ScriptFingerprintService.ScriptMatch scriptMatch = scriptFingerprintService.findNearDuplicate(fingerprint);
+        if (scriptMatch != null) {
+          return new TipSimilarityService.DuplicateMatch("script_simhash", null,
+              1.0 - scriptMatch.distance() / 64.0);
+        }
+      }
+      if (deferred) {
+        return tipSimilarityService.findDuplicate(content);
+      }
+      TipSimilarityService.DuplicateMatch duplicate = tipSimilarityService.registerIfUnique(content);
+      if (duplicate == null && checkScript) {
+        scriptFingerprintService.register(fingerprint);
+      }
+      return duplicate;
+    }
+  }
+
+  private String buildDuplicateAvoidanceInstruction(VideoCreationContent rejected,
+      TipSimilarityService.DuplicateMatch duplicate) {
+    String previous = duplicate.matchedTitle() != null
+        ? "the already published tip \"" + duplicate.matchedTitle() + "\""
+        : "the script of an already published tip";
+    return "**DUPLICATE REJECTED:** A previous attempt produced \"" + rejected.getDailyTipTitle()
+        + "\", which is nearly identical to " + previous
+        + ". Choose a clearly different topic, angle, advice and title this time.";
+  }
+
+  /**
+   * 스트리밍 모드로 팁을 생성합니다. SSE 토큰 스트림을 받는 동안 JSON을 점진적으로 파싱하여,
+   * 최상위 문자열 필드(예: daily_tip_title)가 완성되는 즉시 fieldListener에 전달합니다.
+   *
+   * @param fieldListener (JSON 키, 완성된 값)을 전달받는 콜백. 스트리밍 스레드에서 호출됩니다.
+   * @return 전체 응답을 파싱한 결과
+   */
+  @Async
+  public CompletableFuture<VideoCreationContent> streamVideoContentAndPrompt(BiConsumer<String, String> fieldListener) {
+    return streamVideoContent(fieldListener);
+  }
+
+  /**
+   * 취소 가능한 스트리밍 생성. 작업이 취소되면 SSE 스트림을 끊고 종료합니다.
+   */
+  @Async
+  public CompletableFuture<VideoCreationContent> streamVideoContentAndPrompt(BiConsumer<String, String> fieldListener,
+      JobHandle job) {
+    try (JobHandle.Registration ignored = job.attach()) {
+      job.setStage("generating");
+      return streamVideoContent(fieldListener);
+    } catch (JobHandle.JobCancelledException e) {
+      return CompletableFuture.completedFuture(cancelledContent());
+    }
+  }
+
+  private CompletableFuture<VideoCreationContent> streamVideoContent(BiConsumer<String, String> fieldListener) {
+    MasterPromptService.PromptVariant variant = masterPromptService.select();
+    if (variant == null) {
+      log.error("Master prompt is not loaded correctly. Cannot proceed with OpenAI streaming request.");
+      return CompletableFuture.completedFuture(
+          new VideoCreationContent("Error", "Master prompt issue.", "Error: Master prompt issue.",
+              "Error: Master prompt issue.")
+      );
+    }
+    return inVariant(variant, () -> streamVideoContent(variant.template(), fieldListener));
+  }
+
+  private CompletableFuture<VideoCreationContent> streamVideoContent(MasterPromptTemplate template,
+      BiConsumer<String, String> fieldListener) {
+    String draftModel = modelRoutingService.draftModelFor(ModelRoutingService.STAGE_STREAM);
+    String model = draftModel != null ? draftModel : apiConfig.getOpenaiModel();
+    log.info("비동기 스트리밍 작업 시작: OpenAI 모델 ({})을 사용하여 비디오 콘텐츠 생성 중...", model);
+
+    List<String> categories = assignCategories(1);
+    String currentFullPrompt = buildFullPrompt(template, categories);
+    List<ChatMessage> messages = new ArrayList<>();
+    messages.add(new ChatMessage("user", currentFullPrompt));
+
+    ChatCompletionRequest request;
+    try {
+      request = ChatCompletionRequest.builder()
+          .model(model)
+          .messages(messages)
+          .temperature(0.9)
+          .presencePenalty(0.4d)
+          .frequencyPenalty(0.4d)
+          .maxTokens(tokenBudgetService.completionTokens(model, tokenBudgetService.countMessages(model, messages)))
+          .stream(true)
+          .build();
+    } catch (IllegalStateException e) {
+      log.error("프롬프트가 토큰 예산을 초과했습니다: {}", e.getMessage());
+      return CompletableFuture.completedFuture(
+          new VideoCreationContent("Error", "Prompt exceeds token budget.", "Error: " + e.getMessage(),
+              "Error: " + e.getMessage()));
+    }
+
+    long startedAt = System.nanoTime();
+    StringBuilder rawResponse = new StringBuilder();
+    AtomicBoolean firstTokenSeen = new AtomicBoolean();
+    AtomicBoolean firstFieldSeen = new AtomicBoolean();
+    IncrementalJsonFieldExtractor extractor = new IncrementalJsonFieldExtractor((key, value) -> {
+      if (firstFieldSeen.compareAndSet(false, true)) {
+        long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+        streamFirstFieldLatency.record(elapsedMs);
+        log.info("스트리밍: 첫 필드 '{}' 완성까지 {}ms", key, elapsedMs);
+      }
+      try {
+        fieldListener.accept(key, value);
+      } catch (Exception e) {
+        log.warn("스트리밍 필드 리스너 처리 중 오류 (key: {}): {}", key, e.getMessage());
+      }
+    });
+
+    boolean live = false;
+    try {
+      Optional<ChatCompletionResult> replayed = responseRecorder.replay(request);
+      if (replayed.isPresent()) {
+        String content = replayed.get().getChoices().get(0).getMessage().getContent();
+        streamFirstTokenLatency.record((System.nanoTime() - startedAt) / 1_000_000);
+        rawResponse.append(content);
+        extractor.feed(content);
+      } else {
+        requireTimeForCurrentJob("stream", generationLatency);
+        circuitBreaker.checkPermission();
+        live = true;
+        streamLive(request, startedAt, rawResponse, firstTokenSeen, extractor);
+        responseRecorder.record(request, toCompletionResult(model, rawResponse.toString()));
+      }
+      long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+      generationLatency.record(elapsedMs);
+      modelRoutingService.recordLatency(
+          draftModel != null ? ModelRoutingService.TIER_DRAFT : ModelRoutingService.TIER_PRIMARY, elapsedMs);
+      log.info("OpenAI 스트리밍 응답 완료: {}ms, {}자", elapsedMs, rawResponse.length());
+      log.debug("원시 OpenAI 스트리밍 응답 (JSON 예상):\n{}", rawResponse);
+      VideoCreationContent parsedContent = parseOpenAIResponse(rawResponse.toString());
+      if (live) {
+        recordStreamUsage(request, rawResponse.toString(), elapsedMs, !isErrorContent(parsedContent), null);
+        // 스트리밍은 이미 전송한 미리보기를 되돌릴 수 없어 적응형 상한은 적용하지 않고 분포 샘플로만 사용
+        if (!isErrorContent(parsedContent)) {
+          adaptiveMaxTokensService.recordCompletion(model, template.getVersion(),
+              tokenBudgetService.countText(model, rawResponse.toString()));
+        }
+      }
+      // 중복이거나 초안이 품질 검사에 실패하면 이미 미리보기가 전송되었더라도 비스트리밍 방식으로 다시 생성
+      VideoCreationContent content = draftModel != null
+          ? acceptDraftOrEscalate(ModelRoutingService.STAGE_STREAM, parsedContent, currentFullPrompt)
+          : ensureUnique(parsedContent, currentFullPrompt);
+      return CompletableFuture.completedFuture(withOrigin(content, template, categories));
+    } catch (OpenAICircuitBreaker.CircuitOpenException e) {
+      log.warn("OpenAI 서킷이 열려 있어 스트리밍 요청을 즉시 거절했습니다: {}", e.getMessage());
+      return CompletableFuture.completedFuture(circuitOpenContent(e));
+    } catch (JobDeadline.DeadlineExceededException e) {
+      log.warn("작업 마감이 임박하여 OpenAI 스트리밍 요청을 보내지 않았습니다: {}", e.getMessage());
+      return CompletableFuture.completedFuture(deadlineExceededContent());
+    } catch (Exception e) {
+      if (isCurrentJobCancelled()) {
+        log.info("작업이 취소되어 OpenAI 스트리밍을 중단했습니다.");
+        return CompletableFuture.completedFuture(cancelledContent());
+      }
+      log.error("OpenAI 스트리밍 생성 중 예외 발생 (비동기): {}", e.getMessage(), e);
+      if (live) {
+        recordStreamUsage(request, rawResponse.toString(), (System.nanoTime() - startedAt) / 1_000_000, false,
+            e.getClass().getSimpleName());
+      }
       return CompletableFuture.completedFuture(
-          new VideoCreationContent("Error", "Exception during OpenAI API call: " + e.getClass().getSimpleName(),
+          new VideoCreationContent("Error", "Exception during OpenAI streaming call: " + e.getClass().getSimpleName(),
               "Error: OpenAI API call failed.", "Error: OpenAI API call failed.")
       );
     }
   }
 
+  private void streamLive(ChatCompletionRequest request, long startedAt, StringBuilder rawResponse,
+      AtomicBoolean firstTokenSeen, IncrementalJsonFieldExtractor extractor) throws Exception {
+    // 스트리밍 응답은 usage를 제공하지 않으므로 예상 토큰 수로 예산을 차감
+    rateGovernor.execute(rateGovernor.estimateTokens(request), () -> circuitBreaker.execute(() -> {
+      openAiClient.streamChatCompletion(request).blockingForEach(chunk -> {
+        if (chunk.getChoices() == null || chunk.getChoices().isEmpty()
+            || chunk.getChoices().get(0).getMessage() == null) {
+          return;
+        }
+        String delta = chunk.getChoices().get(0).getMessage().getContent();
+        if (delta == null || delta.isEmpty()) {
+          return;
+        }
+        if (firstTokenSeen.compareAndSet(false, true)) {
+          streamFirstTokenLatency.record((System.nanoTime() - startedAt) / 1_000_000);
+        }
+        rawResponse.append(delta);
+        extractor.feed(delta);
+      });
+      return rawResponse;
+    }), response -> -1);
+  }
+
+  // 스트리밍으로 받은 응답을 녹화용 ChatCompletionResult 형태로 변환
+  private ChatCompletionResult toCompletionResult(String model, String content) {
+    ChatCompletionChoice choice = new ChatCompletionChoice();
+    choice.setIndex(0);
+    choice.setMessage(new ChatMessage("assistant", content));
+    choice.setFinishReason("stop");
+    ChatCompletionResult result = new ChatCompletionResult();
+    result.setModel(model);
+    result.setCreated(System.currentTimeMillis() / 1000);
+    result.setChoices(List.of(choice));
+    return result;
+  }
+
+  /**
+   * 한 번의 채팅 완성 요청으로 서로 다른 카테고리의 팁 K개를 생성합니다.
+   * 마스터 프롬프트를 K번 보내는 대신 한 번만 보내므로 프롬프트 토큰과 왕복 비용이 K개의 팁에 분산됩니다.
+   *
+   * 배치 결과는 팁 풀에 들어가므로 generatePooledContent와 마찬가지로 유사도 인덱스 등록은 registerHandedOut에서 합니다.
+   *
+   * @param k 생성할 팁 개수 (1 ~ 8, 범위를 벗어나면 보정)
+   * @return 파싱에 성공한 팁 목록. 실패 시 빈 목록
+   */
+  @Async
+  public CompletableFuture<List<VideoCreationContent>> generateBatch(int k) {
+    MasterPromptService.PromptVariant variant = masterPromptService.select();
+    if (variant == null) {
+      log.error("Master prompt is not loaded correctly. Cannot proceed with OpenAI batch request.");
+      return CompletableFuture.completedFuture(Collections.emptyList());
+    }
+    return deferringRegistration(() -> inVariant(variant, () -> generateBatch(variant.template(), k)));
+  }
+
+  /**
+   * 팁 풀에서 꺼낸 팁을 스크립트 지문 저장소와 유사도 인덱스에 등록합니다.
+   * 풀에 있는 동안 다른 팁이 먼저 같은 주제로 등록되었으면 등록하지 않고 그 팁 정보를 반환합니다.
+   *
+   * @return 중복이면 가장 유사한 과거 팁 정보, 등록되었으면 null
+   */
+  public TipSimilarityService.DuplicateMatch registerHandedOut(VideoCreationContent content) {
+    return checkAndRegister(content);
+  }
+
+  private CompletableFuture<List<VideoCreationContent>> generateBatch(MasterPromptTemplate template, int k) {
+    int batchSize = Math.max(1, Math.min(k, MAX_BATCH_SIZE));
+    List<String> categories = assignCategories(batchSize);
+    if (!categories.isEmpty()) {
+      // 배치 안에서 카테고리가 겹치지 않도록 카테고리 수를 넘지 않게 조정
+      batchSize = categories.size();
+    }
+    String draftModel = modelRoutingService.draftModelFor(ModelRoutingService.STAGE_BATCH);
+    if (draftModel == null) {
+      return CompletableFuture.completedFuture(
+          generateBatchWith(template, apiConfig.getOpenaiModel(), ModelRoutingService.TIER_PRIMARY, batchSize,
+              categories));
+    }
+
+    // 초안 모델로 먼저 생성하고, 품질/중복 검사를 통과하지 못한 몫만 주 모델로 다시 생성
+    List<VideoCreationContent> contents = new ArrayList<>(
+        generateBatchWith(template, draftModel, ModelRoutingService.TIER_DRAFT, batchSize, categories));
+    List<String> remainingCategories = categories.stream()
+        .filter(category -> contents.stream().noneMatch(content -> category.equals(content.getCategory())))
+        .toList();
+    int missing = categories.isEmpty() ? batchSize - contents.size() : remainingCategories.size();
+    if (missing > 0) {
+      log.info("초안 배치에서 {}개 중 {}개가 채택되지 않아 주 모델로 다시 생성합니다.", batchSize, missing);
+      contents.addAll(generateBatchWith(template, apiConfig.getOpenaiModel(), ModelRoutingService.TIER_PRIMARY, missing,
+          remainingCategories));
+    }
+    return CompletableFuture.completedFuture(contents);
+  }
+
+  /**
+   * 지정한 모델로 배치 요청 1회를 수행합니다. 초안 티어이면 품질 검사에 실패한 팁도 제외하고 승격 사유를 기록합니다.
+   *
+   * @return 파싱, 품질 검사, 중복 검사를 통과한 팁 목록. 실패 시 빈 목록
+   */
+  private List<VideoCreationContent> generateBatchWith(MasterPromptTemplate template, String model, String tier,
+      int batchSize, List<String> categories) {
+    boolean draft = ModelRoutingService.TIER_DRAFT.equals(tier);
+    String batchPrompt = buildFullPrompt(template, categories) + "\n\n" + buildBatchInstruction(batchSize, !categories.isEmpty());
+    log.info("비동기 배치 작업 시작: OpenAI 모델 ({})로 팁 {}개 생성 중...", model, batchSize);
+
+    List<ChatMessage> messages = new ArrayList<>();
+    messages.add(new ChatMessage("user", batchPrompt));
+
+    try {
+      int promptTokens = tokenBudgetService.countMessages(model, messages);
+      ChatCompletionRequest request = ChatCompletionRequest.builder()
+          .model(model)
+          .messages(messages)
+          .temperature(0.9)
+          .presencePenalty(0.4d)
+          .frequencyPenalty(0.4d)
+          .maxTokens(tokenBudgetService.completionTokens(model, promptTokens,
+              Math.min(COMPLETION_TOKENS_PER_TIP * batchSize, batchMaxCompletionTokens)))
+          .build();
+      ChatCall call = createAdaptiveChatCompletion("batch", request, batchSize, batchLatency);
+      modelRoutingService.recordLatency(tier, call.latencyMs());
+      ChatCompletionResult result = call.result();
+      if (result == null || result.getChoices() == null || result.getChoices().isEmpty()) {
+        log.error("OpenAI 배치 요청에 대해 응답이 없거나 비어있는 선택지를 수신했습니다.");
+        recordUsage("batch", call, false);
+        recordMissingDrafts(draft, batchSize);
+        return Collections.emptyList();
+      }
+      String rawResponse = result.getChoices().get(0).getMessage().getContent();
+      log.debug("원시 OpenAI 배치 응답:\n{}", rawResponse);
+
+      List<VideoCreationContent> contents = parseBatchResponse(rawResponse);
+      recordUsage("batch", call, !contents.isEmpty());
+      contents.forEach(content -> content.setPromptVersion(template.getVersion()));
+      // 모델이 category 키를 빠뜨린 경우 배정 순서대로 채움
+      for (int i = 0; i < contents.size() && i < categories.size(); i++) {
+        if (contents.get(i).getCategory() == null || contents.get(i).getCategory().isBlank()) {
+          contents.get(i).setCategory(categories.get(i));
+        }
+      }
+      // 과거 팁과 거의 같은 항목은 제외 (풀 보충 시 부족분은 다음 보충에서 채워짐).
+      // 같은 배치 안의 서로 비슷한 팁은 풀에서 꺼낼 때 registerHandedOut에서 걸러짐
+      List<VideoCreationContent> uniqueContents = new ArrayList<>(contents.size());
+      for (VideoCreationContent parsed : contents) {
+        String failure = draft ? modelRoutingService.checkDraft(parsed) : null;
+        if (failure != null) {
+          modelRoutingService.recordDraftResult(ModelRoutingService.STAGE_BATCH, failure);
+          continue;
+        }
+        // 배치는 팁 하나만 다시 생성할 수 없으므로 잘라서 맞추고, 그래도 안 되면 제외
+        ContentQualityGate.Review review = qualityGate.trimToFit(reviewQuality(parsed));
+        if (!review.passed()) {
+          if (draft) {
+            modelRoutingService.recordDraftResult(ModelRoutingService.STAGE_BATCH,
+                ModelRoutingService.REASON_QUALITY_GATE_PREFIX + review.failure());
+          }
+          continue;
+        }
+        VideoCreationContent content = review.content();
+        TipSimilarityService.DuplicateMatch duplicate = registerIfUnique(content);
+        if (duplicate == null) {
+          uniqueContents.add(content);
+          if (draft) {
+            modelRoutingService.recordDraftResult(ModelRoutingService.STAGE_BATCH, null);
+          }
+        } else {
+          duplicateRejections.incrementAndGet();
+          if (draft) {
+            modelRoutingService.recordDraftResult(ModelRoutingService.STAGE_BATCH,
+                ModelRoutingService.REASON_NEAR_DUPLICATE);
+          }
+          log.warn("배치 팁 '{}'이(가) 과거 팁 '{}'과(와) 유사하여 제외합니다.", content.getDailyTipTitle(),
+              duplicate.matchedTitle());
+        }
+      }
+      recordMissingDrafts(draft, batchSize - contents.size());
+      recordAcceptedTips(uniqueContents.size());
+      categoryRotationScheduler.markUsed(uniqueContents.stream()
+          .map(VideoCreationContent::getCategory)
+          .filter(category -> category != null)
+          .toList());
+      log.info("OpenAI 배치 생성 완료 ({}): 요청 {}개 / 파싱 성공 {}개 / 검사 통과 {}개", model, batchSize, contents.size(),
+          uniqueContents.size());
+      return uniqueContents;
+    } catch (OpenAICircuitBreaker.CircuitOpenException e) {
+      log.warn("OpenAI 서킷이 열려 있어 배치 요청을 즉시 거절했습니다: {}", e.getMessage());
+      return Collections.emptyList();
+    } catch (Exception e) {
+      log.error("OpenAI 배치 생성 중 예외 발생: {}", e.getMessage(), e);
+      recordMissingDrafts(draft, batchSize);
+      return Collections.emptyList();
+    }
+  }
+
+  // 초안 배치 응답에서 아예 받지 못한 팁 수만큼 승격 사유를 기록
+  private void recordMissingDrafts(boolean draft, int missing) {
+    for (int i = 0; draft && i < missing; i++) {
+      modelRoutingService.recordDraftResult(ModelRoutingService.STAGE_BATCH,
+          ModelRoutingService.REASON_MISSING_FROM_RESPONSE);
+    }
+  }
+
+  private String buildBatchInstruction(int batchSize, boolean categoriesAssigned) {
+    String categoryRule = categoriesAssigned
+        ? "Tip N MUST come from the N-th assigned CORE CATEGORY in the TIP ASSIGNMENT section, in that order, "
+        : "Each tip MUST come from a DIFFERENT one of the 8 CORE CATEGORIES. Never use the same category twice in this batch, ";
+    String categoryKey = categoriesAssigned
+        ? ", plus a \"category\" key containing the exact assigned category name"
+        : "";
+    return "**BATCH MODE (this overrides the single JSON object output rule above):**\n"
+        + "Generate exactly " + batchSize + " distinct tips in this single response.\n"
+        + categoryRule
+        + "and make sure the titles, examples and psychological frameworks do not overlap between the tips.\n"
+        + "Your Final Output MUST BE a single JSON object with exactly one key \"tips\", whose value is a JSON array of exactly "
+        + batchSize + " objects. Each object must have the exact keys \"daily_tip_title\", \"daily_tip_script\", "
+        + "\"invideo_ai_prompt\" and \"youtube_short_description\" with the same requirements as described above"
+        + categoryKey + ".\n"
+        + "Do NOT add any other explanatory text or markdown formatting outside of this JSON object.";
+  }
+
+  private List<VideoCreationContent> parseBatchResponse(String rawJsonResponse) {
+    try {
+      JsonNode root = jsonResponseRepairer.readTree(rawJsonResponse);
+      // {"tips": [...]} 형태를 기본으로 하되, 모델이 배열만 반환한 경우도 허용
+      JsonNode tipsNode = root.isArray() ? root : root.get("tips");
+      if (tipsNode == null || !tipsNode.isArray()) {
+        log.error("OpenAI 배치 응답에 tips 배열이 없습니다. 원본 응답: {}", rawJsonResponse);
+        return Collections.emptyList();
+      }
+      List<VideoCreationContent> contents = new ArrayList<>();
+      for (JsonNode tipNode : tipsNode) {
+        VideoCreationContent content = objectMapper.treeToValue(tipNode, VideoCreationContent.class);
+        if (content.getDailyTipTitle() != null && !content.getDailyTipTitle().isBlank()) {
+          contents.add(content);
+        } else {
+          log.warn("배치 응답 중 제목이 없는 항목을 건너뜁니다: {}", tipNode);
+        }
+      }
+      return contents;
+    } catch (JsonProcessingException e) {
+      log.error("OpenAI 배치 JSON 응답 파싱 중 오류: {}. 원본 응답: {}", e.getMessage(), rawJsonResponse, e);
+      return Collections.emptyList();
+    }
+  }
+
+  // 카테고리 로테이션이 꺼져 있으면 빈 목록 (최근 팁 목록 방식으로 동작)
+  // 배정만 하고 사용 기록에는 반영하지 않음. 팁이 채택된 뒤 markUsed()로 반영하여 실패/취소/거절된 생성이 순번을 소비하지 않도록 함
+  private List<String> assignCategories(int count) {
+    return categoryRotationScheduler.peekNextCategories(count);
+  }
+
+  // 배정된 카테고리와 생성에 사용한 프롬프트 버전을 기록
+  private VideoCreationContent withOrigin(VideoCreationContent content, MasterPromptTemplate template,
+      List<String> categories) {
+    if (isErrorContent(content)) {
+      return content;
+    }
+    if (!categories.isEmpty()) {
+      content.setCategory(categories.get(0));
+    }
+    content.setPromptVersion(template.getVersion());
+    recordAcceptedTips(1);
+    categoryRotationScheduler.markUsed(categories);
+    return content;
+  }
+
+  private String buildFullPrompt(MasterPromptTemplate template, List<String> categories) {
+    // 1. 카테고리가 배정되었으면 그 카테고리만 전달 (최근 팁 목록을 보내지 않아 프롬프트가 짧아짐)
+    if (!categories.isEmpty()) {
+      return template.assemble(buildCategoryAssignment(categories));
+    }
+
+    // 로테이션이 꺼져 있으면 최근 팁 목록을 전달
+    List<String> recentTitles = recentTipsHistoryService.getRecentTipTitles();
+    // 토큰 예산을 넘으면 오래된 제목부터 제외
+    List<String> titlesToAvoid = tokenBudgetService.fitTitles(apiConfig.getOpenaiModel(), recentTitles, "- ");
+    String previousTipsFormattedString = "";
+
+    if (!titlesToAvoid.isEmpty()) {
+      previousTipsFormattedString =
+          "IMPORTANT: Avoid generating tips that are substantively similar in topic or advice to the following recently generated tips. Focus on providing fresh, distinct advice each time.\nRecently generated tip titles (for your reference to avoid duplication):\n"
+              +
+              titlesToAvoid.stream().map(title -> "- " + title).collect(Collectors.joining("\n")) +
+              (titlesToAvoid.size() < recentTitles.size()
+                  ? "\n(" + (recentTitles.size() - titlesToAvoid.size()) + " older titles omitted.)"
+                  : "") +
+              "\n(If this list is empty or short, it means fewer tips were generated recently or they were not persisted.)\n";
+      log.debug("Previous tips to avoid ({}): {}", titlesToAvoid.size(), titlesToAvoid);
+    } else {
+      log.debug("No previous tips to avoid.");
+      // 플레이스홀더가 있다면, 이전 팁이 없을 경우 빈 문자열로 대체하거나,
+      // "No previous tips generated yet." 같은 메시지로 대체할 수 있습니다.
+      previousTipsFormattedString = "No previous tips have been generated recently. Feel free to generate any relevant tip.\n";
+    }
+
+    // 2. 정적 prefix 뒤에 이전 팁 정보를 붙임 (prefix가 요청마다 동일해야 프롬프트 캐싱이 적용됨)
+    String currentFullPrompt = template.assemble(previousTipsFormattedString);
+    // log.trace("Current full prompt for OpenAI:\n{}", currentFullPrompt); // 매우 긴 로그가 될 수 있으므로 TRACE 레벨
+
+    return currentFullPrompt;
+  }
+
+  private String buildCategoryAssignment(List<String> categories) {
+    if (categories.size() == 1) {
+      return "This tip MUST come from the following CORE CATEGORY (assigned by the rotation schedule, do not choose another one): "
+          + categories.get(0) + "\n"
+          + "Previous tips are checked for duplicates separately, so focus on a fresh, specific angle within this category.\n";
+    }
+    StringBuilder assignment = new StringBuilder(
+        "The tips in this request are assigned the following CORE CATEGORIES by the rotation schedule, one per tip, in order:\n");
+    for (int i = 0; i < categories.size(); i++) {
+      assignment.append(i + 1).append(". ").append(categories.get(i)).append('\n');
+    }
+    return assignment.append("Previous tips are checked for duplicates separately, so focus on fresh, specific angles.\n")
+        .toString();
+  }
+
+  /**
+   * 기준 로케일(openai.localization.base_locale)로 팁을 한 번 생성한 뒤, 요청한 로케일별 번역/현지화 호출을
+   * 크기가 제한된 전용 스레드 풀에서 동시에 실행합니다. 로케일 구간의 소요 시간은 로케일 수의 합이 아니라
+   * 가장 느린 로케일에 가깝고, 로케일별 소요 시간을 결과에 함께 담습니다.
+   *
+   * @param locales BCP 47 로케일 태그 (예: ko, ja, pt-BR). 기준 로케일과 중복은 제외
+   */
+  @Async
+  public CompletableFuture<LocalizedTipResult> generateLocalizedTip(List<String> locales) {
+    return generateLocalizedTip(locales, JobHandle.untracked());
+  }
+
+  @Async
+  public CompletableFuture<LocalizedTipResult> generateLocalizedTip(List<String> locales, JobHandle job) {
+    List<String> targetLocales = normalizeLocales(locales);
+    localizationRequests.incrementAndGet();
+    try (JobHandle.Registration ignored = job.attach()) {
+      job.setStage("generating");
+      return CompletableFuture.completedFuture(fanOutLocales(targetLocales, job));
+    } catch (JobHandle.JobCancelledException e) {
+      return CompletableFuture.completedFuture(LocalizedTipResult.builder()
+          .baseLocale(baseLocale)
+          .base(cancelledContent())
+          .locales(Collections.emptyMap())
+          .localeLatencyMs(Collections.emptyMap())
+          .build());
+    }
+  }
+
+  private LocalizedTipResult fanOutLocales(List<String> targetLocales, JobHandle job) {
+    long startedAt = System.nanoTime();
+    VideoCreationContent base = generateVideoContent().join();
+    long fanOutStartedAt = System.nanoTime();
+
+    Map<String, VideoCreationContent> localized = new LinkedHashMap<>();
+    Map<String, Long> localeLatencyMs = new LinkedHashMap<>();
+    if (!isErrorContent(base) && !targetLocales.isEmpty()) {
+      job.setStage("localizing");
+      log.info("기준 팁 '{}'을 {}개 로케일로 동시에 현지화합니다: {}", base.getDailyTipTitle(), targetLocales.size(),
+          targetLocales);
+      Map<String, Future<LocalizedCall>> calls = new LinkedHashMap<>();
+      targetLocales.forEach(locale ->
+          calls.put(locale, localizationExecutor.submit(() -> localizeOnWorker(base, locale, job))));
+
+      long waitUntil = System.nanoTime()
+          + job.getDeadline().clamp(Duration.ofSeconds(localizationTimeoutSeconds)).toNanos();
+      try {
+        for (Map.Entry<String, Future<LocalizedCall>> entry : calls.entrySet()) {
+          String locale = entry.getKey();
+          try {
+            LocalizedCall call = entry.getValue().get(Math.max(0, waitUntil - System.nanoTime()), TimeUnit.NANOSECONDS);
+            localized.put(locale, call.content());
+            localeLatencyMs.put(locale, call.latencyMs());
+          } catch (TimeoutException e) {
+            entry.getValue().cancel(true);
+            localizationTimeouts.incrementAndGet();
+            log.warn("로케일 {} 현지화가 제한 시간 안에 끝나지 않아 중단했습니다.", locale);
+            localized.put(locale, localizationErrorContent("Localization timed out."));
+            localeLatencyMs.put(locale, (System.nanoTime() - fanOutStartedAt) / 1_000_000);
+          } catch (ExecutionException e) {
+            log.error("로케일 {} 현지화 중 예외 발생: {}", locale, e.getCause().getMessage(), e.getCause());
+            localized.put(locale, localizationErrorContent(
+                "Localization failed: " + e.getCause().getClass().getSimpleName()));
+            localeLatencyMs.put(locale, (System.nanoTime() - fanOutStartedAt) / 1_000_000);
+          }
+        }
+      } catch (InterruptedException e) {
+        // 작업 취소: 아직 끝나지 않은 로케일 호출도 함께 중단
+        Thread.currentThread().interrupt();
+        calls.values().forEach(call -> call.cancel(true));
+        targetLocales.forEach(locale -> localized.putIfAbsent(locale, cancelledContent()));
+      }
+      localized.values().stream().filter(this::isErrorContent).forEach(content -> localizationFailures.incrementAndGet());
+      localizedLocales.addAndGet(localized.size());
+    }
+
+    long finishedAt = System.nanoTime();
+    long sequentialLatencyMs = localeLatencyMs.values().stream().mapToLong(Long::longValue).sum();
+    long fanOutLatencyMs = localized.isEmpty() ? 0 : (finishedAt - fanOutStartedAt) / 1_000_000;
+    log.info("다국어 현지화 완료: 로케일 {}개, 기준 생성 {}ms, 현지화 {}ms (순차 실행 시 {}ms)", localized.size(),
+        (fanOutStartedAt - startedAt) / 1_000_000, fanOutLatencyMs, sequentialLatencyMs);
+    return LocalizedTipResult.builder()
+        .baseLocale(baseLocale)
+        .base(base)
+        .locales(localized)
+        .localeLatencyMs(localeLatencyMs)
+        .baseLatencyMs((fanOutStartedAt - startedAt) / 1_000_000)
+        .fanOutLatencyMs(fanOutLatencyMs)
+        .sequentialLatencyMs(sequentialLatencyMs)
+        .totalLatencyMs((finishedAt - startedAt) / 1_000_000)
+        .build();
+  }
+
+  // 공백/중복/기준 로케일/잘못된 태그를 제외하고 최대 maxLocales개까지
+  private List<String> normalizeLocales(List<String> locales) {
+    if (locales == null) {
+      return Collections.emptyList();
+    }
+    List<String> normalized = new ArrayList<>();
+    for (String tag : locales) {
+      if (tag == null || tag.isBlank()) {
+        continue;
+      }
+      Locale locale = Locale.forLanguageTag(tag.trim().replace('_', '-'));
+      String languageTag = locale.toLanguageTag();
+      if (locale.getLanguage().isEmpty()) {
+        log.warn("알 수 없는 로케일 태그를 건너뜁니다: {}", tag);
+      } else if (!languageTag.equalsIgnoreCase(baseLocale) && !normalized.contains(languageTag)) {
+        normalized.add(languageTag);
+      }
+    }
+    if (normalized.size() > maxLocales) {
+      log.warn("요청한 로케일 {}개 중 앞의 {}개만 현지화합니다.", normalized.size(), maxLocales);
+      return normalized.subList(0, maxLocales);
+    }
+    return normalized;
+  }
+
+  // 현지화 호출 하나의 결과와 소요 시간
+  private record LocalizedCall(VideoCreationContent content, long latencyMs) {
+
+  }
+
+  // 현지화 스레드에서 실행. 작업에 연결해 취소/마감 시 진행 중인 호출이 함께 중단되도록 함
+  private LocalizedCall localizeOnWorker(VideoCreationContent base, String locale, JobHandle job) {
+    long startedAt = System.nanoTime();
+    VideoCreationContent content;
+    try (JobHandle.Registration ignored = job.attach()) {
+      content = localize(base, locale);
+    } catch (JobHandle.JobCancelledException e) {
+      content = cancelledContent();
+    }
+    return new LocalizedCall(content, (System.nanoTime() - startedAt) / 1_000_000);
+  }
+
+  private VideoCreationContent localize(VideoCreationContent base, String locale) {
+    String model = localizationModel != null && !localizationModel.isBlank()
+        ? localizationModel : apiConfig.getOpenaiModel();
+    try {
+      List<ChatMessage> messages = new ArrayList<>();
+      messages.add(new ChatMessage("user", buildLocalizationPrompt(base, locale)));
+      int promptTokens = tokenBudgetService.countMessages(model, messages);
+      ChatCompletionRequest request = ChatCompletionRequest.builder()
+          .model(model)
+          .messages(messages)
+          .temperature(0.3)
+          .maxTokens(tokenBudgetService.completionTokens(model, promptTokens))
+          .build();
+      ChatCall call = createChatCompletion("localize", request, localizationLatency);
+      ChatCompletionResult result = call.result();
+      if (result == null || result.getChoices() == null || result.getChoices().isEmpty()) {
+        log.error("로케일 {} 현지화 요청에 대해 응답이 없거나 비어있는 선택지를 수신했습니다.", locale);
+        recordUsage("localize", call, false);
+        return localizationErrorContent("No response or empty choices from OpenAI.");
+      }
+      VideoCreationContent content = parseOpenAIResponse(result.getChoices().get(0).getMessage().getContent());
+      recordUsage("localize", call, !isErrorContent(content));
+      if (isErrorContent(content)) {
+        return content;
+      }
+      content.setCategory(base.getCategory());
+      content.setPromptVersion(base.getPromptVersion());
+      // 번역하면 낭독 시간이 달라지므로 (언어별 낭독 속도로) 다시 검사하고, 길면 문장 단위로 잘라 맞춤
+      ContentQualityGate.Review review = qualityGate.trimToFit(qualityGate.review(content));
+      if (!review.passed()) {
+        log.warn("로케일 {} 현지화 결과가 품질 게이트를 통과하지 못했습니다: {}", locale, review.failure());
+        return qualityRejectedContent(review);
+      }
+      return review.content();
+    } catch (OpenAICircuitBreaker.CircuitOpenException e) {
+      return circuitOpenContent(e);
+    } catch (JobDeadline.DeadlineExceededException e) {
+      log.warn("작업 마감이 임박하여 로케일 {} 현지화 호출을 보내지 않았습니다: {}", locale, e.getMessage());
+      return deadlineExceededContent();
+    } catch (Exception e) {
+      if (isCurrentJobCancelled()) {
+        return cancelledContent();
+      }
+      log.error("로케일 {} 현지화 중 예외 발생: {}", locale, e.getMessage(), e);
+      return localizationErrorContent("Exception during OpenAI API call: " + e.getClass().getSimpleName());
+    }
+  }
+
+  private String buildLocalizationPrompt(VideoCreationContent base, String locale) throws JsonProcessingException {
+    String language = Locale.forLanguageTag(locale).getDisplayName(Locale.ENGLISH);
+    VideoCreationContent source = new VideoCreationContent(base.getDailyTipTitle(), base.getDailyTipScript(),
+        base.getInvideoPrompt(), base.getYoutubeShortDescription());
+    return "Localize the following YouTube Shorts relationship tip for native " + language + " (" + locale
+        + ") viewers. Translate it and adapt idioms, examples and hashtags so it feels written for that audience, "
+        + "keeping the meaning, tone and a spoken length of about 35-45 seconds.\n"
+        + "Rules:\n"
+        + "- daily_tip_title, daily_tip_script and youtube_short_description must be written in " + language + ".\n"
+        + "- invideo_ai_prompt keeps its structure and English instructions, but the script inside it must be "
+        + "replaced with the localized daily_tip_script exactly, and it must state that the voiceover and captions "
+        + "are in " + language + ".\n"
+        + "- Respond with a single JSON object with exactly the keys daily_tip_title, daily_tip_script, "
+        + "invideo_ai_prompt and youtube_short_description.\n\n"
+        + "Original tip (JSON):\n" + objectMapper.writeValueAsString(source);
+  }
+
+  private VideoCreationContent localizationErrorContent(String reason) {
+    return new VideoCreationContent("Error", reason, "Error: " + reason, "Error: " + reason);
+  }
+
+  public Map<String, Object> getLocalizationMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("base_locale", baseLocale);
+    metrics.put("max_parallel", localizationExecutor.getMaximumPoolSize());
+    metrics.put("active_calls", localizationExecutor.getActiveCount());
+    metrics.put("queued_calls", localizationExecutor.getQueue().size());
+    metrics.put("requests", localizationRequests.get());
+    metrics.put("localized_locales", localizedLocales.get());
+    metrics.put("failures", localizationFailures.get());
+    metrics.put("timeouts", localizationTimeouts.get());
+    metrics.put("latency_ms", localizationLatency.snapshot());
+    return metrics;
+  }
+
+  // 진행 중인 생성의 프롬프트 변형 버전. 변형과 무관한 호출(현지화 등)은 기본 프롬프트 버전
+  private String currentPromptVersion() {
+    MasterPromptService.PromptVariant variant = CURRENT_VARIANT.get();
+    MasterPromptTemplate template = variant != null ? variant.template() : masterPromptService.current();
+    return template != null ? template.getVersion() : null;
+  }
+
+  private String currentVariantName() {
+    MasterPromptService.PromptVariant variant = CURRENT_VARIANT.get();
+    return variant != null ? variant.name() : null;
+  }
+
+  // 생성 한 번을 프롬프트 변형에 연결해 실행 (사용량 기록과 변형별 지표가 이 변형으로 집계됨)
+  private <T> T inVariant(MasterPromptService.PromptVariant variant, Supplier<T> generation) {
+    MasterPromptService.PromptVariant previous = CURRENT_VARIANT.get();
+    CURRENT_VARIANT.set(variant);
+    try {
+      return generation.get();
+    } finally {
+      if (previous != null) {
+        CURRENT_VARIANT.set(previous);
+      } else {
+        CURRENT_VARIANT.remove();
+      }
+    }
+  }
+
+  private <T> T deferringRegistration(Supplier<T> generation) {
+    DEFER_REGISTRATION.set(true);
+    try {
+      return generation.get();
+    } finally {
+      DEFER_REGISTRATION.remove();
+    }
+  }
+
+  private void recordUsageRecord(OpenAIUsageRecord usageRecord) {
+    usageService.record(usageRecord);
+    String variant = currentVariantName();
+    if (variant != null) {
+      promptVariantMetrics.recordCall(variant, usageRecord);
+    }
+  }
+
+  private ContentQualityGate.Review reviewQuality(VideoCreationContent content) {
+    ContentQualityGate.Review review = qualityGate.review(content);
+    String variant = currentVariantName();
+    if (variant != null) {
+      promptVariantMetrics.recordQualityReview(variant, review.passed());
+    }
+    return review;
+  }
+
+  private void recordAcceptedTips(int tips) {
+    String variant = currentVariantName();
+    if (variant != null && tips > 0) {
+      promptVariantMetrics.recordAcceptedTips(variant, tips);
+    }
+  }
+
+  // 채팅 완성 호출 결과와 사용량 기록에 필요한 정보
+  private record ChatCall(ChatCompletionRequest request, ChatCompletionResult result, long latencyMs,
+                          boolean replayed) {
+
+  }
+
+  private ChatCall createChatCompletion(String operation, ChatCompletionRequest request, RollingHistogram latency)
+      throws Exception {
+    // 취소된 작업은 재시도/재생성/승격 호출을 더 보내지 않음
+    JobHandle.checkCurrent();
+    long startedAt = System.nanoTime();
+    Optional<ChatCompletionResult> replayed = responseRecorder.replay(request);
+    ChatCompletionResult result;
+    if (replayed.isPresent()) {
+      result = replayed.get();
+    } else {
+      // 마감 전에 끝나지 않을 호출은 속도 제어 예산을 쓰기 전에 포기
+      requireTimeForCurrentJob(operation, latency);
+      // OpenAI 장애 중이면 속도 제어 대기열에 들어가기 전에 즉시 실패
+      circuitBreaker.checkPermission();
+      int estimatedTokens = rateGovernor.estimateTokens(request);
+      try {
+        // 헤지 요청도 각자 속도 제어 예산을 사용
+        result = requestHedger.execute(
+            () -> rateGovernor.execute(estimatedTokens,
+                () -> circuitBreaker.execute(() -> openAiClient.createChatCompletion(request)),
+                completion -> completion.getUsage() != null ? completion.getUsage().getTotalTokens() : -1),
+            latency,
+            completion -> completion.getUsage() != null ? completion.getUsage().getPromptTokens() : -1);
+      } catch (Exception e) {
+        // 실패한 호출도 지연 시간과 함께 사용량 로그에 남김 (서킷 차단으로 즉시 거절된 경우는 제외)
+        if (!(e instanceof OpenAICircuitBreaker.CircuitOpenException)) {
+          recordUsageRecord(usageRecord(operation, request.getModel(), 0, 0, false,
+              (System.nanoTime() - startedAt) / 1_000_000, false, e.getClass().getSimpleName()));
+        }
+        throw e;
+      }
+      responseRecorder.record(request, result);
+    }
+    long elapsedMs = (System.nanoTime() - startedAt) / 1_000_000;
+    latency.record(elapsedMs);
+    log.info("OpenAI 응답 수신 소요 시간: {}ms (p50={}ms, p99={}ms)",
+        elapsedMs, latency.percentile(0.50), latency.percentile(0.99));
+    if (result != null && result.getUsage() != null) {
+      Usage usage = result.getUsage();
+      totalPromptTokens.addAndGet(usage.getPromptTokens());
+      totalCompletionTokens.addAndGet(usage.getCompletionTokens());
+      usageReportedCalls.incrementAndGet();
+      log.info("OpenAI 토큰 사용량: prompt={}, completion={}, total={} (프롬프트 버전: {})",
+          usage.getPromptTokens(), usage.getCompletionTokens(), usage.getTotalTokens(),
+          currentPromptVersion());
+    }
+    return new ChatCall(request, result, elapsedMs, replayed.isPresent());
+  }
+
+  /**
+   * 관측된 응답 길이 분포로 줄인 max_tokens로 호출하고, 응답이 잘리면(finish_reason=length) 원래 상한으로 한 번 더 호출합니다.
+   * 잘린 응답은 사용량 로그에 남긴 뒤 버립니다.
+   *
+   * @param tips 이 호출로 생성할 팁 수
+   */
+  private ChatCall createAdaptiveChatCompletion(String operation, ChatCompletionRequest request, int tips,
+      RollingHistogram latency) throws Exception {
+    String promptVersion = currentPromptVersion();
+    int ceiling = request.getMaxTokens();
+    int limit = adaptiveMaxTokensService.maxTokensFor(request.getModel(), promptVersion, ceiling, tips);
+    request.setMaxTokens(limit);
+    ChatCall call = createChatCompletion(operation, request, latency);
+    if (limit < ceiling && AdaptiveMaxTokensService.FINISH_REASON_LENGTH.equals(finishReason(call))) {
+      log.warn("max_tokens {}에서 응답이 잘렸습니다. 상한 {}로 다시 요청합니다.", limit, ceiling);
+      recordUsage(operation, call, false);
+      Usage truncatedUsage = call.result().getUsage();
+      if (!call.replayed() && truncatedUsage != null) {
+        adaptiveMaxTokensService.recordTruncation(request.getModel(), truncatedUsage.getPromptTokens(),
+            truncatedUsage.getCompletionTokens(), call.latencyMs());
+      }
+      request.setMaxTokens(ceiling);
+      call = createChatCompletion(operation, request, latency);
+    }
+    if (!call.replayed()) {
+      adaptiveMaxTokensService.recordLatency(limit < ceiling, call.latencyMs());
+      Usage usage = call.result() != null ? call.result().getUsage() : null;
+      // 팁 1개짜리 정상 종료 응답만 분포에 반영 (배치 응답 길이는 팁 수와 형식에 따라 달라짐)
+      if (tips == 1 && usage != null && !AdaptiveMaxTokensService.FINISH_REASON_LENGTH.equals(finishReason(call))) {
+        adaptiveMaxTokensService.recordCompletion(request.getModel(), promptVersion, usage.getCompletionTokens());
+      }
+    }
+    return call;
+  }
+
+  private String finishReason(ChatCall call) {
+    ChatCompletionResult result = call.result();
+    if (result == null || result.getChoices() == null || result.getChoices().isEmpty()) {
+      return null;
+    }
+    return result.getChoices().get(0).getFinishReason();
+  }
+
+  // 재생(replay)된 응답은 실제 비용이 발생하지 않으므로 사용량 로그에서 제외
+  private void recordUsage(String operation, ChatCall call, boolean parseSuccess) {
+    if (call.replayed()) {
+      return;
+    }
+    ChatCompletionResult result = call.result();
+    Usage usage = result != null ? result.getUsage() : null;
+    String model = result != null && result.getModel() != null ? result.getModel() : call.request().getModel();
+    if (usage != null) {
+      tokenBudgetService.recordCalibration(tokenBudgetService.countPrompt(call.request()), usage.getPromptTokens());
+    }
+    // usage가 없으면 스트리밍과 마찬가지로 로컬 토크나이저로 계산하고 추정값으로 표시
+    OpenAIUsageRecord usageRecord = usageRecord(operation, model,
+        usage != null ? usage.getPromptTokens() : tokenBudgetService.countPrompt(call.request()),
+        usage != null ? usage.getCompletionTokens() : tokenBudgetService.countText(model, responseText(result)),
+        usage == null, call.latencyMs(), parseSuccess, null);
+    usageRecord.setFinishReason(finishReason(call));
+    recordUsageRecord(usageRecord);
+  }
+
+  private String responseText(ChatCompletionResult result) {
+    if (result == null || result.getChoices() == null || result.getChoices().isEmpty()
+        || result.getChoices().get(0).getMessage() == null) {
+      return "";
+    }
+    String content = result.getChoices().get(0).getMessage().getContent();
+    return content != null ? content : "";
+  }
+
+  // 스트리밍 응답은 usage를 제공하지 않으므로 로컬 토크나이저로 계산한 값을 기록
+  private void recordStreamUsage(ChatCompletionRequest request, String response, long latencyMs,
+      boolean parseSuccess, String error) {
+    recordUsageRecord(usageRecord("stream", request.getModel(), tokenBudgetService.countPrompt(request),
+        tokenBudgetService.countText(request.getModel(), response), true, latencyMs, parseSuccess, error));
+  }
+
+  private OpenAIUsageRecord usageRecord(String operation, String model, long promptTokens, long completionTokens,
+      boolean tokensEstimated, long latencyMs, boolean parseSuccess, String error) {
+    return OpenAIUsageRecord.builder()
+        .timestamp(System.currentTimeMillis())
+        .operation(operation)
+        .model(model)
+        .promptVersion(currentPromptVersion())
+        .promptVariant(currentVariantName())
+        .promptTokens(promptTokens)
+        .completionTokens(completionTokens)
+        .tokensEstimated(tokensEstimated)
+        .latencyMs(latencyMs)
+        .parseSuccess(parseSuccess)
+        .error(error)
+        .build();
+  }
+
+  private boolean isErrorContent(VideoCreationContent content) {
+    return content == null || content.getDailyTipTitle() == null || content.getDailyTipTitle().startsWith("Error");
+  }
+
+  private boolean isCurrentJobCancelled() {
+    JobHandle job = JobHandle.current();
+    return job != null && job.isCancelled();
+  }
+
+  private VideoCreationContent cancelledContent() {
+    return new VideoCreationContent("Error", "Task cancelled.", "Error: Task was cancelled.",
+        "Error: Task was cancelled.");
+  }
+
+  /**
+   * 현재 작업의 남은 시간이 이 호출의 p50 지연 시간보다 짧으면 DeadlineExceededException을 던집니다.
+   * 어차피 마감 전에 끝나지 못할 호출로 토큰과 속도 제어 예산을 쓰지 않기 위함입니다.
+   */
+  private void requireTimeForCurrentJob(String operation, RollingHistogram latency) {
+    JobHandle job = JobHandle.current();
+    if (job != null) {
+      job.getDeadline().require(Duration.ofMillis(Math.max(0, latency.percentile(0.50))), "openai_" + operation);
+    }
+  }
+
+  private VideoCreationContent deadlineExceededContent() {
+    return new VideoCreationContent("Error", "Task deadline exceeded.", "Error: Task deadline exceeded.",
+        "Error: Task deadline exceeded.");
+  }
+
+  private VideoCreationContent qualityRejectedContent(ContentQualityGate.Review review) {
+    String message = "Error: Generated content did not pass the pre-render quality gate (" + review.failure()
+        + "). Please try again.";
+    return new VideoCreationContent("Error", "Quality gate rejected.", message, message);
+  }
+
+  private VideoCreationContent circuitOpenContent(OpenAICircuitBreaker.CircuitOpenException e) {
+    String message = "Error: OpenAI is temporarily unavailable (circuit breaker open). Please retry in about "
+        + e.getRetryAfterSeconds() + " seconds.";
+    return new VideoCreationContent("Error", "OpenAI circuit breaker open.", message, message);
+  }
+
   private VideoCreationContent parseOpenAIResponse(String rawJsonResponse) {
     try {
       log.debug("ObjectMapper로 JSON 응답 파싱 시도..."); // rawJsonResponse 로깅은 이전 단계에서 하므로 여기선 생략 가능
-      return objectMapper.readValue(rawJsonResponse, VideoCreationContent.class);
+      // 코드 펜스, 후행 쉼표 등 흔한 형식 오류는 재생성 없이 로컬에서 복구
+      return jsonResponseRepairer.readValue(rawJsonResponse, VideoCreationContent.class);
     } catch (JsonProcessingException e) {
       log.error("OpenAI JSON 응답 파싱 중 오류: {}. 원본 응답: {}", e.getMessage(), rawJsonResponse, e);
       // 파싱 실패 시 오류 정보를 포함한 객체 반환하여 원인 파악 용이하게
@@ -178,4 +1357,71 @@ public class OpenAIService {
       );
     }
   }
-}
\ No newline at end of file
+
+  public Map<String, Object> getPromptMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    MasterPromptTemplate template = masterPromptService.current();
+    metrics.put("prompt_version", template != null ? template.getVersion() : null);
+    metrics.put("static_prefix_chars", template != null ? template.getStaticPrefix().length() : 0);
+    long calls = usageReportedCalls.get();
+    metrics.put("calls_with_usage", calls);
+    metrics.put("total_prompt_tokens", totalPromptTokens.get());
+    metrics.put("total_completion_tokens", totalCompletionTokens.get());
+    metrics.put("avg_prompt_tokens", calls == 0 ? 0 : totalPromptTokens.get() / calls);
+    metrics.put("avg_completion_tokens", calls == 0 ? 0 : totalCompletionTokens.get() / calls);
+    metrics.put("duplicate_regenerations", duplicateRegenerations.get());
+    metrics.put("duplicate_rejections", duplicateRejections.get());
+    metrics.put("master_prompt", masterPromptService.getStatus());
+    return metrics;
+  }
+
+  /**
+   * 현재 프롬프트 구성의 구간별 토큰 수를 로컬 토크나이저로 계산합니다 (API 호출 없음, 로테이션 상태 변경 없음).
+   */
+  public Map<String, Object> getPromptTokenReport() {
+    String model = apiConfig.getOpenaiModel();
+    Map<String, Object> report = new LinkedHashMap<>();
+    report.put("model", model);
+    report.put("encoding", tokenBudgetService.encodingFor(model).getName());
+    report.put("context_window", tokenBudgetService.getConfig().findContextWindow(model));
+    MasterPromptTemplate template = masterPromptService.current();
+    if (template == null) {
+      report.put("error", "Master prompt is not loaded.");
+      return report;
+    }
+    report.put("prompt_version", template.getVersion());
+    report.put("static_prefix_tokens", tokenBudgetService.countText(model, template.getStaticPrefix()));
+    List<String> categories = categoryRotationScheduler.peekNextCategories(1);
+    String dynamicSection = categories.isEmpty() ? null : buildCategoryAssignment(categories);
+    String fullPrompt = buildFullPrompt(template, categories);
+    report.put("dynamic_section", categories.isEmpty() ? "previous_tips" : "category_assignment");
+    report.put("dynamic_section_tokens", tokenBudgetService.countText(model,
+        dynamicSection != null ? dynamicSection : fullPrompt.substring(template.getStaticPrefix().length())));
+    int promptTokens = tokenBudgetService.countMessages(model, List.of(new ChatMessage("user", fullPrompt)));
+    report.put("prompt_tokens", promptTokens);
+    try {
+      report.put("max_tokens", tokenBudgetService.completionTokens(model, promptTokens));
+    } catch (IllegalStateException e) {
+      report.put("max_tokens", 0);
+      report.put("error", e.getMessage());
+    }
+    report.put("calibration", tokenBudgetService.getCalibration());
+    return report;
+  }
+
+  public RollingHistogram getGenerationLatency() {
+    return generationLatency;
+  }
+
+  public RollingHistogram getBatchLatency() {
+    return batchLatency;
+  }
+
+  public RollingHistogram getStreamFirstTokenLatency() {
+    return streamFirstTokenLatency;
+  }
+
+  public RollingHistogram getStreamFirstFieldLatency() {
+    return streamFirstFieldLatency;
+  }
+}
@@ -0,0 +1,206 @@
+package com.shortscreator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shortscreator.config.OpenAIPricingConfig;
+import com.shortscreator.model.OpenAIUsageRecord;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * OpenAI 호출별 토큰 사용량, 지연 시간, 파싱 성공 여부, 추정 비용을 기록합니다.
+ * 모든 기록은 append-only JSONL 로그에 남고, 메모리에는 일자별/모델별 집계와 모델별 지연 시간 히스토그램을 유지합니다.
+ */
+@Slf4j
+@Service
+public class OpenAIUsageService {
+
+  private final ObjectMapper objectMapper;
+  private final OpenAIPricingConfig pricingConfig;
+  private final String usageLogFilePath;
+
+  // 일자 -> 모델 -> 집계
+  private final Map<LocalDate, Map<String, UsageAggregate>> dailyAggregates = new TreeMap<>();
+  private final Map<String, UsageAggregate> modelAggregates = new TreeMap<>();
+  private final Map<String, RollingHistogram> modelLatency = new ConcurrentHashMap<>();
+
+  public OpenAIUsageService(ObjectMapper objectMapper, OpenAIPricingConfig pricingConfig,
+      @Value("${openai.usage.log_filepath:openai_usage_log.jsonl}") String usageLogFilePath) {
+    this.objectMapper = objectMapper;
+    this.pricingConfig = pricingConfig;
+    this.usageLogFilePath = usageLogFilePath;
+  }
+
+  @PostConstruct
+  public void initialize() {
+    loadFromLog();
+  }
+
+  private synchronized void loadFromLog() {
+    int loaded = readLog(this::aggregate);
+    if (loaded >= 0) {
+      log.info("OpenAI 사용량 로그에서 {}건을 집계했습니다. 경로: {}", loaded, usageLogFilePath);
+    }
+  }
+
+  /**
+   * 사용량 로그의 모든 기록을 순서대로 전달합니다. 손상된 라인은 건너뜁니다.
+   *
+   * @return 읽은 기록 수. 로그 파일이 없거나 읽지 못했으면 -1
+   */
+  public int readLog(Consumer<OpenAIUsageRecord> consumer) {
+    File logFile = new File(usageLogFilePath);
+    if (!logFile.exists() || logFile.length() == 0) {
+      log.info("OpenAI 사용량 로그({})가 없거나 비어있습니다.", usageLogFilePath);
+      return -1;
+    }
+    int loaded = 0;
+    try (BufferedReader reader = Files.newBufferedReader(logFile.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          consumer.accept(objectMapper.readValue(line, OpenAIUsageRecord.class));
+          loaded++;
+        } catch (IOException e) {
+          log.warn("손상된 사용량 로그 라인을 건너뜁니다: {}", e.getMessage());
+        }
+      }
+      return loaded;
+    } catch (IOException e) {
+      log.error("OpenAI 사용량 로그({}) 로드 중 오류 발생: {}", usageLogFilePath, e.getMessage(), e);
+      return -1;
+    }
+  }
+
+  /**
+   * 호출 1건을 기록합니다. 비용은 모델 단가 설정으로 계산합니다.
+   */
+  public void record(OpenAIUsageRecord usageRecord) {
+    usageRecord.setEstimatedCostUsd(estimateCost(usageRecord.getModel(),
+        usageRecord.getPromptTokens(), usageRecord.getCompletionTokens()));
+    modelLatency.computeIfAbsent(usageRecord.getModel(), model -> new RollingHistogram(500))
+        .record(usageRecord.getLatencyMs());
+    synchronized (this) {
+      aggregate(usageRecord);
+      appendToLog(usageRecord);
+    }
+    log.debug("OpenAI 사용량 기록: {}", usageRecord);
+  }
+
+  public double estimateCost(String model, long promptTokens, long completionTokens) {
+    OpenAIPricingConfig.ModelPrice price = pricingConfig.findPrice(model);
+    if (price == null) {
+      return 0;
+    }
+    return (promptTokens * price.getInputPerMillion() + completionTokens * price.getOutputPerMillion()) / 1_000_000.0;
+  }
+
+  private void aggregate(OpenAIUsageRecord usageRecord) {
+    LocalDate day = Instant.ofEpochMilli(usageRecord.getTimestamp()).atZone(ZoneId.systemDefault()).toLocalDate();
+    String model = usageRecord.getModel() != null ? usageRecord.getModel() : "unknown";
+    dailyAggregates.computeIfAbsent(day, d -> new TreeMap<>())
+        .computeIfAbsent(model, m -> new UsageAggregate()).add(usageRecord);
+    modelAggregates.computeIfAbsent(model, m -> new UsageAggregate()).add(usageRecord);
+  }
+
+  private void appendToLog(OpenAIUsageRecord usageRecord) {
+    File logFile = new File(usageLogFilePath);
+    File parentDir = logFile.getParentFile();
+    if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+      log.error("사용량 로그 디렉토리 생성 실패: {}", parentDir.getAbsolutePath());
+    }
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(logFile, true), StandardCharsets.UTF_8)) {
+      writer.write(objectMapper.writeValueAsString(usageRecord));
+      writer.write('\n');
+    } catch (IOException e) {
+      log.error("OpenAI 사용량 로그({}) 기록 중 오류 발생: {}", usageLogFilePath, e.getMessage(), e);
+    }
+  }
+
+  /**
+   * 최근 days일간의 일자별/모델별 집계와 모델별 누적 집계를 반환합니다.
+   */
+  public synchronized Map<String, Object> getUsageSummary(int days) {
+    LocalDate from = LocalDate.now().minusDays(Math.max(0, days - 1L));
+    Map<String, Object> byDay = new LinkedHashMap<>();
+    dailyAggregates.forEach((day, models) -> {
+      if (!day.isBefore(from)) {
+        Map<String, Object> byModel = new LinkedHashMap<>();
+        models.forEach((model, aggregate) -> byModel.put(model, aggregate.toMap()));
+        byDay.put(day.toString(), byModel);
+      }
+    });
+    Map<String, Object> byModel = new LinkedHashMap<>();
+    modelAggregates.forEach((model, aggregate) -> {
+      Map<String, Object> summary = aggregate.toMap();
+      RollingHistogram latency = modelLatency.get(model);
+      if (latency != null) {
+        summary.put("recent_latency_ms", latency.snapshot());
+      }
+      byModel.put(model, summary);
+    });
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("by_day", byDay);
+    summary.put("by_model", byModel);
+    summary.put("log_file", new File(usageLogFilePath).getAbsolutePath());
+    return summary;
+  }
+
+  private static class UsageAggregate {
+
+    private long calls;
+    private long failedCalls;
+    private long parseFailures;
+    private long promptTokens;
+    private long completionTokens;
+    private long totalLatencyMs;
+    private double costUsd;
+
+    void add(OpenAIUsageRecord usageRecord) {
+      calls++;
+      if (usageRecord.getError() != null) {
+        failedCalls++;
+      } else if (!usageRecord.isParseSuccess()) {
+        parseFailures++;
+      }
+      promptTokens += usageRecord.getPromptTokens();
+      completionTokens += usageRecord.getCompletionTokens();
+      totalLatencyMs += usageRecord.getLatencyMs();
+      costUsd += usageRecord.getEstimatedCostUsd();
+    }
+
+    Map<String, Object> toMap() {
+      Map<String, Object> map = new LinkedHashMap<>();
+      map.put("calls", calls);
+      map.put("failed_calls", failedCalls);
+      map.put("parse_failures", parseFailures);
+      map.put("prompt_tokens", promptTokens);
+      map.put("completion_tokens", completionTokens);
+      map.put("avg_prompt_tokens", calls == 0 ? 0 : promptTokens / calls);
+      map.put("avg_completion_tokens", calls == 0 ? 0 : completionTokens / calls);
+      map.put("avg_latency_ms", calls == 0 ? 0 : totalLatencyMs / calls);
+      map.put("estimated_cost_usd", Math.round(costUsd * 1_000_000) / 1_000_000.0);
+      return map;
+    }
+  }
+}
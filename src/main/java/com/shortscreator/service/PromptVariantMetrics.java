@@ -0,0 +1,180 @@
+package com.shortscreator.service;
+
+import com.shortscreator.config.PromptVariantConfig;
+import com.shortscreator.model.OpenAIUsageRecord;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 프롬프트 변형별 지표 (호출 지연 시간, 토큰, 비용, JSON 파싱 실패율, 근접 중복률, 품질 게이트 실패율).
+ * 비교 결과에서 품질 지표가 control보다 나빠지지 않은 변형 중 팁 하나당 비용이 가장 낮은 변형과 가장 빠른 변형을 추천합니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class PromptVariantMetrics {
+
+  private final PromptVariantConfig config;
+
+  private final Map<String, VariantStats> stats = new ConcurrentHashMap<>();
+
+  private static final class VariantStats {
+
+    private final RollingHistogram latency = new RollingHistogram(500);
+    private final AtomicLong calls = new AtomicLong();
+    private final AtomicLong promptTokens = new AtomicLong();
+    private final AtomicLong completionTokens = new AtomicLong();
+    private final DoubleAdder costUsd = new DoubleAdder();
+    private final AtomicLong parseFailures = new AtomicLong();
+    private final AtomicLong dedupChecks = new AtomicLong();
+    private final AtomicLong duplicates = new AtomicLong();
+    private final AtomicLong qualityReviews = new AtomicLong();
+    private final AtomicLong qualityFailures = new AtomicLong();
+    private final AtomicLong acceptedTips = new AtomicLong();
+  }
+
+  private VariantStats statsFor(String variant) {
+    return stats.computeIfAbsent(variant, name -> new VariantStats());
+  }
+
+  /**
+   * OpenAI 호출 하나를 기록합니다 (OpenAIUsageService가 비용을 채운 뒤의 사용량 기록).
+   */
+  public void recordCall(String variant, OpenAIUsageRecord usageRecord) {
+    VariantStats variantStats = statsFor(variant);
+    variantStats.calls.incrementAndGet();
+    variantStats.latency.record(usageRecord.getLatencyMs());
+    variantStats.promptTokens.addAndGet(usageRecord.getPromptTokens());
+    variantStats.completionTokens.addAndGet(usageRecord.getCompletionTokens());
+    variantStats.costUsd.add(usageRecord.getEstimatedCostUsd());
+    if (!usageRecord.isParseSuccess()) {
+      variantStats.parseFailures.incrementAndGet();
+    }
+  }
+
+  public void recordDedupCheck(String variant, boolean duplicate) {
+    VariantStats variantStats = statsFor(variant);
+    variantStats.dedupChecks.incrementAndGet();
+    if (duplicate) {
+      variantStats.duplicates.incrementAndGet();
+    }
+  }
+
+  public void recordQualityReview(String variant, boolean passed) {
+    VariantStats variantStats = statsFor(variant);
+    variantStats.qualityReviews.incrementAndGet();
+    if (!passed) {
+      variantStats.qualityFailures.incrementAndGet();
+    }
+  }
+
+  public void recordAcceptedTips(String variant, int tips) {
+    statsFor(variant).acceptedTips.addAndGet(tips);
+  }
+
+  /**
+   * 변형별 지표와 추천 결과.
+   *
+   * @param variants MasterPromptService.getVariants() (설정 순서, 가중치, 현재 버전)
+   * @param controlName 품질 지표 비교 기준 변형
+   */
+  public Map<String, Object> compare(List<Map<String, Object>> variants, String controlName) {
+    Map<String, Map<String, Object>> rows = new LinkedHashMap<>();
+    for (Map<String, Object> variant : variants) {
+      String name = (String) variant.get("name");
+      Map<String, Object> row = new LinkedHashMap<>(variant);
+      row.putAll(summarize(stats.getOrDefault(name, new VariantStats())));
+      rows.put(name, row);
+    }
+    // 설정에서 빠졌지만 지표가 남아 있는 변형도 표시
+    stats.forEach((name, variantStats) -> rows.computeIfAbsent(name, key -> {
+      Map<String, Object> row = new LinkedHashMap<>();
+      row.put("name", key);
+      row.putAll(summarize(variantStats));
+      return row;
+    }));
+
+    Map<String, Object> control = rows.get(controlName);
+    List<Map<String, Object>> eligible = new ArrayList<>();
+    for (Map<String, Object> row : rows.values()) {
+      String reason = ineligibility(row, control);
+      row.put("eligible", reason == null);
+      if (reason != null) {
+        row.put("ineligible_reason", reason);
+      } else {
+        eligible.add(row);
+      }
+    }
+
+    Map<String, Object> comparison = new LinkedHashMap<>();
+    comparison.put("control", controlName);
+    comparison.put("min_samples", config.getMinSamples());
+    comparison.put("max_rate_increase", config.getMaxRateIncrease());
+    comparison.put("variants", new ArrayList<>(rows.values()));
+    comparison.put("cheapest_passing", best(eligible, Comparator.comparingDouble(
+        row -> (double) row.get("cost_per_accepted_tip_usd"))));
+    comparison.put("fastest_passing", best(eligible, Comparator.comparingLong(
+        row -> (long) row.get("latency_p50_ms"))));
+    return comparison;
+  }
+
+  private Map<String, Object> summarize(VariantStats variantStats) {
+    long calls = variantStats.calls.get();
+    long accepted = variantStats.acceptedTips.get();
+    Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("calls", calls);
+    summary.put("accepted_tips", accepted);
+    summary.put("latency_p50_ms", variantStats.latency.percentile(0.50));
+    summary.put("latency_p99_ms", variantStats.latency.percentile(0.99));
+    summary.put("avg_prompt_tokens", calls == 0 ? 0 : variantStats.promptTokens.get() / calls);
+    summary.put("avg_completion_tokens", calls == 0 ? 0 : variantStats.completionTokens.get() / calls);
+    summary.put("total_cost_usd", variantStats.costUsd.sum());
+    // 재생성/승격 호출 비용까지 포함한, 채택된 팁 하나당 비용
+    summary.put("cost_per_accepted_tip_usd", accepted == 0 ? 0.0 : variantStats.costUsd.sum() / accepted);
+    summary.put("parse_failure_rate", rate(variantStats.parseFailures.get(), calls));
+    summary.put("duplicate_rate", rate(variantStats.duplicates.get(), variantStats.dedupChecks.get()));
+    summary.put("quality_gate_failure_rate",
+        rate(variantStats.qualityFailures.get(), variantStats.qualityReviews.get()));
+    return summary;
+  }
+
+  // 추천 대상이 아니면 그 이유
+  private String ineligibility(Map<String, Object> row, Map<String, Object> control) {
+    if ((long) row.get("calls") < config.getMinSamples() || (long) row.get("accepted_tips") == 0) {
+      return "not_enough_samples";
+    }
+    if (control == null || (long) control.get("calls") < config.getMinSamples()) {
+      return "control_not_enough_samples";
+    }
+    for (String metric : List.of("parse_failure_rate", "duplicate_rate", "quality_gate_failure_rate")) {
+      if ((double) row.get(metric) > (double) control.get(metric) + config.getMaxRateIncrease()) {
+        return metric + "_above_control";
+      }
+    }
+    return null;
+  }
+
+  private String best(List<Map<String, Object>> eligible, Comparator<Map<String, Object>> order) {
+    Optional<Map<String, Object>> best = eligible.stream().min(order);
+    return best.map(row -> (String) row.get("name")).orElse(null);
+  }
+
+  private double rate(long count, long total) {
+    return total == 0 ? 0.0 : (double) count / total;
+  }
+
+  public void reset() {
+    stats.clear();
+    log.info("프롬프트 변형 지표를 초기화했습니다.");
+  }
+}
@@ -0,0 +1,73 @@
+package com.shortscreator.service;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 최근 N개의 샘플(지연 시간, 토큰 수 등)을 고정 크기 링 버퍼에 보관하고 백분위수를 계산합니다.
+ */
+public class RollingHistogram {
+
+  private final long[] samples;
+  private int next;
+  private int size;
+  private long totalCount;
+
+  public RollingHistogram(int capacity) {
+    this.samples = new long[capacity];
+  }
+
+  public synchronized void record(long value) {
+    samples[next] = value;
+    next = (next + 1) % samples.length;
+    if (size < samples.length) {
+      size++;
+    }
+    totalCount++;
+  }
+
+  /**
+   * @param percentile 0.0 ~ 1.0 사이의 백분위수 (예: 0.99)
+   * @return 해당 백분위수 값. 샘플이 없으면 -1
+   */
+  public synchronized long percentile(double percentile) {
+    if (size == 0) {
+      return -1;
+    }
+    long[] sorted = Arrays.copyOf(samples, size);
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(percentile * size) - 1;
+    return sorted[Math.max(0, Math.min(size - 1, index))];
+  }
+
+  public synchronized int size() {
+    return size;
+  }
+
+  public synchronized long totalCount() {
+    return totalCount;
+  }
+
+  public synchronized double mean() {
+    if (size == 0) {
+      return 0;
+    }
+    long sum = 0;
+    for (int i = 0; i < size; i++) {
+      sum += samples[i];
+    }
+    return (double) sum / size;
+  }
+
+  public Map<String, Object> snapshot() {
+    Map<String, Object> snapshot = new LinkedHashMap<>();
+    snapshot.put("count", totalCount());
+    snapshot.put("window", size());
+    snapshot.put("mean", Math.round(mean()));
+    snapshot.put("p50", percentile(0.50));
+    snapshot.put("p90", percentile(0.90));
+    snapshot.put("p99", percentile(0.99));
+    return snapshot;
+  }
+}
@@ -0,0 +1,158 @@
+package com.shortscreator.service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 지금까지 생성된 모든 daily_tip_script의 SimHash 지문을 보관합니다.
+ * 제목만 바꿔 같은 조언을 반복하는 스크립트를 잡기 위한 것으로, 지문은 8바이트씩 바이너리 파일에 추가 기록됩니다.
+ */
+@Slf4j
+@Service
+public class ScriptFingerprintService {
+
+  @Value("${openai.script_fingerprint.enabled:true}")
+  private boolean enabled;
+
+  @Value("${openai.script_fingerprint.filepath:script_fingerprints.bin}")
+  private String fingerprintFilePath;
+
+  @Value("${openai.script_fingerprint.shingle_size:4}")
+  private int shingleSize;
+
+  // 해밍 거리 임계값 (0~7). 값 + 1개의 블록 테이블을 사용
+  @Value("${openai.script_fingerprint.max_distance:6}")
+  private int maxDistance;
+
+  private SimHashIndex index;
+
+  private final RollingHistogram lookupMicros = new RollingHistogram(500);
+  private final AtomicLong lookups = new AtomicLong();
+  private final AtomicLong nearDuplicates = new AtomicLong();
+
+  public record ScriptMatch(long fingerprint, long matchedFingerprint, int distance, int position) {
+
+  }
+
+  @PostConstruct
+  public void initialize() {
+    if (maxDistance > SimHashIndex.MAX_SUPPORTED_DISTANCE) {
+      log.warn("script_fingerprint.max_distance({})가 지원 범위를 넘어 {}로 제한합니다.",
+          maxDistance, SimHashIndex.MAX_SUPPORTED_DISTANCE);
+      maxDistance = SimHashIndex.MAX_SUPPORTED_DISTANCE;
+    }
+    index = new SimHashIndex(shingleSize, Math.max(0, maxDistance));
+    loadFromFile();
+  }
+
+  private synchronized void loadFromFile() {
+    File fingerprintFile = new File(fingerprintFilePath);
+    if (!fingerprintFile.exists() || fingerprintFile.length() == 0) {
+      log.info("스크립트 지문 파일({})이 없거나 비어있습니다. 새 저장소로 시작합니다.", fingerprintFilePath);
+      return;
+    }
+    long count = fingerprintFile.length() / Long.BYTES;
+    try (DataInputStream input = new DataInputStream(new BufferedInputStream(new FileInputStream(fingerprintFile)))) {
+      for (long i = 0; i < count; i++) {
+        index.add(input.readLong());
+      }
+      log.info("스크립트 지문 {}개 로드 완료. 경로: {}, 힙 사용량 약 {}KB",
+          index.size(), fingerprintFilePath, index.estimatedHeapBytes() / 1024);
+    } catch (EOFException e) {
+      log.warn("스크립트 지문 파일 끝이 잘려 있습니다. {}개까지 로드했습니다.", index.size());
+    } catch (IOException e) {
+      log.error("스크립트 지문 파일({}) 로드 중 오류 발생: {}", fingerprintFilePath, e.getMessage(), e);
+    }
+  }
+
+  /**
+   * 스크립트가 저장된 지문과 해밍 거리 임계값 이내인지 확인합니다.
+   *
+   * @return 가장 가까운 지문 정보. 없으면 null
+   */
+  public ScriptMatch findNearDuplicate(String script) {
+    if (script == null || script.isBlank()) {
+      return null;
+    }
+    return findNearDuplicate(index.fingerprint(script));
+  }
+
+  /**
+   * 이미 계산한 지문으로 근접 중복을 확인합니다. 확인 후 register(fingerprint)로 같은 지문을 등록할 수 있습니다.
+   *
+   * @return 가장 가까운 지문 정보. 없으면 null
+   */
+  public ScriptMatch findNearDuplicate(long fingerprint) {
+    long startedAt = System.nanoTime();
+    lookups.incrementAndGet();
+    try {
+      SimHashIndex.Match match = index.findNearest(fingerprint);
+      if (match == null) {
+        return null;
+      }
+      nearDuplicates.incrementAndGet();
+      return new ScriptMatch(fingerprint, match.fingerprint(), match.distance(), match.position());
+    } finally {
+      lookupMicros.record((System.nanoTime() - startedAt) / 1_000);
+    }
+  }
+
+  /**
+   * findNearDuplicate(long)로 이미 확인한 지문을 중복 검사 없이 등록합니다.
+   */
+  public synchronized void register(long fingerprint) {
+    if (!enabled) {
+      return;
+    }
+    index.add(fingerprint);
+    appendToFile(fingerprint);
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  public long fingerprint(String script) {
+    return index.fingerprint(script);
+  }
+
+  private void appendToFile(long fingerprint) {
+    File fingerprintFile = new File(fingerprintFilePath);
+    File parentDir = fingerprintFile.getParentFile();
+    if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+      log.error("스크립트 지문 디렉토리 생성 실패: {}", parentDir.getAbsolutePath());
+    }
+    try (DataOutputStream output = new DataOutputStream(
+        new BufferedOutputStream(new FileOutputStream(fingerprintFile, true)))) {
+      output.writeLong(fingerprint);
+    } catch (IOException e) {
+      log.error("스크립트 지문 파일({}) 기록 중 오류 발생: {}", fingerprintFilePath, e.getMessage(), e);
+    }
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", enabled);
+    metrics.put("fingerprints", index.size());
+    metrics.put("max_distance", maxDistance);
+    metrics.put("estimated_heap_kb", index.estimatedHeapBytes() / 1024);
+    metrics.put("lookups", lookups.get());
+    metrics.put("near_duplicates", nearDuplicates.get());
+    metrics.put("lookup_micros", lookupMicros.snapshot());
+    return metrics;
+  }
+}
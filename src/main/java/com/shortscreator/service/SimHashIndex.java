@@ -0,0 +1,161 @@
+package com.shortscreator.service;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 64비트 SimHash 지문을 원시 long[] 배열에 저장하고 해밍 거리로 근접 중복을 찾는 저장소.
+ * 지문을 (maxDistance + 1)개(최소 4개, 블록당 최대 16비트)의 비트 블록으로 나누어 블록별 테이블(head/next 체인)에 색인합니다.
+ * 해밍 거리가 maxDistance 이하인 두 지문은 비둘기집 원리에 따라 최소 한 블록이 정확히 같으므로,
+ * 각 테이블의 해당 버킷만 확인하면 누락 없이 찾을 수 있습니다. 항목당 메모리는 8 + 4 * 블록 수 바이트입니다.
+ */
+public class SimHashIndex {
+
+  // 블록이 너무 작아지면 버킷당 후보가 많아져 조회가 느려짐 (8블록 = 8비트)
+  public static final int MAX_SUPPORTED_DISTANCE = 7;
+
+  private final int shingleSize;
+  private final int maxDistance;
+  private final int blocks;
+  private final int[] blockShift;
+  private final long[] blockMask;
+
+  private long[] fingerprints = new long[1024];
+  private final int[][] heads;
+  private final int[][] next;
+  private int size;
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  public record Match(int position, long fingerprint, int distance) {
+
+  }
+
+  public SimHashIndex(int shingleSize, int maxDistance) {
+    if (maxDistance < 0 || maxDistance > MAX_SUPPORTED_DISTANCE) {
+      throw new IllegalArgumentException("maxDistance must be between 0 and " + MAX_SUPPORTED_DISTANCE);
+    }
+    this.shingleSize = Math.max(1, shingleSize);
+    this.maxDistance = maxDistance;
+    this.blocks = Math.max(4, maxDistance + 1);
+    this.blockShift = new int[blocks];
+    this.blockMask = new long[blocks];
+    this.heads = new int[blocks][];
+    this.next = new int[blocks][1024];
+    int shift = 0;
+    for (int block = 0; block < blocks; block++) {
+      // 64비트를 가능한 한 균등하게 분할 (앞쪽 블록이 1비트씩 더 가짐)
+      int bits = 64 / blocks + (block < 64 % blocks ? 1 : 0);
+      blockShift[block] = shift;
+      blockMask[block] = (1L << bits) - 1;
+      heads[block] = new int[1 << bits];
+      Arrays.fill(heads[block], -1);
+      shift += bits;
+    }
+  }
+
+  /**
+   * 문자 shingle 가중치로 64비트 SimHash 지문을 계산합니다. 대소문자, 공백, 문장부호는 무시합니다.
+   */
+  public long fingerprint(String text) {
+    String normalized = MinHashLshIndex.normalize(text);
+    if (normalized.isEmpty()) {
+      return 0L;
+    }
+    int[] weights = new int[64];
+    int shingleCount = Math.max(1, normalized.length() - shingleSize + 1);
+    for (int start = 0; start < shingleCount; start++) {
+      long hash = MinHashLshIndex.shingleHash(normalized, start, Math.min(normalized.length(), start + shingleSize));
+      for (int bit = 0; bit < 64; bit++) {
+        weights[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+      }
+    }
+    long fingerprint = 0L;
+    for (int bit = 0; bit < 64; bit++) {
+      if (weights[bit] > 0) {
+        fingerprint |= 1L << bit;
+      }
+    }
+    return fingerprint;
+  }
+
+  public void add(long fingerprint) {
+    lock.writeLock().lock();
+    try {
+      if (size == fingerprints.length) {
+        int capacity = fingerprints.length * 2;
+        fingerprints = Arrays.copyOf(fingerprints, capacity);
+        for (int block = 0; block < blocks; block++) {
+          next[block] = Arrays.copyOf(next[block], capacity);
+        }
+      }
+      int position = size++;
+      fingerprints[position] = fingerprint;
+      for (int block = 0; block < blocks; block++) {
+        int key = blockKey(fingerprint, block);
+        next[block][position] = heads[block][key];
+        heads[block][key] = position;
+      }
+    } finally {
+      lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * 해밍 거리가 maxDistance 이하인 지문 중 가장 가까운 항목을 찾습니다.
+   *
+   * @return 없으면 null
+   */
+  public Match findNearest(long fingerprint) {
+    lock.readLock().lock();
+    try {
+      int bestPosition = -1;
+      int bestDistance = Integer.MAX_VALUE;
+      for (int block = 0; block < blocks; block++) {
+        for (int position = heads[block][blockKey(fingerprint, block)]; position >= 0;
+            position = next[block][position]) {
+          int distance = Long.bitCount(fingerprints[position] ^ fingerprint);
+          if (distance < bestDistance) {
+            bestDistance = distance;
+            bestPosition = position;
+            if (distance == 0) {
+              return new Match(position, fingerprints[position], 0);
+            }
+          }
+        }
+      }
+      if (bestPosition < 0 || bestDistance > maxDistance) {
+        return null;
+      }
+      return new Match(bestPosition, fingerprints[bestPosition], bestDistance);
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  public int size() {
+    lock.readLock().lock();
+    try {
+      return size;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  // 지문 배열, 블록 테이블, 체인 배열의 대략적인 힙 사용량
+  public long estimatedHeapBytes() {
+    lock.readLock().lock();
+    try {
+      long bytes = (long) fingerprints.length * Long.BYTES;
+      for (int block = 0; block < blocks; block++) {
+        bytes += (long) (heads[block].length + next[block].length) * Integer.BYTES;
+      }
+      return bytes;
+    } finally {
+      lock.readLock().unlock();
+    }
+  }
+
+  private int blockKey(long fingerprint, int block) {
+    return (int) ((fingerprint >>> blockShift[block]) & blockMask[block]);
+  }
+}
@@ -0,0 +1,187 @@
+package com.shortscreator.service;
+
+import com.shortscreator.model.VideoCreationContent;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * 미리 생성해 둔 팁 콘텐츠 풀.
+ * 풀의 크기(진행 중인 생성 포함)가 low watermark 이하로 떨어지면 high watermark까지 비동기로 채웁니다.
+ * 꺼낼 때 오래된 항목과 이미 사용된 팁과 유사한 항목은 버립니다.
+ * 풀의 팁은 꺼낼 때 비로소 유사도 인덱스에 등록되므로, 사용되지 않고 만료된 팁은 그 주제를 막지 않습니다.
+ * 켜 두면 시작할 때마다 OpenAI 생성 호출이 발생하므로 기본값은 꺼짐입니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TipPoolService {
+
+  private final OpenAIService openAIService;
+
+  @Value("${openai.tip_pool.enabled:false}")
+  private boolean enabled;
+
+  @Value("${openai.tip_pool.low_watermark:1}")
+  private int lowWatermark;
+
+  @Value("${openai.tip_pool.high_watermark:3}")
+  private int highWatermark;
+
+  @Value("${openai.tip_pool.max_age_minutes:720}")
+  private long maxAgeMinutes;
+
+  // 부족분이 2개 이상이면 OpenAIService.generateBatch로 한 번에 보충
+  @Value("${openai.tip_pool.batch_refill:true}")
+  private boolean batchRefill;
+
+  private final ConcurrentLinkedDeque<PooledTip> pool = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger refillsInFlight = new AtomicInteger();
+
+  private final AtomicLong hits = new AtomicLong();
+  private final AtomicLong misses = new AtomicLong();
+  private final AtomicLong staleEvictions = new AtomicLong();
+  private final AtomicLong duplicateEvictions = new AtomicLong();
+  private final AtomicLong refillFailures = new AtomicLong();
+  private final RollingHistogram refillLatency = new RollingHistogram(200);
+
+  @EventListener(ApplicationReadyEvent.class)
+  public void warmUp() {
+    if (!enabled) {
+      log.info("팁 풀 비활성화 상태입니다. (openai.tip_pool.enabled=false)");
+      return;
+    }
+    log.info("팁 풀 워밍업 시작 (low={}, high={}, maxAge={}분)", lowWatermark, highWatermark, maxAgeMinutes);
+    refillIfNeeded();
+  }
+
+  /**
+   * 풀에서 바로 사용할 수 있는 팁을 하나 꺼냅니다.
+   *
+   * @return 사용 가능한 팁. 풀이 비어 있거나 비활성화된 경우 빈 Optional
+   */
+  public Optional<VideoCreationContent> take() {
+    if (!enabled) {
+      return Optional.empty();
+    }
+    try {
+      PooledTip tip;
+      while ((tip = pool.pollFirst()) != null) {
+        if (isStale(tip)) {
+          staleEvictions.incrementAndGet();
+          log.debug("오래된 풀 항목 제거: '{}'", tip.content().getDailyTipTitle());
+          continue;
+        }
+        // 풀에 있는 동안 같은 주제의 팁이 먼저 등록되었으면 버림 (같은 배치 안의 비슷한 팁 포함)
+        TipSimilarityService.DuplicateMatch duplicate = openAIService.registerHandedOut(tip.content());
+        if (duplicate != null) {
+          duplicateEvictions.incrementAndGet();
+          log.debug("이미 등록된 팁 '{}'과(와) 유사한 풀 항목 제거: '{}'", duplicate.matchedTitle(),
+              tip.content().getDailyTipTitle());
+          continue;
+        }
+        hits.incrementAndGet();
+        log.info("팁 풀 적중: '{}' (남은 개수: {})", tip.content().getDailyTipTitle(), pool.size());
+        return Optional.of(tip.content());
+      }
+      misses.incrementAndGet();
+      log.info("팁 풀 미스: 사용 가능한 팁이 없습니다.");
+      return Optional.empty();
+    } finally {
+      refillIfNeeded();
+    }
+  }
+
+  private synchronized void refillIfNeeded() {
+    int available = pool.size() + refillsInFlight.get();
+    if (available > lowWatermark) {
+      return;
+    }
+    int toGenerate = highWatermark - available;
+    log.info("팁 풀 보충 시작: {}개 생성 요청 (현재 {}개, 진행 중 {}개)", toGenerate, pool.size(), refillsInFlight.get());
+    if (batchRefill && toGenerate > 1) {
+      startBatchRefill(toGenerate);
+      return;
+    }
+    for (int i = 0; i < toGenerate; i++) {
+      startRefill();
+    }
+  }
+
+  private void startBatchRefill(int count) {
+    refillsInFlight.addAndGet(count);
+    long startedAt = System.nanoTime();
+    openAIService.generateBatch(count).whenComplete((contents, ex) -> {
+      refillsInFlight.addAndGet(-count);
+      refillLatency.record((System.nanoTime() - startedAt) / 1_000_000);
+      int added = 0;
+      if (ex == null && contents != null) {
+        Instant now = Instant.now();
+        for (VideoCreationContent content : contents) {
+          if (isUsable(content)) {
+            pool.addLast(new PooledTip(content, now));
+            added++;
+          }
+        }
+      }
+      refillFailures.addAndGet(count - added);
+      log.info("팁 풀 배치 보충 완료: 요청 {}개 중 {}개 추가 (현재 {}개)", count, added, pool.size());
+    });
+  }
+
+  private void startRefill() {
+    refillsInFlight.incrementAndGet();
+    long startedAt = System.nanoTime();
+    openAIService.generatePooledContent().whenComplete((content, ex) -> {
+      refillsInFlight.decrementAndGet();
+      refillLatency.record((System.nanoTime() - startedAt) / 1_000_000);
+      if (ex == null && isUsable(content)) {
+        pool.addLast(new PooledTip(content, Instant.now()));
+        log.info("팁 풀 보충 완료: '{}' (현재 {}개)", content.getDailyTipTitle(), pool.size());
+      } else {
+        refillFailures.incrementAndGet();
+        log.warn("팁 풀 보충 실패: {}", ex != null ? ex.getMessage() : "유효하지 않은 생성 결과");
+      }
+    });
+  }
+
+  private boolean isStale(PooledTip tip) {
+    return Duration.between(tip.createdAt(), Instant.now()).toMinutes() >= maxAgeMinutes;
+  }
+
+  private boolean isUsable(VideoCreationContent content) {
+    return content != null && content.getDailyTipTitle() != null && !content.getDailyTipTitle().isBlank()
+        && !content.getDailyTipTitle().startsWith("Error");
+  }
+
+  public Map<String, Object> getMetrics() {
+    long hitCount = hits.get();
+    long total = hitCount + misses.get();
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", enabled);
+    metrics.put("size", pool.size());
+    metrics.put("refills_in_flight", refillsInFlight.get());
+    metrics.put("hits", hitCount);
+    metrics.put("misses", misses.get());
+    metrics.put("hit_rate", total == 0 ? 0.0 : (double) hitCount / total);
+    metrics.put("stale_evictions", staleEvictions.get());
+    metrics.put("duplicate_evictions", duplicateEvictions.get());
+    metrics.put("refill_failures", refillFailures.get());
+    metrics.put("refill_latency_ms", refillLatency.snapshot());
+    return metrics;
+  }
+
+  private record PooledTip(VideoCreationContent content, Instant createdAt) {
+  }
+}
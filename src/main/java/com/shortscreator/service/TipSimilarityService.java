@@ -0,0 +1,230 @@
+package com.shortscreator.service;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shortscreator.model.VideoCreationContent;
+import jakarta.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * 생성된 팁의 제목/스크립트를 MinHash LSH 인덱스에 등록하고, 새로 생성된 팁이 과거 팁과 거의 같은지 확인합니다.
+ * 프롬프트에 최근 제목 20개를 넣는 것만으로는 응답을 검증할 수 없으므로, InVideo 렌더링 전에 여기서 걸러냅니다.
+ * 시그니처는 append-only JSONL 파일에 저장되며 시작 시 다시 로드됩니다.
+ */
+@Slf4j
+@Service
+public class TipSimilarityService {
+
+  private final ObjectMapper objectMapper;
+  private final RecentTipsHistoryService recentTipsHistoryService;
+
+  @Value("${openai.dedup.enabled:true}")
+  private boolean enabled;
+
+  @Value("${openai.dedup.index_filepath:tip_similarity_index.jsonl}")
+  private String indexFilePath;
+
+  @Value("${openai.dedup.shingle_size:3}")
+  private int shingleSize;
+
+  // 시그니처 길이. 바꾸면 저장된 시그니처를 사용할 수 없으므로 밴드 구성과 따로 둠
+  @Value("${openai.dedup.num_hashes:64}")
+  private int numHashes;
+
+  // 후보 확률 = 1 - (1 - s^rows)^bands. rows가 작을수록 재현율은 오르지만 같은 분야 스크립트끼리의
+  // 배경 유사도에서도 후보가 늘어 조회가 느려짐. 21x3: 유사도 0.5 재현율 약 94%, 0.6 약 99.4%
+  @Value("${openai.dedup.bands:21}")
+  private int bands;
+
+  @Value("${openai.dedup.rows:3}")
+  private int rows;
+
+  @Value("${openai.dedup.title_threshold:0.6}")
+  private double titleThreshold;
+
+  @Value("${openai.dedup.script_threshold:0.5}")
+  private double scriptThreshold;
+
+  private MinHashLshIndex titleIndex;
+  private MinHashLshIndex scriptIndex;
+
+  private final RollingHistogram lookupMicros = new RollingHistogram(500);
+  private final AtomicLong lookups = new AtomicLong();
+  private final AtomicLong duplicatesFound = new AtomicLong();
+
+  public record DuplicateMatch(String field, String matchedTitle, double similarity) {
+
+  }
+
+  // 인덱스 파일의 한 줄
+  private record IndexEntry(@JsonProperty("title") String title,
+                            @JsonProperty("created_at") long createdAt,
+                            @JsonProperty("title_signature") int[] titleSignature,
+                            @JsonProperty("script_signature") int[] scriptSignature) {
+
+  }
+
+  public TipSimilarityService(ObjectMapper objectMapper, RecentTipsHistoryService recentTipsHistoryService) {
+    this.objectMapper = objectMapper;
+    this.recentTipsHistoryService = recentTipsHistoryService;
+  }
+
+  @PostConstruct
+  public void initialize() {
+    titleIndex = new MinHashLshIndex(shingleSize, numHashes, bands, rows);
+    scriptIndex = new MinHashLshIndex(shingleSize, numHashes, bands, rows);
+    loadFromFile();
+  }
+
+  private synchronized void loadFromFile() {
+    File indexFile = new File(indexFilePath);
+    if (!indexFile.exists() || indexFile.length() == 0) {
+      // 최초 실행 시에는 최근 팁 제목 히스토리로 제목 인덱스를 채움
+      List<String> recentTitles = recentTipsHistoryService.getRecentTipTitles();
+      for (String title : recentTitles) {
+        appendToFile(register(title, null));
+      }
+      log.info("팁 유사도 인덱스 파일({})이 없어 최근 팁 제목 {}개로 시작합니다.", indexFilePath, recentTitles.size());
+      return;
+    }
+    int loaded = 0;
+    int skipped = 0;
+    try (BufferedReader reader = Files.newBufferedReader(indexFile.toPath(), StandardCharsets.UTF_8)) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (line.isBlank()) {
+          continue;
+        }
+        try {
+          IndexEntry entry = objectMapper.readValue(line, IndexEntry.class);
+          // shingle/band 설정이 바뀌어 시그니처 길이가 다르면 사용할 수 없음
+          if (isCompatible(entry.titleSignature())) {
+            titleIndex.add(entry.title(), entry.titleSignature());
+            if (isCompatible(entry.scriptSignature())) {
+              scriptIndex.add(entry.title(), entry.scriptSignature());
+            }
+            loaded++;
+          } else {
+            skipped++;
+          }
+        } catch (IOException e) {
+          log.warn("손상된 팁 유사도 인덱스 라인을 건너뜁니다: {}", e.getMessage());
+        }
+      }
+      log.info("팁 유사도 인덱스 {}건 로드 완료 (호환되지 않는 시그니처 {}건 제외). 경로: {}", loaded, skipped, indexFilePath);
+    } catch (IOException e) {
+      log.error("팁 유사도 인덱스 파일({}) 로드 중 오류 발생: {}", indexFilePath, e.getMessage(), e);
+    }
+  }
+
+  private boolean isCompatible(int[] signature) {
+    return signature != null && signature.length == titleIndex.getNumHashes();
+  }
+
+  /**
+   * 제목 또는 스크립트가 과거 팁과 임계값 이상으로 유사하면 가장 유사한 항목을 반환합니다.
+   *
+   * @return 유사한 과거 팁이 없거나 기능이 꺼져 있으면 null
+   */
+  public DuplicateMatch findDuplicate(VideoCreationContent content) {
+    if (!enabled || content == null) {
+      return null;
+    }
+    long startedAt = System.nanoTime();
+    lookups.incrementAndGet();
+    try {
+      MinHashLshIndex.Match titleMatch = titleIndex.findMostSimilar(
+          titleIndex.signature(content.getDailyTipTitle()), titleThreshold);
+      if (titleMatch != null) {
+        duplicatesFound.incrementAndGet();
+        return new DuplicateMatch("title", titleMatch.label(), titleMatch.similarity());
+      }
+      if (content.getDailyTipScript() != null && !content.getDailyTipScript().isBlank()) {
+        MinHashLshIndex.Match scriptMatch = scriptIndex.findMostSimilar(
+            scriptIndex.signature(content.getDailyTipScript()), scriptThreshold);
+        if (scriptMatch != null) {
+          duplicatesFound.incrementAndGet();
+          return new DuplicateMatch("script", scriptMatch.label(), scriptMatch.similarity());
+        }
+      }
+      return null;
+    } finally {
+      lookupMicros.record((System.nanoTime() - startedAt) / 1_000);
+    }
+  }
+
+  /**
+   * 유사한 과거 팁이 없을 때만 등록합니다. 동시에 생성된 두 팁이 서로 중복인 경우도 걸러지도록 확인과 등록을 원자적으로 수행합니다.
+   *
+   * @return 중복이면 가장 유사한 과거 팁, 등록되었으면 null
+   */
+  public synchronized DuplicateMatch registerIfUnique(VideoCreationContent content) {
+    DuplicateMatch match = findDuplicate(content);
+    if (match == null) {
+      register(content);
+    }
+    return match;
+  }
+
+  /**
+   * 채택된 팁을 인덱스와 파일에 등록합니다.
+   */
+  public void register(VideoCreationContent content) {
+    if (!enabled || content == null || content.getDailyTipTitle() == null || content.getDailyTipTitle().isBlank()) {
+      return;
+    }
+    IndexEntry entry = register(content.getDailyTipTitle(), content.getDailyTipScript());
+    appendToFile(entry);
+  }
+
+  private synchronized IndexEntry register(String title, String script) {
+    int[] titleSignature = titleIndex.signature(title);
+    int[] scriptSignature = script != null && !script.isBlank() ? scriptIndex.signature(script) : null;
+    titleIndex.add(title, titleSignature);
+    if (scriptSignature != null) {
+      scriptIndex.add(title, scriptSignature);
+    }
+    return new IndexEntry(title, System.currentTimeMillis(), titleSignature, scriptSignature);
+  }
+
+  private synchronized void appendToFile(IndexEntry entry) {
+    File indexFile = new File(indexFilePath);
+    File parentDir = indexFile.getParentFile();
+    if (parentDir != null && !parentDir.exists() && !parentDir.mkdirs()) {
+      log.error("팁 유사도 인덱스 디렉토리 생성 실패: {}", parentDir.getAbsolutePath());
+    }
+    try (Writer writer = new OutputStreamWriter(new FileOutputStream(indexFile, true), StandardCharsets.UTF_8)) {
+      writer.write(objectMapper.writeValueAsString(entry));
+      writer.write('\n');
+    } catch (IOException e) {
+      log.error("팁 유사도 인덱스 파일({}) 기록 중 오류 발생: {}", indexFilePath, e.getMessage(), e);
+    }
+  }
+
+  public Map<String, Object> getMetrics() {
+    Map<String, Object> metrics = new LinkedHashMap<>();
+    metrics.put("enabled", enabled);
+    metrics.put("indexed_titles", titleIndex.size());
+    metrics.put("indexed_scripts", scriptIndex.size());
+    metrics.put("lookups", lookups.get());
+    metrics.put("duplicates_found", duplicatesFound.get());
+    metrics.put("title_threshold", titleThreshold);
+    metrics.put("script_threshold", scriptThreshold);
+    metrics.put("lookup_micros", lookupMicros.snapshot());
+    return metrics;
+  }
+}
@@ -0,0 +1,145 @@
+package com.shortscreator.service;
+
+import com.knuddels.jtokkit.Encodings;
+import com.knuddels.jtokkit.api.Encoding;
+import com.knuddels.jtokkit.api.EncodingRegistry;
+import com.knuddels.jtokkit.api.EncodingType;
+import com.shortscreator.config.TokenBudgetConfig;
+import com.theokanning.openai.completion.chat.ChatCompletionRequest;
+import com.theokanning.openai.completion.chat.ChatMessage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+/**
+ * 로컬 BPE 토크나이저(jtokkit)로 프롬프트 토큰 수를 계산하고, 토큰 예산에 맞게 프롬프트와 max_tokens를 정합니다.
+ * API를 호출하지 않고도 프롬프트 변경에 따른 토큰 수를 확인할 수 있습니다.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TokenBudgetService {
+
+  // ChatML 형식에서 메시지마다 붙는 구분 토큰 수와 응답 시작 토큰 수
+  private static final int TOKENS_PER_MESSAGE = 3;
+  private static final int REPLY_PRIMING_TOKENS = 3;
+
+  private final TokenBudgetConfig config;
+
+  private final EncodingRegistry registry = Encodings.newDefaultEncodingRegistry();
+  private final Map<String, Encoding> encodingByModel = new ConcurrentHashMap<>();
+
+  // 로컬 계산값과 API usage.prompt_tokens 비교 (인코딩 차이로 인한 오차 확인용)
+  private final AtomicLong calibrationSamples = new AtomicLong();
+  private final AtomicLong calibrationLocalTokens = new AtomicLong();
+  private final AtomicLong calibrationActualTokens = new AtomicLong();
+
+  /**
+   * 모델에 맞는 인코딩을 반환합니다. jtokkit이 모르는 모델(gpt-4.1 등)은 fallback 인코딩을 사용합니다.
+   */
+  public Encoding encodingFor(String model) {
+    String key = model != null ? model : "";
+    return encodingByModel.computeIfAbsent(key, name -> registry.getEncodingForModel(name)
+        .orElseGet(() -> {
+          log.info("모델 '{}'의 토크나이저를 찾지 못해 {} 인코딩으로 계산합니다.", name, config.getFallbackEncoding());
+          return registry.getEncoding(config.getFallbackEncoding())
+              .orElseGet(() -> registry.getEncoding(EncodingType.CL100K_BASE));
+        }));
+  }
+
+  public int countText(String model, String text) {
+    if (text == null || text.isEmpty()) {
+      return 0;
+    }
+    return encodingFor(model).countTokensOrdinary(text);
+  }
+
+  public int countMessages(String model, List<ChatMessage> messages) {
+    int tokens = REPLY_PRIMING_TOKENS;
+    for (ChatMessage message : messages) {
+      tokens += TOKENS_PER_MESSAGE + countText(model, message.getRole()) + countText(model, message.getContent());
+    }
+    return tokens;
+  }
+
+  public int countPrompt(ChatCompletionRequest request) {
+    return countMessages(request.getModel(), request.getMessages());
+  }
+
+  /**
+   * 남은 컨텍스트 안에서 요청할 max_tokens를 계산합니다.
+   *
+   * @param desiredTokens 원하는 completion 토큰 수
+   * @throws IllegalStateException 프롬프트가 너무 커서 최소 completion 토큰도 확보할 수 없는 경우
+   */
+  public int completionTokens(String model, int promptTokens, int desiredTokens) {
+    int contextWindow = config.findContextWindow(model);
+    if (promptTokens > config.getMaxPromptTokens()) {
+      log.warn("프롬프트 토큰 수({})가 설정된 예산({})을 넘었습니다. 모델: {}", promptTokens, config.getMaxPromptTokens(), model);
+    }
+    int remaining = contextWindow - promptTokens - config.getSafetyMarginTokens();
+    if (remaining < config.getMinCompletionTokens()) {
+      throw new IllegalStateException("Prompt uses " + promptTokens + " of " + contextWindow
+          + " context tokens; not enough room for a completion");
+    }
+    return Math.min(desiredTokens, remaining);
+  }
+
+  public int completionTokens(String model, int promptTokens) {
+    return completionTokens(model, promptTokens, config.getMaxCompletionTokens());
+  }
+
+  /**
+   * 최근 팁 제목 목록을 토큰 예산에 맞게 줄입니다. 최신 제목(목록의 뒤쪽)부터 남깁니다.
+   *
+   * @return 예산 안에 들어가는 제목 목록 (원래 순서 유지)
+   */
+  public List<String> fitTitles(String model, List<String> titles, String linePrefix) {
+    List<String> kept = new ArrayList<>();
+    int used = 0;
+    for (int i = titles.size() - 1; i >= 0; i--) {
+      int lineTokens = countText(model, linePrefix + titles.get(i) + "\n");
+      if (used + lineTokens > config.getPreviousTipsTokens()) {
+        break;
+      }
+      used += lineTokens;
+      kept.add(titles.get(i));
+    }
+    Collections.reverse(kept);
+    if (kept.size() < titles.size()) {
+      log.debug("토큰 예산({})에 맞추기 위해 최근 팁 제목 {}개 중 오래된 {}개를 제외했습니다.",
+          config.getPreviousTipsTokens(), titles.size(), titles.size() - kept.size());
+    }
+    return kept;
+  }
+
+  public void recordCalibration(int localTokens, long actualTokens) {
+    if (localTokens <= 0 || actualTokens <= 0) {
+      return;
+    }
+    calibrationSamples.incrementAndGet();
+    calibrationLocalTokens.addAndGet(localTokens);
+    calibrationActualTokens.addAndGet(actualTokens);
+  }
+
+  public Map<String, Object> getCalibration() {
+    long local = calibrationLocalTokens.get();
+    Map<String, Object> calibration = new LinkedHashMap<>();
+    calibration.put("samples", calibrationSamples.get());
+    calibration.put("local_prompt_tokens", local);
+    calibration.put("api_prompt_tokens", calibrationActualTokens.get());
+    calibration.put("api_to_local_ratio", local == 0 ? 0.0 : (double) calibrationActualTokens.get() / local);
+    return calibration;
+  }
+
+  public TokenBudgetConfig getConfig() {
+    return config;
+  }
+}
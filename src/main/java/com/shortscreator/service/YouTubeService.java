@@ -67,6 +67,16 @@ public class YouTubeService {
    * @return 업로드 성공 여부
    */
   public boolean uploadShorts(String videoFilePath, String title, String description) {
+    return uploadShorts(videoFilePath, title, description, JobHandle.untracked());
+  }
+
+  /**
+   * YouTube Shorts 영상을 업로드합니다. 작업이 취소되면 진행 중인 업로드를 중단합니다.
+   *
+   * @param job 업로드가 속한 작업의 취소 핸들
+   * @return 업로드 성공 여부
+   */
+  public boolean uploadShorts(String videoFilePath, String title, String description, JobHandle job) {
     try {
       log.info("YouTube Shorts 업로드 요청: {}", videoFilePath);
 
@@ -90,7 +100,7 @@ public class YouTubeService {
       }
 
       // 실제 업로드 수행 (기본적으로 비공개로 업로드)
-      boolean uploadResult = youTubeUploadService.uploadPrivateShorts(videoFilePath, title, description);
+      boolean uploadResult = youTubeUploadService.uploadPrivateShorts(videoFilePath, title, description, job);
 
       if (uploadResult) {
         log.info("✅ YouTube Shorts 업로드 성공: {}", videoFilePath);
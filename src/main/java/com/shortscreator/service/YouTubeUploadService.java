@@ -8,12 +8,14 @@ import com.google.api.services.youtube.model.*;
 import com.shortscreator.config.YouTubeUploadConfig;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.security.GeneralSecurityException;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -27,6 +29,10 @@ public class YouTubeUploadService {
   private final YouTubeUploadConfig uploadConfig;
   private final YouTubePlaylistService playlistService;
 
+  // 남은 작업 시간이 이보다 짧으면 업로드를 시작하지 않음 (마감에 걸려 중간에 끊길 업로드로 할당량을 쓰지 않도록)
+  @Value("${job.deadline.min_upload_seconds:60}")
+  private int minUploadSeconds;
+
   /**
    * YouTube Shorts 영상을 기본 설정으로 업로드합니다.
    *
@@ -53,6 +59,17 @@ public class YouTubeUploadService {
    */
   public boolean uploadVideo(String videoFilePath, String title, String description,
       String privacyStatus, List<String> customTags) {
+    return uploadVideo(videoFilePath, title, description, privacyStatus, customTags, JobHandle.untracked());
+  }
+
+  /**
+   * YouTube에 영상을 업로드합니다. 작업이 취소되거나 마감이 지나면 입력 스트림을 닫아 진행 중인 재개 가능(resumable) 업로드를 중단합니다.
+   *
+   * @param job 업로드가 속한 작업의 취소 핸들
+   * @return 업로드 성공 여부
+   */
+  public boolean uploadVideo(String videoFilePath, String title, String description,
+      String privacyStatus, List<String> customTags, JobHandle job) {
     try {
       log.info("YouTube 영상 업로드 시작: {}", videoFilePath);
       log.info("설정 적용: {}", uploadConfig.getConfigSummary());
@@ -122,8 +139,12 @@ public class YouTubeUploadService {
 
       video.setContentDetails(contentDetails);
 
+      // 마감 전에 끝나지 못할 업로드는 스트림을 열기 전에 포기
+      job.getDeadline().require(Duration.ofSeconds(minUploadSeconds), "youtube_upload");
+
       // 파일 입력 스트림 생성
       FileInputStream inputStream = new FileInputStream(videoFile);
+      JobHandle.Registration cancelRegistration = job.onCancel(() -> closeQuietly(inputStream));
       InputStreamContent mediaContent = new InputStreamContent("video/*", inputStream);
 
       // 파일 크기 설정 (업로드 진행률 표시용)
@@ -149,8 +170,14 @@ public class YouTubeUploadService {
       log.info("- 태그: {}", finalTags);
 
       // 업로드 실행
+      job.throwIfCancelled();
       log.info("YouTube 업로드 시작...");
-      Video uploadedVideo = videoInsert.execute();
+      Video uploadedVideo;
+      try {
+        uploadedVideo = videoInsert.execute();
+      } finally {
+        cancelRegistration.close();
+      }
 
       // 업로드 결과 확인
       if (uploadedVideo != null && uploadedVideo.getId() != null) {
@@ -190,14 +217,33 @@ public class YouTubeUploadService {
       log.error("OAuth 2.0 인증 보안 오류: {}", e.getMessage(), e);
       return false;
     } catch (IOException e) {
+      if (job.isCancelled()) {
+        log.info("작업이 취소되어 YouTube 업로드를 중단했습니다 (Task ID: {}).", job.getTaskId());
+        return false;
+      }
       log.error("YouTube 업로드 중 I/O 오류: {}", e.getMessage(), e);
       return false;
+    } catch (JobHandle.JobCancelledException e) {
+      log.info("작업이 취소되어 YouTube 업로드를 시작하지 않았습니다 (Task ID: {}).", job.getTaskId());
+      return false;
+    } catch (JobDeadline.DeadlineExceededException e) {
+      log.warn("남은 작업 시간이 부족하여 YouTube 업로드를 시작하지 않았습니다 (Task ID: {}): {}",
+          job.getTaskId(), e.getMessage());
+      return false;
     } catch (Exception e) {
       log.error("YouTube 업로드 중 예상치 못한 오류: {}", e.getMessage(), e);
       return false;
     }
   }
 
+  private void closeQuietly(FileInputStream inputStream) {
+    try {
+      inputStream.close();
+    } catch (IOException e) {
+      log.debug("업로드 스트림 닫기 중 오류: {}", e.getMessage());
+    }
+  }
+
   /**
    * 업로드된 영상의 실제 설정을 로그로 출력
    */
@@ -309,8 +355,15 @@ public class YouTubeUploadService {
    * YouTube Shorts 영상 업로드 (비공개)
    */
   public boolean uploadPrivateShorts(String videoFilePath, String title, String description) {
+    return uploadPrivateShorts(videoFilePath, title, description, JobHandle.untracked());
+  }
+
+  /**
+   * YouTube Shorts 영상 업로드 (비공개, 취소 가능)
+   */
+  public boolean uploadPrivateShorts(String videoFilePath, String title, String description, JobHandle job) {
     return uploadVideo(videoFilePath, title, description, "private",
-        uploadConfig.getDefaultTags());
+        uploadConfig.getDefaultTags(), job);
   }
 
   /**
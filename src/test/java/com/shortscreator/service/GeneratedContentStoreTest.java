@@ -0,0 +1,85 @@
+package com.shortscreator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shortscreator.model.GeneratedContentStatus;
+import com.shortscreator.model.VideoCreationContent;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class GeneratedContentStoreTest {
+
+  @TempDir
+  Path tempDir;
+
+  private String storeFile;
+
+  @BeforeEach
+  void setUp() {
+    storeFile = tempDir.resolve("generated_content.jsonl").toString();
+  }
+
+  @Test
+  void justSavedTipIsNotReofferedWithinLease() {
+    GeneratedContentStore store = newStore(30);
+    store.save("task-1", tip("물 마시기", null));
+
+    assertTrue(store.claimUnused(null).isEmpty());
+  }
+
+  @Test
+  void justSavedTipIsNotReofferedForMatchingCategory() {
+    GeneratedContentStore store = newStore(30);
+    store.save("task-1", tip("물 마시기", "health"));
+
+    assertTrue(store.claimUnused("health").isEmpty());
+  }
+
+  @Test
+  void reloadedTipIsNotReofferedWithinLease() {
+    newStore(30).save("task-1", tip("물 마시기", null));
+
+    assertTrue(newStore(30).claimUnused(null).isEmpty());
+  }
+
+  @Test
+  void unusedTipIsRecycledAfterLeaseOnlyInItsCategory() {
+    GeneratedContentStore store = newStore(0);
+    store.save("task-1", tip("물 마시기", "health"));
+
+    assertTrue(store.claimUnused("money").isEmpty());
+    Optional<GeneratedContentStore.StoredContent> recycled = store.claimUnused("health");
+    assertTrue(recycled.isPresent());
+    assertEquals("task-1", recycled.get().taskId());
+  }
+
+  @Test
+  void renderedTipIsNotRecycled() {
+    GeneratedContentStore store = newStore(0);
+    store.save("task-1", tip("물 마시기", null));
+    store.updateStatus("task-1", GeneratedContentStatus.RENDERED, "video.mp4");
+
+    assertTrue(store.claimUnused(null).isEmpty());
+  }
+
+  private GeneratedContentStore newStore(long offerLeaseMinutes) {
+    GeneratedContentStore store = new GeneratedContentStore(new ObjectMapper(), storeFile);
+    ReflectionTestUtils.setField(store, "recycleEnabled", true);
+    ReflectionTestUtils.setField(store, "maxAgeHours", 72L);
+    ReflectionTestUtils.setField(store, "offerLeaseMinutes", offerLeaseMinutes);
+    store.initialize();
+    return store;
+  }
+
+  private VideoCreationContent tip(String title, String category) {
+    VideoCreationContent content = new VideoCreationContent(title, "script", "prompt", "summary");
+    content.setCategory(category);
+    return content;
+  }
+}
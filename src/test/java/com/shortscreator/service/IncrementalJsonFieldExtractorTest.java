@@ -0,0 +1,92 @@
+package com.shortscreator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IncrementalJsonFieldExtractorTest {
+
+  private final List<String> fields = new ArrayList<>();
+  private final IncrementalJsonFieldExtractor extractor =
+      new IncrementalJsonFieldExtractor((key, value) -> fields.add(key + "=" + value));
+
+  @Test
+  void emitsTopLevelStringFieldsInOrder() {
+    extractor.feed("{\"daily_tip_title\": \"물 마시기\", \"daily_tip_script\": \"하루 2리터\"}");
+
+    assertEquals(List.of("daily_tip_title=물 마시기", "daily_tip_script=하루 2리터"), fields);
+  }
+
+  @Test
+  void emitsFieldAsSoonAsClosingQuoteArrives() {
+    extractor.feed("{\"daily_tip_title\": \"물 마");
+    assertEquals(List.of(), fields);
+
+    extractor.feed("시기\", \"daily_tip_scr");
+    assertEquals(List.of("daily_tip_title=물 마시기"), fields);
+  }
+
+  @Test
+  void sameResultWhenFedOneCharacterAtATime() {
+    String json = "{\"a\": \"x\\\"y\", \"n\": 3, \"b\": \"\\u00e9\\n\"}";
+    for (int i = 0; i < json.length(); i++) {
+      extractor.feed(json.substring(i, i + 1));
+    }
+
+    assertEquals(List.of("a=x\"y", "b=é\n"), fields);
+  }
+
+  @Test
+  void decodesEscapesSplitAcrossChunks() {
+    extractor.feed("{\"s\": \"line1\\");
+    extractor.feed("nline2 \\u00");
+    extractor.feed("41 tab\\");
+    extractor.feed("t slash\\/ quote\\\"\"}");
+
+    assertEquals(List.of("s=line1\nline2 A tab\t slash/ quote\""), fields);
+  }
+
+  @Test
+  void decodesSurrogatePairEscapes() {
+    extractor.feed("{\"emoji\": \"\\ud83d\\ude00\"}");
+
+    assertEquals(List.of("emoji=😀"), fields);
+  }
+
+  @Test
+  void ignoresNestedObjectsAndArrays() {
+    extractor.feed("{\"meta\": {\"inner\": \"skip\"}, \"tags\": [\"x\", \"y\"], \"title\": \"keep\"}");
+
+    assertEquals(List.of("title=keep"), fields);
+  }
+
+  @Test
+  void ignoresNonStringValuesAndKeepsKeyValuePairing() {
+    extractor.feed("{\"count\": 5, \"ok\": true, \"none\": null, \"title\": \"t\"}");
+
+    assertEquals(List.of("title=t"), fields);
+  }
+
+  @Test
+  void ignoresCodeFenceAndProseAroundObject() {
+    extractor.feed("```json\n{\"title\": \"fenced\"}\n```");
+
+    assertEquals(List.of("title=fenced"), fields);
+  }
+
+  @Test
+  void keepsStructuralCharactersInsideStrings() {
+    extractor.feed("{\"script\": \"a {b} [c], d: e\", \"next\": \"f\"}");
+
+    assertEquals(List.of("script=a {b} [c], d: e", "next=f"), fields);
+  }
+
+  @Test
+  void emitsNothingForTruncatedValue() {
+    extractor.feed("{\"title\": \"never closed");
+
+    assertEquals(List.of(), fields);
+  }
+}
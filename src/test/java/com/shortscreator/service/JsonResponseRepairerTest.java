@@ -0,0 +1,109 @@
+package com.shortscreator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class JsonResponseRepairerTest {
+
+  private JsonResponseRepairer repairer;
+
+  @BeforeEach
+  void setUp() {
+    repairer = new JsonResponseRepairer(new ObjectMapper());
+  }
+
+  @Test
+  void parsesValidJsonStrictly() throws Exception {
+    JsonNode node = repairer.readTree("{\"daily_tip_title\": \"물 마시기\"}");
+
+    assertEquals("물 마시기", node.get("daily_tip_title").asText());
+    assertEquals(1L, repairer.getMetrics().get("strict_successes"));
+    assertEquals(0L, repairer.getMetrics().get("repaired_successes"));
+  }
+
+  @Test
+  void stripsCodeFenceWithLanguageTag() throws Exception {
+    JsonNode node = repairer.readTree("```json\n{\"daily_tip_title\": \"t\"}\n```");
+
+    assertEquals("t", node.get("daily_tip_title").asText());
+    assertEquals(1L, repairer.getMetrics().get("repaired_successes"));
+  }
+
+  @Test
+  void stripsCodeFenceWithoutLanguageTag() throws Exception {
+    JsonNode node = repairer.readTree("  ```\n[1, 2]\n```  ");
+
+    assertEquals(2, node.size());
+  }
+
+  @Test
+  void extractsObjectSurroundedByProse() throws Exception {
+    JsonNode node = repairer.readTree("Here is your tip:\n{\"a\": 1}\nHope this helps! {not json}");
+
+    assertEquals(1, node.get("a").asInt());
+  }
+
+  @Test
+  void ignoresBracesAndEscapedQuotesInsideStrings() throws Exception {
+    JsonNode node = repairer.readTree("Sure: {\"script\": \"say \\\"}\\\" and { keep ] going\", \"n\": 2} trailing");
+
+    assertEquals("say \"}\" and { keep ] going", node.get("script").asText());
+    assertEquals(2, node.get("n").asInt());
+  }
+
+  @Test
+  void removesTrailingCommasInObjectsAndArrays() throws Exception {
+    JsonNode node = repairer.readTree("{\"tags\": [\"a\", \"b\",\n ],\n \"n\": 1,\n}");
+
+    assertEquals(2, node.get("tags").size());
+    assertEquals(1, node.get("n").asInt());
+    assertEquals(1L, repairer.getMetrics().get("repaired_successes"));
+  }
+
+  @Test
+  void keepsCommasInsideStrings() {
+    assertEquals("{\"s\": \"a, }\", \"t\": \"b,]\"}", repairer.repair("{\"s\": \"a, }\", \"t\": \"b,]\",}"));
+  }
+
+  @Test
+  void fallsBackToLenientParserForSingleQuotes() throws Exception {
+    JsonNode node = repairer.readTree("{'daily_tip_title': 'quoted', /* note */ unquoted: 1}");
+
+    assertEquals("quoted", node.get("daily_tip_title").asText());
+    assertEquals(1, node.get("unquoted").asInt());
+    assertEquals(1L, repairer.getMetrics().get("lenient_successes"));
+  }
+
+  @Test
+  void readValueMapsRepairedTree() throws Exception {
+    @SuppressWarnings("unchecked")
+    Map<String, Object> value = repairer.readValue("```json\n{\"n\": 3,}\n```", Map.class);
+
+    assertEquals(3, value.get("n"));
+  }
+
+  @Test
+  void failsOnTruncatedResponse() {
+    assertThrows(JsonProcessingException.class, () -> repairer.readTree("{\"daily_tip_title\": \"cut off"));
+    assertEquals(1L, repairer.getMetrics().get("failures"));
+    assertEquals(1.0, repairer.getMetrics().get("failure_rate"));
+  }
+
+  @Test
+  void rejectsScalarResponse() {
+    assertThrows(JsonProcessingException.class, () -> repairer.readTree("42"));
+    assertEquals(1L, repairer.getMetrics().get("failures"));
+  }
+
+  @Test
+  void repairOfNullIsEmpty() {
+    assertEquals("", repairer.repair(null));
+  }
+}
@@ -0,0 +1,126 @@
+package com.shortscreator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class MinHashLshIndexTest {
+
+  // TipSimilarityService 기본 설정 (num_hashes 64, 21x3 밴드)
+  private static final int NUM_HASHES = 64;
+  private static final int BANDS = 21;
+  private static final int ROWS = 3;
+
+  private static final int INDEX_SIZE = 20_000;
+  private static final int WORDS_PER_SCRIPT = 100;
+
+  private final Random random = new Random(42);
+  private final String[] vocabulary = buildVocabulary(1500);
+
+  @Test
+  void findsIdenticalTextAndIgnoresUnrelatedText() {
+    MinHashLshIndex index = new MinHashLshIndex(3, NUM_HASHES, BANDS, ROWS);
+    index.add("water", index.signature("하루에 물 2리터 마시기로 피로 줄이기"));
+
+    MinHashLshIndex.Match match = index.findMostSimilar(index.signature("하루에 물 2리터 마시기로, 피로 줄이기!"), 0.6);
+    assertNotNull(match);
+    assertEquals("water", match.label());
+    assertEquals(1.0, match.similarity());
+    assertNull(index.findMostSimilar(index.signature("주말 아침 스트레칭 루틴"), 0.6));
+  }
+
+  @Test
+  void rejectsBandingLongerThanSignature() {
+    assertThrows(IllegalArgumentException.class, () -> new MinHashLshIndex(3, 64, 22, 3));
+  }
+
+  @Test
+  void lookupsStayCheapAndFindNearDuplicatesInLargeIndex() {
+    MinHashLshIndex index = new MinHashLshIndex(3, NUM_HASHES, BANDS, ROWS);
+    List<String> scripts = new ArrayList<>(INDEX_SIZE);
+    for (int i = 0; i < INDEX_SIZE; i++) {
+      String script = randomScript();
+      scripts.add(script);
+      index.add("tip-" + i, index.signature(script));
+    }
+
+    // 새 스크립트 조회 시 직접 비교하는 후보는 인덱스의 일부여야 함 (조회 비용이 전체 크기에 비례하지 않도록)
+    int queries = 500;
+    long candidates = 0;
+    List<int[]> querySignatures = new ArrayList<>(queries);
+    for (int i = 0; i < queries; i++) {
+      int[] signature = index.signature(randomScript());
+      querySignatures.add(signature);
+      candidates += index.candidateCount(signature);
+    }
+    double candidateFraction = (double) candidates / queries / INDEX_SIZE;
+    assertTrue(candidateFraction < 0.02, "candidate fraction " + candidateFraction);
+
+    for (int[] signature : querySignatures) {
+      index.findMostSimilar(signature, 0.5); // 워밍업
+    }
+    long startedAt = System.nanoTime();
+    for (int[] signature : querySignatures) {
+      index.findMostSimilar(signature, 0.5);
+    }
+    long averageMicros = (System.nanoTime() - startedAt) / 1_000 / queries;
+    // 측정값은 수십 us. 느린 CI 환경을 감안한 상한
+    assertTrue(averageMicros < 1_000, "average lookup " + averageMicros + "us");
+
+    // 단어의 1/4을 바꾼 스크립트 (trigram Jaccard 약 0.55)는 대부분 찾아야 함
+    int trials = 300;
+    int found = 0;
+    for (int i = 0; i < trials; i++) {
+      int original = random.nextInt(INDEX_SIZE);
+      MinHashLshIndex.Match match = index.findMostSimilar(index.signature(mutate(scripts.get(original), 0.25)), 0.4);
+      if (match != null && match.label().equals("tip-" + original)) {
+        found++;
+      }
+    }
+    assertTrue(found >= trials * 0.9, "near-duplicate recall " + found + "/" + trials);
+  }
+
+  private String[] buildVocabulary(int size) {
+    String letters = "abcdefghijklmnoprstuvw";
+    String[] words = new String[size];
+    for (int i = 0; i < size; i++) {
+      StringBuilder word = new StringBuilder();
+      int length = 3 + random.nextInt(6);
+      for (int j = 0; j < length; j++) {
+        word.append(letters.charAt(random.nextInt(letters.length())));
+      }
+      words[i] = word.toString();
+    }
+    return words;
+  }
+
+  // 자주 쓰는 단어가 많이 나오도록 앞쪽 단어에 치우친 분포
+  private String randomWord() {
+    return vocabulary[(int) (Math.pow(random.nextDouble(), 2.5) * vocabulary.length)];
+  }
+
+  private String randomScript() {
+    StringBuilder script = new StringBuilder();
+    for (int i = 0; i < WORDS_PER_SCRIPT; i++) {
+      script.append(randomWord()).append(' ');
+    }
+    return script.toString();
+  }
+
+  private String mutate(String script, double fraction) {
+    String[] words = script.split(" ");
+    for (int i = 0; i < words.length; i++) {
+      if (random.nextDouble() < fraction) {
+        words[i] = randomWord();
+      }
+    }
+    return String.join(" ", words);
+  }
+}
@@ -0,0 +1,123 @@
+package com.shortscreator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+class OpenAICircuitBreakerTest {
+
+  private OpenAICircuitBreaker circuitBreaker;
+  private ExecutorService executor;
+
+  @BeforeEach
+  void setUp() {
+    circuitBreaker = new OpenAICircuitBreaker();
+    ReflectionTestUtils.setField(circuitBreaker, "enabled", true);
+    ReflectionTestUtils.setField(circuitBreaker, "windowSize", 4);
+    ReflectionTestUtils.setField(circuitBreaker, "minimumCalls", 2);
+    ReflectionTestUtils.setField(circuitBreaker, "failureRateThreshold", 0.5);
+    ReflectionTestUtils.setField(circuitBreaker, "slowCallRateThreshold", 0.8);
+    ReflectionTestUtils.setField(circuitBreaker, "slowCallDurationMs", 45_000L);
+    // OPEN 직후 바로 HALF_OPEN으로 넘어가도록
+    ReflectionTestUtils.setField(circuitBreaker, "openDurationSeconds", 0L);
+    ReflectionTestUtils.setField(circuitBreaker, "halfOpenPermittedCalls", 1);
+    circuitBreaker.init();
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void opensAfterFailureRateThresholdAndClosesAfterHalfOpenProbe() throws Exception {
+    failCall();
+    failCall();
+    assertEquals(OpenAICircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+    assertEquals("ok", circuitBreaker.execute(() -> "ok"));
+    assertEquals(OpenAICircuitBreaker.State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  void callAdmittedWhileClosedDoesNotCountAsHalfOpenProbe() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> preOpenCall = startBlockedCall(release, null);
+
+    failCall();
+    failCall();
+    assertEquals(OpenAICircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+    // CLOSED 상태에서 허용된 호출이 HALF_OPEN 중에 성공해도 탐색 호출 성공으로 세지 않음
+    release.countDown();
+    assertEquals("late", preOpenCall.get(5, TimeUnit.SECONDS));
+    assertEquals(OpenAICircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+
+    // 탐색 호출 한도(1)가 그대로 남아 있어야 함
+    assertEquals("ok", circuitBreaker.execute(() -> "ok"));
+    assertEquals(OpenAICircuitBreaker.State.CLOSED, circuitBreaker.getState());
+  }
+
+  @Test
+  void failedCallAdmittedWhileClosedDoesNotReopenHalfOpenCircuit() throws Exception {
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> preOpenCall = startBlockedCall(release, new IllegalStateException("slow failure"));
+
+    failCall();
+    failCall();
+    assertEquals(OpenAICircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+    long transitions = (long) circuitBreaker.getStatus().get("state_transitions");
+
+    release.countDown();
+    assertThrows(ExecutionException.class, () -> preOpenCall.get(5, TimeUnit.SECONDS));
+    assertEquals(transitions, (long) circuitBreaker.getStatus().get("state_transitions"));
+    assertEquals(OpenAICircuitBreaker.State.HALF_OPEN, circuitBreaker.getState());
+  }
+
+  @Test
+  void rejectsProbesBeyondPermittedCalls() throws Exception {
+    failCall();
+    failCall();
+    CountDownLatch release = new CountDownLatch(1);
+    Future<String> probe = startBlockedCall(release, null);
+
+    assertThrows(OpenAICircuitBreaker.CircuitOpenException.class, () -> circuitBreaker.execute(() -> "extra"));
+
+    release.countDown();
+    assertEquals("late", probe.get(5, TimeUnit.SECONDS));
+    assertEquals(OpenAICircuitBreaker.State.CLOSED, circuitBreaker.getState());
+  }
+
+  private void failCall() {
+    assertThrows(IllegalStateException.class, () -> circuitBreaker.execute(() -> {
+      throw new IllegalStateException("failure");
+    }));
+  }
+
+  // release가 열릴 때까지 끝나지 않는 호출을 시작하고, 서킷이 호출을 허용할 때까지 기다림
+  private Future<String> startBlockedCall(CountDownLatch release, RuntimeException failure) throws InterruptedException {
+    CountDownLatch admitted = new CountDownLatch(1);
+    Future<String> future = executor.submit(() -> circuitBreaker.execute(() -> {
+      admitted.countDown();
+      release.await();
+      if (failure != null) {
+        throw failure;
+      }
+      return "late";
+    }));
+    assertTrue(admitted.await(5, TimeUnit.SECONDS));
+    return future;
+  }
+}